@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.benchmark;
+
+import dev.georgethepenguin.render.poc.model.service.DailyBalanceService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmarks for the balance at a point in time, computed from the daily balances plus a partial scan of its day,
+ * compared with the naive sum of every previous transaction.
+ * <p>
+ * The transactions are spread over ten years, in an H2 database file under {@code target}, since ten million rows do
+ * not fit comfortably in memory. Loading them takes a few minutes; use {@code -p rows=1000000} for a quicker run.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class BalanceAtBenchmark {
+
+    private static final LocalDateTime END = LocalDateTime.of(2023, 6, 1, 0, 0);
+
+    private static final long SPAN_SECONDS = 10L * 365 * 24 * 60 * 60;
+
+    private static final int LOAD_CHUNK_SIZE = 100_000;
+
+    @Param({"10000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private DailyBalanceService dailyBalanceService;
+
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Starts the application context, loads the rows and builds their daily balances.
+     *
+     * @throws IOException if the previous database cannot be deleted
+     */
+    @Setup
+    public void setUp() throws IOException {
+        final var database = Path.of("target", "balance-at");
+        Files.deleteIfExists(Path.of(database + ".mv.db"));
+
+        context = TransactionRepositoryBenchmark.applicationContextForUrl("jdbc:h2:file:./" + database
+                + ";DB_CLOSE_ON_EXIT=FALSE");
+        dailyBalanceService = context.getBean(DailyBalanceService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        // Every chunk is committed on its own, so H2 does not keep the undo log of all the rows
+        for (var first = 1; first <= rows; first += LOAD_CHUNK_SIZE) {
+            jdbcTemplate.update("INSERT INTO transaction (id, date_time, amount, description) "
+                            + "SELECT RANDOM_UUID(), DATEADD(SECOND, -X * CAST(? AS BIGINT), CAST(? AS TIMESTAMP)), "
+                            + "MOD(X, 1000) * 25, 'description' "
+                            + "FROM SYSTEM_RANGE(CAST(? AS BIGINT), CAST(? AS BIGINT))",
+                    SPAN_SECONDS / rows, END, first, Math.min(rows, first + LOAD_CHUNK_SIZE - 1));
+        }
+
+        dailyBalanceService.rebuild();
+    }
+
+    /**
+     * Stops the application context.
+     */
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Computes the balance at a random point in time from the daily balances.
+     *
+     * @return the balance
+     */
+    @Benchmark
+    public long dailyBalanceAt() {
+        return dailyBalanceService.getBalanceAt(randomDateTime());
+    }
+
+    /**
+     * Computes the balance at a random point in time by summing every previous transaction.
+     *
+     * @return the balance
+     */
+    @Benchmark
+    public Long fullScanBalanceAt() {
+        return jdbcTemplate.queryForObject("SELECT SUM(amount) FROM transaction WHERE date_time <= ?",
+                Long.class, randomDateTime());
+    }
+
+    private static LocalDateTime randomDateTime() {
+        return END.minusSeconds(ThreadLocalRandom.current().nextLong(SPAN_SECONDS));
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * A closed loop HTTP load generator for a running instance of the application.
+ * <p>
+ * For every concurrency level, it keeps that many requests in flight during the given duration, and reports the
+ * throughput and the latency percentiles. The requests are sent asynchronously, so the generator itself does not need
+ * one thread per simulated client.
+ * <p>
+ * When the actuator metrics of the instance are exposed, the heap and the live threads of the server are sampled
+ * halfway through every level, and the heap over the one before the first level is reported per connection, so the
+ * servlet and the reactive variants can be compared on the memory they need for the same load.
+ * <p>
+ * Arguments: {@code baseUrl path durationSeconds concurrencyLevel...}, for example
+ * {@code http://localhost:8080 /api/transaction 30 1000 5000 10000}.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+public final class HttpLoadBenchmark {
+
+    private static final Pattern MEASUREMENT = Pattern.compile("\"value\"\\s*:\\s*([-+0-9.Ee]+)");
+
+    private HttpLoadBenchmark() {
+    }
+
+    /**
+     * The main method.
+     *
+     * @param args the arguments
+     * @throws InterruptedException if the benchmark is interrupted
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 4) {
+            System.err.println("Usage: HttpLoadBenchmark baseUrl path durationSeconds concurrencyLevel...");
+            System.exit(1);
+        }
+
+        final var uri = URI.create(args[0] + args[1]);
+        final var duration = Duration.ofSeconds(Long.parseLong(args[2]));
+        final var client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        final var idle = sample(client, args[0]);
+
+        System.out.printf("%-12s %12s %12s %10s %10s %10s %8s %10s %8s %10s%n",
+                "concurrency", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "errors", "heap MB", "threads",
+                "KB/conn");
+
+        for (var i = 3; i < args.length; i++) {
+            final var result = run(client, uri, args[0], duration, Integer.parseInt(args[i]));
+            System.out.printf("%-12d %12d %12.1f %10.2f %10.2f %10.2f %8d %10.1f %8.0f %10.1f%n",
+                    result.concurrency(), result.requests(), result.throughput(), result.percentile(0.50),
+                    result.percentile(0.99), result.percentile(1.0), result.errors(), result.server().heap() / 1e6,
+                    result.server().threads(), (result.server().heap() - idle.heap()) / result.concurrency() / 1024);
+        }
+    }
+
+    private static Result run(final HttpClient client, final URI uri, final String baseUrl, final Duration duration,
+                              final int concurrency) throws InterruptedException {
+        final var request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+        final var permits = new Semaphore(concurrency);
+        final var latencies = new LatencyRecorder();
+        final var errors = new AtomicInteger();
+        final var start = System.nanoTime();
+        final var end = start + duration.toNanos();
+        final var server = CompletableFuture.supplyAsync(() -> sample(client, baseUrl),
+                CompletableFuture.delayedExecutor(duration.toMillis() / 2, TimeUnit.MILLISECONDS));
+
+        while (System.nanoTime() < end) {
+            permits.acquire();
+            final var sent = System.nanoTime();
+
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, ex) -> {
+                        if (ex != null || response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        } else {
+                            latencies.record(System.nanoTime() - sent);
+                        }
+
+                        permits.release();
+                    });
+        }
+
+        // Every permit is back once the requests in flight have completed.
+        permits.acquire(concurrency);
+
+        final var elapsed = System.nanoTime() - start;
+        final var sorted = latencies.sorted();
+        return new Result(concurrency, sorted.length, sorted.length * 1e9 / elapsed, sorted, errors.get(),
+                server.join());
+    }
+
+    /**
+     * Sample the heap and the live threads of the server, from its actuator metrics.
+     *
+     * @param client  the HTTP client
+     * @param baseUrl the base URL of the server
+     * @return the sample, with {@code NaN} values when the metrics are not exposed
+     */
+    private static ServerSample sample(final HttpClient client, final String baseUrl) {
+        return new ServerSample(metric(client, baseUrl, "jvm.memory.used?tag=area:heap"),
+                metric(client, baseUrl, "jvm.threads.live"));
+    }
+
+    private static double metric(final HttpClient client, final String baseUrl, final String query) {
+        final var request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + query))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+
+        try {
+            final var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            final var matcher = MEASUREMENT.matcher(response.body());
+            return response.statusCode() == 200 && matcher.find() ? Double.parseDouble(matcher.group(1)) : Double.NaN;
+        } catch (IOException ex) {
+            return Double.NaN;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return Double.NaN;
+        }
+    }
+
+    private record ServerSample(double heap, double threads) {
+    }
+
+    private record Result(int concurrency, int requests, double throughput, long[] sortedLatencies, int errors,
+                          ServerSample server) {
+
+        double percentile(final double percentile) {
+            if (sortedLatencies.length == 0) {
+                return Double.NaN;
+            }
+
+            final var index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1e6;
+        }
+    }
+
+    private static final class LatencyRecorder {
+
+        private long[] values = new long[1 << 16];
+
+        private int size;
+
+        synchronized void record(final long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+
+            values[size++] = value;
+        }
+
+        synchronized long[] sorted() {
+            final var copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.benchmark;
+
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.model.exception.TransactionException;
+import dev.georgethepenguin.render.poc.model.service.TransactionIngestionService;
+import dev.georgethepenguin.render.poc.model.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmarks for the throughput of the single transaction inserts, synchronous against write-behind, against an
+ * H2 database file so every commit is written to disk.
+ * <p>
+ * Every operation inserts one transaction and returns once it has been persisted, from many threads at the same time
+ * as during a peak of single POSTs. The synchronous path commits every transaction on its own, and the write-behind
+ * path waits for the group commit that contains it. The result is the number of inserts per second.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class IngestionBenchmark {
+
+    @Param({"100"})
+    private int groupSize;
+
+    private ConfigurableApplicationContext context;
+
+    private TransactionService transactionService;
+
+    private TransactionIngestionService transactionIngestionService;
+
+    /**
+     * Starts the application context with the write-behind ingestion enabled.
+     *
+     * @throws IOException if the previous database cannot be deleted
+     */
+    @Setup
+    public void setUp() throws IOException {
+        final var database = Path.of("target", "ingestion");
+        Files.deleteIfExists(Path.of(database + ".mv.db"));
+
+        context = TransactionRepositoryBenchmark.applicationContextForUrl("jdbc:h2:file:./" + database
+                        + ";DB_CLOSE_ON_EXIT=FALSE",
+                "--render.poc.ingestion.enabled=true",
+                "--render.poc.ingestion.group-size=" + groupSize,
+                "--render.poc.ingestion.queue-capacity=100000");
+        transactionService = context.getBean(TransactionService.class);
+        transactionIngestionService = context.getBean(TransactionIngestionService.class);
+    }
+
+    /**
+     * Stops the application context.
+     */
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Creates a transaction in its own database transaction.
+     *
+     * @return the created transaction
+     * @throws TransactionException if the transaction is not valid
+     */
+    @Benchmark
+    public Transaction synchronousCreate() throws TransactionException {
+        return transactionService.create(new Transaction(null, null, 2050, "description"));
+    }
+
+    /**
+     * Submits a transaction to the write-behind ingestion and waits for its group commit.
+     *
+     * @return the persisted transaction
+     * @throws TransactionException if the transaction is not valid
+     * @throws ExecutionException   if the group cannot be persisted
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    @Benchmark
+    public Transaction writeBehindDurable() throws TransactionException, ExecutionException, InterruptedException {
+        return transactionIngestionService.submit(new Transaction(null, null, 2050, "description")).get();
+    }
+}
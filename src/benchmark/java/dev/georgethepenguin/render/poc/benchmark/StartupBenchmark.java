@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.benchmark;
+
+import dev.georgethepenguin.render.poc.Application;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the startup time of the application when Hibernate updates the schema, and when Flyway migrates it and
+ * Hibernate either validates it or does not inspect it at all.
+ * <p>
+ * The application context, without the web layer, is started and closed repeatedly in the same JVM, alternating the
+ * modes against the same existing schema, which is the case of every boot but the first one. The first runs of each
+ * mode warm up the JVM and are discarded.
+ * <p>
+ * Arguments: {@code runs [jdbcUrl username password]}. Without a JDBC URL, an H2 database file under {@code target} is used, for
+ * example {@code 20 jdbc:postgresql://localhost:5432/poc poc secret}.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+public final class StartupBenchmark {
+
+    private static final int WARMUP_RUNS = 3;
+
+    private StartupBenchmark() {
+    }
+
+    /**
+     * The main method.
+     *
+     * @param args the arguments
+     */
+    public static void main(String[] args) {
+        if (args.length != 1 && args.length != 4) {
+            System.err.println("Usage: StartupBenchmark runs [jdbcUrl username password]");
+            System.exit(1);
+        }
+
+        final var runs = Integer.parseInt(args[0]);
+        final var url = args.length == 4 ? args[1] : "jdbc:h2:file:./target/startup;DB_CLOSE_ON_EXIT=FALSE";
+        final var credentials = args.length == 4
+                ? new String[]{"--spring.datasource.username=" + args[2], "--spring.datasource.password=" + args[3]}
+                : new String[]{"--spring.datasource.driver-class-name=org.h2.Driver"};
+
+        // Creates the schema, so every measured boot finds it
+        start(url, credentials, "--spring.flyway.enabled=true");
+
+        final var update = new ArrayList<Long>();
+        final var validate = new ArrayList<Long>();
+        final var none = new ArrayList<Long>();
+
+        for (var i = 0; i < WARMUP_RUNS + runs; i++) {
+            final var updateMillis = start(url, credentials,
+                    "--spring.flyway.enabled=false", "--spring.jpa.hibernate.ddl-auto=update");
+            final var validateMillis = start(url, credentials,
+                    "--spring.flyway.enabled=true", "--spring.jpa.hibernate.ddl-auto=validate");
+            final var noneMillis = start(url, credentials,
+                    "--spring.flyway.enabled=true", "--spring.jpa.hibernate.ddl-auto=none");
+
+            if (i >= WARMUP_RUNS) {
+                update.add(updateMillis);
+                validate.add(validateMillis);
+                none.add(noneMillis);
+            }
+        }
+
+        System.out.printf("%-24s %10s %10s %10s%n", "mode", "p50 ms", "min ms", "max ms");
+        print("ddl-auto=update", update);
+        print("flyway, ddl-auto=validate", validate);
+        print("flyway, ddl-auto=none", none);
+    }
+
+    private static long start(final String url, final String[] credentials, final String... mode) {
+        final var args = new ArrayList<>(List.of("--spring.datasource.url=" + url,
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--render.poc.balance.reconciliation-interval=PT24H",
+                "--logging.level.root=WARN"));
+        args.addAll(Arrays.asList(credentials));
+        args.addAll(Arrays.asList(mode));
+
+        final var start = System.nanoTime();
+        final var context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .profiles(url.startsWith("jdbc:h2:") ? "test" : "default")
+                .run(args.toArray(String[]::new));
+        final var millis = (System.nanoTime() - start) / 1_000_000;
+        context.close();
+
+        return millis;
+    }
+
+    private static void print(final String mode, final List<Long> millis) {
+        final var sorted = millis.stream().sorted().toList();
+        System.out.printf("%-24s %10d %10d %10d%n", mode, sorted.get(sorted.size() / 2), sorted.get(0),
+                sorted.get(sorted.size() - 1));
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.benchmark;
+
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmarks for {@link Transaction#equals(Object)} and {@link Transaction#hashCode()}, compared with the previous
+ * implementation that appended every field to an {@link EqualsBuilder} and a {@link HashCodeBuilder}.
+ * <p>
+ * Run it with the {@code -prof gc} option of JMH to compare the allocation rates.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionEqualityBenchmark {
+
+    private Transaction transaction;
+
+    private Transaction equal;
+
+    /**
+     * Builds the transactions.
+     */
+    @Setup
+    public void setUp() {
+        final var id = UUID.randomUUID();
+        final var createdAt = LocalDateTime.now();
+        transaction = new Transaction(id, createdAt, 2050, "description");
+        equal = new Transaction(id, createdAt, 2050, "description");
+    }
+
+    /**
+     * Compares two equal transactions.
+     *
+     * @return the result of the comparison
+     */
+    @Benchmark
+    public boolean equalsTransaction() {
+        return transaction.equals(equal);
+    }
+
+    /**
+     * Computes the hash code of a transaction.
+     *
+     * @return the hash code
+     */
+    @Benchmark
+    public int hashCodeTransaction() {
+        return transaction.hashCode();
+    }
+
+    /**
+     * Compares two equal transactions with the previous builder based implementation.
+     *
+     * @return the result of the comparison
+     */
+    @Benchmark
+    public boolean equalsBuilder() {
+        return new EqualsBuilder()
+                .append(transaction.getId(), equal.getId())
+                .append(transaction.getCreatedAt(), equal.getCreatedAt())
+                .append(transaction.getAmount(), equal.getAmount())
+                .append(transaction.getDescription(), equal.getDescription())
+                .isEquals();
+    }
+
+    /**
+     * Computes the hash code of a transaction with the previous builder based implementation.
+     *
+     * @return the hash code
+     */
+    @Benchmark
+    public int hashCodeBuilder() {
+        return new HashCodeBuilder(17, 37)
+                .append(transaction.getId())
+                .append(transaction.getCreatedAt())
+                .append(transaction.getAmount())
+                .append(transaction.getDescription())
+                .toHashCode();
+    }
+}
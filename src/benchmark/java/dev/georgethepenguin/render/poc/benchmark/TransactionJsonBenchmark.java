@@ -0,0 +1,135 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.georgethepenguin.render.poc.model.dto.TransactionPage;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmarks for the JSON serialization of the transactions.
+ * <p>
+ * The object mapper is built with the same builder that Spring Boot uses for the HTTP message converters.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionJsonBenchmark {
+
+    @Param({"50", "500"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+
+    private Transaction transaction;
+
+    private Iterable<Transaction> transactions;
+
+    private TransactionPage page;
+
+    private String transactionJson;
+
+    /**
+     * Builds the object mapper and the transactions.
+     *
+     * @throws JsonProcessingException if an error occurs
+     */
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        transaction = new Transaction(UUID.randomUUID(), LocalDateTime.now(), 2050, "description");
+
+        final var list = new ArrayList<Transaction>(size);
+        for (var i = 0; i < size; i++) {
+            list.add(new Transaction(UUID.randomUUID(), LocalDateTime.now().minusSeconds(i), i * 125L,
+                    "description " + i));
+        }
+
+        transactions = list;
+        page = new TransactionPage(List.copyOf(list), "next");
+        transactionJson = objectMapper.writeValueAsString(transaction);
+    }
+
+    /**
+     * Serializes a transaction.
+     *
+     * @return the JSON bytes
+     * @throws JsonProcessingException if an error occurs
+     */
+    @Benchmark
+    public byte[] serializeTransaction() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(transaction);
+    }
+
+    /**
+     * Serializes an iterable of transactions.
+     *
+     * @return the JSON bytes
+     * @throws JsonProcessingException if an error occurs
+     */
+    @Benchmark
+    public byte[] serializeIterable() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(transactions);
+    }
+
+    /**
+     * Serializes a page of transactions.
+     *
+     * @return the JSON bytes
+     * @throws JsonProcessingException if an error occurs
+     */
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    /**
+     * Deserializes a transaction.
+     *
+     * @return the transaction
+     * @throws JsonProcessingException if an error occurs
+     */
+    @Benchmark
+    public Transaction deserializeTransaction() throws JsonProcessingException {
+        return objectMapper.readValue(transactionJson, Transaction.class);
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.benchmark;
+
+import dev.georgethepenguin.render.poc.Application;
+import dev.georgethepenguin.render.poc.model.dto.TransactionFilter;
+import dev.georgethepenguin.render.poc.model.dto.TransactionPage;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.model.repository.BalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.TransactionRepository;
+import dev.georgethepenguin.render.poc.model.service.TransactionBatchService;
+import dev.georgethepenguin.render.poc.model.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * The benchmarks for the repository hot paths, against an in-process H2 database.
+ * <p>
+ * The whole application context is started without the web layer, so the service calls go through the same
+ * transactional and caching proxies as in production.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionRepositoryBenchmark {
+
+    @Param({"10000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private TransactionService transactionService;
+
+    private TransactionRepository transactionRepository;
+
+    private BalanceRepository balanceRepository;
+
+    private List<UUID> ids;
+
+    /**
+     * Starts the application context and loads the rows.
+     */
+    @Setup
+    public void setUp() {
+        context = applicationContext("repository");
+        transactionService = context.getBean(TransactionService.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        balanceRepository = context.getBean(BalanceRepository.class);
+
+        final var results = context.getBean(TransactionBatchService.class).createAll(IntStream.range(0, rows)
+                .mapToObj(i -> new Transaction(null, null, i * 125L, "description " + i))
+                .iterator());
+
+        ids = new ArrayList<>(results.size());
+        results.forEach(result -> ids.add(result.transaction().getId()));
+    }
+
+    /**
+     * Stops the application context.
+     */
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Finds a random transaction through the repository.
+     *
+     * @return the transaction
+     */
+    @Benchmark
+    public Optional<Transaction> repositoryFindById() {
+        return transactionRepository.findById(randomId());
+    }
+
+    /**
+     * Finds a random transaction through the cached service.
+     *
+     * @return the transaction
+     */
+    @Benchmark
+    public Optional<Transaction> serviceFindById() {
+        return transactionService.findById(randomId());
+    }
+
+    /**
+     * Finds the first page of transactions.
+     *
+     * @return the page
+     */
+    @Benchmark
+    public TransactionPage findFirstPage() {
+        return transactionService.findAll(TransactionFilter.NONE, null, null);
+    }
+
+    /**
+     * Sums the amount of all the transactions.
+     *
+     * @return the sum
+     */
+    @Benchmark
+    public long sumByAmount() {
+        return transactionRepository.sumByAmount();
+    }
+
+    /**
+     * Reads the materialized ledger balance.
+     *
+     * @return the balance
+     */
+    @Benchmark
+    public Optional<Long> findLedgerAmount() {
+        return balanceRepository.findLedgerAmount();
+    }
+
+    private UUID randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    /**
+     * Starts the application without the web layer, against a named in-memory H2 database.
+     *
+     * @param database the name of the database
+     * @return the application context
+     */
+    static ConfigurableApplicationContext applicationContext(final String database) {
+        return applicationContextForUrl("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+    }
+
+    /**
+     * Starts the application without the web layer, against an H2 database.
+     *
+     * @param url  the JDBC URL of the database
+     * @param args the additional command line arguments, such as the properties of the benchmarked feature
+     * @return the application context
+     */
+    static ConfigurableApplicationContext applicationContextForUrl(final String url, final String... args) {
+        final var defaultArgs = Stream.of("--spring.datasource.url=" + url,
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--logging.level.root=WARN");
+
+        return new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run(Stream.concat(defaultArgs, Stream.of(args)).toArray(String[]::new));
+    }
+}
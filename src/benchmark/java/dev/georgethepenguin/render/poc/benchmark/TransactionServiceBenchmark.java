@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.benchmark;
+
+import dev.georgethepenguin.render.poc.config.pagination.PaginationProperties;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.model.exception.TransactionException;
+import dev.georgethepenguin.render.poc.model.repository.BalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.DailyBalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.IdempotencyKeyRepository;
+import dev.georgethepenguin.render.poc.model.repository.TransactionRepository;
+import dev.georgethepenguin.render.poc.model.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmarks for the validations of {@link TransactionService#create(Transaction)}.
+ * <p>
+ * The repositories are stubs that do nothing, so only the service code is measured.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionServiceBenchmark {
+
+    private TransactionService transactionService;
+
+    /**
+     * Builds the service with stub repositories.
+     */
+    @Setup
+    public void setUp() {
+        transactionService = new TransactionService(stub(TransactionRepository.class), stub(BalanceRepository.class),
+                stub(DailyBalanceRepository.class), stub(IdempotencyKeyRepository.class),
+                new PaginationProperties(50, 500), stub(ApplicationEventPublisher.class));
+    }
+
+    /**
+     * Creates a valid transaction.
+     *
+     * @return the created transaction
+     * @throws TransactionException if an error occurs
+     */
+    @Benchmark
+    public Transaction createValid() throws TransactionException {
+        return transactionService.create(new Transaction(null, null, 2050, "description"));
+    }
+
+    /**
+     * Creates a transaction with a blank description, so the validations throw.
+     *
+     * @return the exception
+     */
+    @Benchmark
+    public TransactionException createInvalid() {
+        try {
+            transactionService.create(new Transaction(null, null, 2050, " "));
+            throw new IllegalStateException("The transaction must be rejected");
+        } catch (TransactionException ex) {
+            return ex;
+        }
+    }
+
+    /**
+     * Builds a repository stub whose methods return their first argument, or the default value of the return type.
+     *
+     * @param type the repository type
+     * @param <T>  the repository type
+     * @return the stub
+     */
+    static <T> T stub(final Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            final var returnType = method.getReturnType();
+
+            if (args != null && args.length > 0 && returnType.isInstance(args[0])) {
+                return args[0];
+            }
+
+            if (returnType == int.class) {
+                return 0;
+            }
+
+            if (returnType == boolean.class) {
+                return false;
+            }
+
+            return null;
+        }));
+    }
+}
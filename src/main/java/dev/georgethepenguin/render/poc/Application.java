@@ -27,15 +27,25 @@ package dev.georgethepenguin.render.poc;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 /**
  * The application main class.
+ * <p>
+ * It only scans the packages of the servlet stack, and does not configure R2DBC, so the reactive variant, built with
+ * the {@code reactive} Maven profile, is left to its own main class.
  *
  * @author Jorge Garcia - George the Penguin
  * @version 1.0.0
  * @since 17
  */
-@SpringBootApplication
+@SpringBootApplication(
+        scanBasePackages = {
+                "dev.georgethepenguin.render.poc.config",
+                "dev.georgethepenguin.render.poc.controller",
+                "dev.georgethepenguin.render.poc.model"},
+        excludeName = "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration")
+@ConfigurationPropertiesScan
 public class Application {
 
     /**
@@ -0,0 +1,90 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.config.aot;
+
+import dev.georgethepenguin.render.poc.controller.advice.ErrorResponse;
+import dev.georgethepenguin.render.poc.model.dto.BalanceAggregate;
+import dev.georgethepenguin.render.poc.model.dto.IngestionAcknowledgement;
+import dev.georgethepenguin.render.poc.model.dto.TransactionBatchItemResult;
+import dev.georgethepenguin.render.poc.model.dto.TransactionChange;
+import dev.georgethepenguin.render.poc.model.dto.TransactionFilter;
+import dev.georgethepenguin.render.poc.model.dto.TransactionPage;
+import dev.georgethepenguin.render.poc.model.dto.TransactionStreamEvent;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * The runtime hints of the application.
+ * <p>
+ * The bodies of the responses, the transaction included, and the error responses are written by Jackson and described
+ * by springdoc through reflection, even when they are only known at runtime, like the events of the stream. The
+ * migrations of the vendor locations are not below the default Flyway location, and the virtual threads executor is
+ * looked up by name.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+public class ApplicationRuntimeHints implements RuntimeHintsRegistrar {
+
+    /**
+     * The types serialized or described through reflection.
+     */
+    static final List<Class<?>> BINDING_TYPES = List.of(
+            Transaction.class,
+            ErrorResponse.class,
+            TransactionPage.class,
+            TransactionFilter.class,
+            TransactionBatchItemResult.class,
+            TransactionChange.class,
+            TransactionStreamEvent.class,
+            BalanceAggregate.class,
+            IngestionAcknowledgement.class);
+
+    /**
+     * The pattern of the migrations.
+     */
+    static final String MIGRATIONS = "db/migration/**/*.sql";
+
+    private final BindingReflectionHintsRegistrar bindingReflectionHintsRegistrar =
+            new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindingReflectionHintsRegistrar.registerReflectionHints(hints.reflection(),
+                BINDING_TYPES.toArray(Class<?>[]::new));
+        BINDING_TYPES.forEach(type -> hints.reflection().registerType(type, MemberCategory.DECLARED_FIELDS));
+        hints.resources().registerPattern(MIGRATIONS);
+        hints.reflection().registerType(Executors.class, builder -> builder
+                .withMethod("newVirtualThreadPerTaskExecutor", List.of(), ExecutableMode.INVOKE));
+    }
+}
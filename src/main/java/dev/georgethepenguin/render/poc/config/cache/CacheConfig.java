@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.config.cache;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.StringUtils;
+
+/**
+ * The cache configuration.
+ * <p>
+ * The caching advice is ordered before the transactional advice, so the cache is written once the database
+ * transaction has been committed. That alone does not keep the entries fresh: a read that started before a concurrent
+ * update or delete committed can still cache the previous state afterwards, which would then be served, with its ETag,
+ * until it expires. So the transactions cache is versioned, see {@link VersionedTransactionCache}. Only an entry
+ * evicted for size in the few milliseconds between a write and such a read can still be cached stale, until it expires.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    /**
+     * The name of the cache of transactions by id.
+     */
+    public static final String TRANSACTIONS_CACHE = "transactions";
+
+    /**
+     * Builds the Caffeine cache manager from the {@code spring.cache} properties, with the versioned transactions
+     * cache.
+     *
+     * @param cacheProperties the cache properties
+     * @return the cache manager
+     */
+    @Bean
+    public CaffeineCacheManager cacheManager(CacheProperties cacheProperties) {
+        final var cacheManager = new CaffeineCacheManager() {
+
+            @Override
+            protected Cache adaptCaffeineCache(String name,
+                                               com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return TRANSACTIONS_CACHE.equals(name)
+                        ? new VersionedTransactionCache(name, cache, isAllowNullValues())
+                        : super.adaptCaffeineCache(name, cache);
+            }
+        };
+        final var spec = cacheProperties.getCaffeine().getSpec();
+
+        if (StringUtils.hasText(spec)) {
+            cacheManager.setCacheSpecification(spec);
+        }
+
+        if (!cacheProperties.getCacheNames().isEmpty()) {
+            cacheManager.setCacheNames(cacheProperties.getCacheNames());
+        }
+
+        return cacheManager;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.config.cache;
+
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * The cache of transactions by id, which never replaces a cached transaction by an older version of it.
+ * <p>
+ * A read that started before a concurrent update or delete committed may put the previous state of the transaction
+ * once the write has refreshed or evicted it. So a put only replaces a transaction with the same or a newer version,
+ * and an eviction, which only the deletes do, leaves a tombstone that no put replaces, as the ids are never reused.
+ * The tombstone is a miss for the readers.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+final class VersionedTransactionCache extends CaffeineCache {
+
+    private static final Object DELETED = new Object();
+
+    /**
+     * Constructor.
+     *
+     * @param name             the name of the cache
+     * @param cache            the Caffeine cache
+     * @param allowNullValues  whether to accept and convert {@code null} values
+     */
+    VersionedTransactionCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                              boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+    }
+
+    @Override
+    protected Object lookup(final Object key) {
+        final var value = super.lookup(key);
+        return value == DELETED ? null : value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(final Object key, final Callable<T> valueLoader) {
+        final var value = lookup(key);
+
+        if (value != null) {
+            return (T) fromStoreValue(value);
+        }
+
+        try {
+            final var loaded = valueLoader.call();
+            put(key, loaded);
+            return loaded;
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+    }
+
+    @Override
+    public void put(final Object key, final Object value) {
+        final var stored = toStoreValue(value);
+        getNativeCache().asMap().compute(key, (k, current) -> replaces(stored, current) ? stored : current);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(final Object key, final Object value) {
+        final var stored = toStoreValue(value);
+        final var current = getNativeCache().asMap().putIfAbsent(key, stored);
+        return current == null || current == DELETED ? null : toValueWrapper(current);
+    }
+
+    @Override
+    public void evict(final Object key) {
+        getNativeCache().put(key, DELETED);
+    }
+
+    @Override
+    public boolean evictIfPresent(final Object key) {
+        final var current = getNativeCache().asMap().put(key, DELETED);
+        return current != null && current != DELETED;
+    }
+
+    private static boolean replaces(final Object value, final Object current) {
+        if (current == DELETED) {
+            return false;
+        }
+
+        return !(value instanceof Transaction transaction && current instanceof Transaction cached)
+                || transaction.getVersion() >= cached.getVersion();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.config.cds;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.Ordered;
+
+/**
+ * The class data sharing training run configuration.
+ * <p>
+ * The Docker build starts the application once, with the same JVM flags as the image, to record the classes it loads
+ * in a class data sharing archive, which the JVM maps at every following start instead of loading and verifying those
+ * classes again. The training run exits once the context is refreshed, so the archive covers every bean.
+ * <p>
+ * The beans are always defined and check {@link CdsProperties#training()} when they run, because the AOT processing
+ * evaluates the conditions at build time, when the training property is not set. There is no database during the
+ * build, so the training run skips the migrations; {@code start.sh} also turns off the schema validation.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@Configuration
+public class CdsTrainingConfig {
+
+    /**
+     * Builds the migration strategy, which skips the migrations in the training run.
+     *
+     * @param properties the class data sharing properties
+     * @return the migration strategy
+     */
+    @Bean
+    public FlywayMigrationStrategy cdsTrainingMigrationStrategy(final CdsProperties properties) {
+        return flyway -> {
+            if (!properties.training()) {
+                flyway.migrate();
+            }
+        };
+    }
+
+    /**
+     * Builds the listener that ends the training run once the context is refreshed. It runs before the other listeners,
+     * so the scheduled tasks are not started.
+     *
+     * @param properties the class data sharing properties
+     * @return the context refreshed listener
+     */
+    @Bean
+    public ApplicationListener<ContextRefreshedEvent> cdsTrainingExitListener(final CdsProperties properties) {
+        return new CdsTrainingExitListener(properties);
+    }
+
+    private record CdsTrainingExitListener(CdsProperties properties)
+            implements ApplicationListener<ContextRefreshedEvent>, Ordered {
+
+        @Override
+        public void onApplicationEvent(final ContextRefreshedEvent event) {
+            if (properties.training()) {
+                System.exit(SpringApplication.exit(event.getApplicationContext()));
+            }
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
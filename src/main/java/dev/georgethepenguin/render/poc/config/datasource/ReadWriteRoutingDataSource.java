@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.config.datasource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * The data source that sends the read only transactions to the replica and everything else to the primary.
+ * <p>
+ * The connection is only fetched on the first statement, when the transaction is already marked as read only, because
+ * the JPA transaction manager begins the transaction before synchronizing its read only flag. The reads that follow a
+ * write of the same client go to the primary, as decided by the {@link ReplicaLagGuard}.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    /**
+     * The target data sources.
+     */
+    public enum Route {
+        /**
+         * The primary, which takes the writes.
+         */
+        PRIMARY,
+        /**
+         * The read replica.
+         */
+        REPLICA
+    }
+
+    private final DataSource primary;
+
+    private final DataSource replica;
+
+    /**
+     * Constructor.
+     *
+     * @param primary the primary data source
+     * @param replica the replica data source
+     * @param guard   the guard of the reads after a write
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagGuard guard) {
+        this.primary = primary;
+        this.replica = replica;
+
+        final var router = new AbstractRoutingDataSource() {
+
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return route(guard);
+            }
+        };
+        router.setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        router.setDefaultTargetDataSource(primary);
+        router.afterPropertiesSet();
+
+        setTargetDataSource(router);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Find the route of the current transaction.
+     *
+     * @param guard the guard of the reads after a write
+     * @return the route
+     */
+    static Route route(final ReplicaLagGuard guard) {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                guard.recordWrite();
+            }
+
+            return Route.PRIMARY;
+        }
+
+        return guard.isPrimaryRequired() ? Route.PRIMARY : Route.REPLICA;
+    }
+
+    /**
+     * Close the pools of the primary and the replica.
+     *
+     * @throws IOException if a pool cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (replica instanceof Closeable closeable) {
+                closeable.close();
+            }
+        } finally {
+            if (primary instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
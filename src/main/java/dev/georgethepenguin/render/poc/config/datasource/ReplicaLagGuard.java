@@ -0,0 +1,138 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.config.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * The guard that keeps the reads of a client on the primary right after it writes, so it never reads from a replica
+ * that has not caught up with its own writes yet.
+ * <p>
+ * A write marks the current request, so the following reads of the same request go to the primary, and sets a cookie
+ * with the time until the replica is trusted again, so the following requests of the same client do too. Outside of a
+ * request, like in the scheduled and queued work, there is nothing to guard.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+public class ReplicaLagGuard {
+
+    /**
+     * The name of the cookie with the epoch millis until which the reads of the client go to the primary.
+     */
+    public static final String COOKIE = "render-poc-primary-until";
+
+    private static final String WRITTEN = ReplicaLagGuard.class.getName() + ".WRITTEN";
+
+    private final Duration readYourWrites;
+
+    private final Clock clock;
+
+    /**
+     * Constructor.
+     *
+     * @param readYourWrites how long the reads of a client go to the primary after it writes
+     * @param clock          the clock
+     */
+    public ReplicaLagGuard(Duration readYourWrites, Clock clock) {
+        this.readYourWrites = readYourWrites;
+        this.clock = clock;
+    }
+
+    /**
+     * Record a write of the current request.
+     */
+    public void recordWrite() {
+        final var attributes = RequestContextHolder.getRequestAttributes();
+
+        if (attributes == null || attributes.getAttribute(WRITTEN, RequestAttributes.SCOPE_REQUEST) != null) {
+            return;
+        }
+
+        attributes.setAttribute(WRITTEN, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            final var response = servletAttributes.getResponse();
+
+            if (response != null && !response.isCommitted()) {
+                response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie
+                        .from(COOKIE, String.valueOf(clock.millis() + readYourWrites.toMillis()))
+                        .maxAge(readYourWrites)
+                        .path("/")
+                        .httpOnly(true)
+                        .build()
+                        .toString());
+            }
+        }
+    }
+
+    /**
+     * Whether the reads of the current request must go to the primary, because the request or a recent one of the
+     * same client has written.
+     *
+     * @return whether the reads must go to the primary
+     */
+    public boolean isPrimaryRequired() {
+        final var attributes = RequestContextHolder.getRequestAttributes();
+
+        if (attributes == null) {
+            return false;
+        }
+
+        if (attributes.getAttribute(WRITTEN, RequestAttributes.SCOPE_REQUEST) != null) {
+            return true;
+        }
+
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)
+                || servletAttributes.getRequest().getCookies() == null) {
+            return false;
+        }
+
+        for (final Cookie cookie : servletAttributes.getRequest().getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                return parseMillis(cookie.getValue()) > clock.millis();
+            }
+        }
+
+        return false;
+    }
+
+    private static long parseMillis(final String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+}
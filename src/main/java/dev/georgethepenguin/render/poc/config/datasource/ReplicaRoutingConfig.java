@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+
+/**
+ * The read replica configuration.
+ * <p>
+ * The data source is replaced by one that routes between a pool for the primary and a pool for the replica. The pools
+ * are not beans, so the slow query log wraps the routing data source once, and each one is reported with its own pool
+ * tag in the {@code hikaricp} metrics.
+ * <p>
+ * The connection is chosen when a transaction acquires it, so the routing requires the open entity manager in view to
+ * be disabled: it keeps the connection acquired by the first transaction of a request until the request ends, so a
+ * write after a read only transaction would be sent to the replica.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "render.poc.replica", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    /**
+     * The name of the pool of the primary.
+     */
+    public static final String PRIMARY_POOL = "primary";
+
+    /**
+     * The name of the pool of the replica.
+     */
+    public static final String REPLICA_POOL = "replica";
+
+    /**
+     * Builds the routing data source.
+     *
+     * @param dataSourceProperties the primary data source properties
+     * @param replicaProperties    the replica properties
+     * @param environment          the environment, to bind the pool properties
+     * @param meterRegistry        the meter registry, if any
+     * @return the data source
+     * @throws IllegalStateException if the open entity manager in view is enabled
+     */
+    @Bean
+    public DataSource dataSource(DataSourceProperties dataSourceProperties,
+                                 ReplicaProperties replicaProperties,
+                                 Environment environment,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            throw new IllegalStateException("The read replica routing requires spring.jpa.open-in-view=false, "
+                    + "otherwise the writes of a request that has read from the replica are sent to the replica");
+        }
+
+        final var binder = Binder.get(environment);
+
+        final var primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName(PRIMARY_POOL);
+
+        final var replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(dataSourceProperties.determineDriverClassName())
+                .url(replicaProperties.url())
+                .username(replicaProperties.username())
+                .password(replicaProperties.password())
+                .build();
+        binder.bind("render.poc.replica.hikari", Bindable.ofInstance(replica));
+        replica.setPoolName(REPLICA_POOL);
+
+        meterRegistry.ifAvailable(registry -> {
+            final var metricsTrackerFactory = new MicrometerMetricsTrackerFactory(registry);
+            primary.setMetricsTrackerFactory(metricsTrackerFactory);
+            replica.setMetricsTrackerFactory(metricsTrackerFactory);
+        });
+
+        return new ReadWriteRoutingDataSource(primary, replica,
+                new ReplicaLagGuard(replicaProperties.readYourWrites(), Clock.systemUTC()));
+    }
+}
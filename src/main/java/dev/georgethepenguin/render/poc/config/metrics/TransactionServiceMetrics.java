@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.config.metrics;
+
+import dev.georgethepenguin.render.poc.model.exception.TransactionException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * The aspect that times every public method of the transaction service and counts its errors.
+ * <p>
+ * The timer {@value #TIMER} is tagged by method, outcome and exception class. The counter {@value #ERRORS} is tagged
+ * by method and category, which is the message of the {@link TransactionException} up to the first colon, so the ids
+ * that some messages end with do not create a time series per transaction.
+ * <p>
+ * The aspect has the highest precedence, so the measured time includes the cache lookup and the database commit.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TransactionServiceMetrics {
+
+    /**
+     * The name of the timer of the transaction service methods.
+     */
+    public static final String TIMER = "transaction.service";
+
+    /**
+     * The name of the counter of the transaction service errors.
+     */
+    public static final String ERRORS = "transaction.service.errors";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructor.
+     *
+     * @param meterRegistry the meter registry
+     */
+    @Autowired
+    public TransactionServiceMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Time the invocation of a transaction service method, counting it as an error when it throws.
+     *
+     * @param joinPoint the invocation
+     * @return the result of the invocation
+     * @throws Throwable the exception thrown by the invocation
+     */
+    @Around("execution(public * dev.georgethepenguin.render.poc.model.service.TransactionService.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        final var method = joinPoint.getSignature().getName();
+        final var sample = Timer.start(meterRegistry);
+
+        try {
+            final var result = joinPoint.proceed();
+            sample.stop(timer(method, "success", "none"));
+            return result;
+        } catch (Throwable throwable) {
+            sample.stop(timer(method, "error", throwable.getClass().getSimpleName()));
+            Counter.builder(ERRORS)
+                    .description("The errors of the transaction service methods")
+                    .tag("method", method)
+                    .tag("category", category(throwable))
+                    .register(meterRegistry)
+                    .increment();
+            throw throwable;
+        }
+    }
+
+    /**
+     * Get the error category of an exception.
+     *
+     * @param throwable the exception
+     * @return the message up to the first colon for a transaction exception, otherwise the exception class name
+     */
+    static String category(Throwable throwable) {
+        if (!(throwable instanceof TransactionException) || throwable.getMessage() == null) {
+            return throwable.getClass().getSimpleName();
+        }
+
+        final var message = throwable.getMessage();
+        final var colon = message.indexOf(':');
+
+        return colon < 0 ? message : message.substring(0, colon);
+    }
+
+    private Timer timer(String method, String outcome, String exception) {
+        return Timer.builder(TIMER)
+                .description("The duration of the transaction service methods")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .tag("exception", exception)
+                .register(meterRegistry);
+    }
+}
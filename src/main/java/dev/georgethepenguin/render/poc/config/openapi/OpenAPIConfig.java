@@ -29,17 +29,24 @@ import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Contact;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.info.License;
+import io.swagger.v3.oas.models.servers.Server;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
  * The Open API configuration.
+ * <p>
+ * It only applies when springdoc is in the artifact. Without it, the document generated during the build is served as
+ * a static resource at {@code /openapi.json}. The server is relative, so that document does not point at the host
+ * that generated it.
  *
  * @author Jorge Garcia - George the Penguin
  * @version 1.0.0
  * @since 17
  */
 @Configuration
+@ConditionalOnClass(name = "org.springdoc.core.configuration.SpringDocConfiguration")
 public class OpenAPIConfig {
 
     /**
@@ -61,6 +68,7 @@ public class OpenAPIConfig {
                         .license(new License()
                                 .name("MIT License")
                                 .url("https://opensource.org/licenses/MIT"))
-                );
+                )
+                .addServersItem(new Server().url("/"));
     }
 }
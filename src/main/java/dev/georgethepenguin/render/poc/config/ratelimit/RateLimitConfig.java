@@ -0,0 +1,68 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.config.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.georgethepenguin.render.poc.controller.filter.LoadSheddingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * The rate limiting and load shedding configuration.
+ * <p>
+ * The filter only applies to the API, so the actuator endpoints still answer when the API sheds load, and it runs
+ * right after the observation filter, so the rejected requests are still measured.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "render.poc.rate-limit", name = "enabled", havingValue = "true")
+public class RateLimitConfig {
+
+    /**
+     * Builds the registration of the load shedding filter.
+     *
+     * @param rateLimitProperties the rate limit properties
+     * @param objectMapper        the object mapper
+     * @param meterRegistry       the meter registry
+     * @return the filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilter(RateLimitProperties rateLimitProperties,
+                                                                         ObjectMapper objectMapper,
+                                                                         MeterRegistry meterRegistry) {
+        final var registration = new FilterRegistrationBean<>(
+                new LoadSheddingFilter(rateLimitProperties, objectMapper, meterRegistry, System::nanoTime));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.config.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The rate limiting and load shedding configuration properties.
+ *
+ * @param apiKeyHeader      the header with the API key that identifies a client, or else its IP address does
+ * @param apiKeys           the API keys of the known clients; any other key is ignored, so a client cannot get fresh
+ *                          buckets by sending a new key per request
+ * @param maxClients        the max number of clients whose rate limits are tracked at the same time
+ * @param clientIdleTimeout how long the rate limit of a client is tracked after its last request
+ * @param limit             the rate limit of the endpoints without their own
+ * @param endpoints         the endpoints with their own rate limit, the first one that matches a request applies
+ * @param concurrency       the adaptive concurrency limit
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@ConfigurationProperties(prefix = "render.poc.rate-limit")
+public record RateLimitProperties(@DefaultValue("X-API-Key") String apiKeyHeader,
+                                  Set<String> apiKeys,
+                                  @DefaultValue("100000") long maxClients,
+                                  @DefaultValue("PT10M") Duration clientIdleTimeout,
+                                  @DefaultValue Limit limit,
+                                  List<Endpoint> endpoints,
+                                  @DefaultValue Concurrency concurrency) {
+
+    /**
+     * Constructor that defaults to no known API keys and no endpoints with their own rate limit.
+     */
+    public RateLimitProperties {
+        apiKeys = apiKeys == null ? Set.of() : Set.copyOf(apiKeys);
+        endpoints = endpoints == null ? List.of() : List.copyOf(endpoints);
+    }
+
+    /**
+     * A token bucket rate limit per client.
+     *
+     * @param permitsPerSecond the sustained requests per second
+     * @param burst            the requests accepted at once after an idle period
+     */
+    public record Limit(@DefaultValue("50") double permitsPerSecond,
+                        @DefaultValue("100") int burst) {
+    }
+
+    /**
+     * An endpoint with its own rate limit per client.
+     *
+     * @param method           the HTTP method, or {@code null} for any
+     * @param path             the path pattern, like {@code /api/transaction/{id}}
+     * @param permitsPerSecond the sustained requests per second
+     * @param burst            the requests accepted at once after an idle period
+     */
+    public record Endpoint(String method,
+                           String path,
+                           double permitsPerSecond,
+                           int burst) {
+    }
+
+    /**
+     * The adaptive concurrency limit of all the clients together, which grows by one while the requests are fast and
+     * the limit is in use, and shrinks by the backoff ratio when a request is slower than the latency threshold, at most
+     * once per backoff interval.
+     *
+     * @param enabled          whether the concurrency is limited
+     * @param initialLimit     the initial max number of requests in flight
+     * @param minLimit         the min number of requests in flight the limit shrinks to
+     * @param maxLimit         the max number of requests in flight the limit grows to
+     * @param latencyThreshold the latency above which a request shrinks the limit
+     * @param backoffRatio     the ratio the limit is multiplied by when it shrinks
+     * @param backoffInterval  the min time between two shrinks, so a burst of slow requests shrinks the limit once
+     * @param excludedPaths    the path patterns out of the limit, like the long-lived streams and the bulk uploads and
+     *                         downloads, whose latency follows their size or the client instead of the load
+     */
+    public record Concurrency(@DefaultValue("true") boolean enabled,
+                              @DefaultValue("20") int initialLimit,
+                              @DefaultValue("10") int minLimit,
+                              @DefaultValue("100") int maxLimit,
+                              @DefaultValue("250ms") Duration latencyThreshold,
+                              @DefaultValue("0.9") double backoffRatio,
+                              @DefaultValue("1s") Duration backoffInterval,
+                              @DefaultValue({"/api/transaction/stream", "/api/transaction/export",
+                                      "/api/transaction/batch"}) List<String> excludedPaths) {
+    }
+}
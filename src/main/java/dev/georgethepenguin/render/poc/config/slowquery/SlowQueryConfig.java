@@ -0,0 +1,77 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.config.slowquery;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * The slow query log configuration.
+ * <p>
+ * The data source is wrapped by a proxy that measures every statement, so only the statements slower than the
+ * threshold are logged, instead of printing every statement with {@code spring.jpa.show-sql}.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "render.poc.slow-query", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryConfig {
+
+    /**
+     * Builds the post processor that wraps the data sources with the slow query listener.
+     * <p>
+     * The method is static and the properties are resolved lazily, so the post processor does not initialize the
+     * configuration beans too early.
+     *
+     * @param slowQueryProperties the slow query properties
+     * @return the bean post processor
+     */
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourcePostProcessor(
+            ObjectProvider<SlowQueryProperties> slowQueryProperties) {
+        return new BeanPostProcessor() {
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+
+                return ProxyDataSourceBuilder.create(beanName, dataSource)
+                        .listener(new SlowQueryListener(slowQueryProperties.getObject().threshold()))
+                        .build();
+            }
+        };
+    }
+}
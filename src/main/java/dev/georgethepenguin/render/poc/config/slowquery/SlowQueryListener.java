@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.config.slowquery;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * The listener that logs the statements slower than a threshold as a single line of JSON.
+ * <p>
+ * The entry has the duration, the threshold, whether the statement succeeded, the batch size, the number of bind
+ * parameters and the SQL. The values of the parameters are never logged, since they contain the transaction data.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@Slf4j
+public class SlowQueryListener implements QueryExecutionListener {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final long thresholdMillis;
+
+    /**
+     * Constructor.
+     *
+     * @param threshold the minimum duration of a logged statement
+     */
+    public SlowQueryListener(Duration threshold) {
+        this.thresholdMillis = threshold.toMillis();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // The duration is only known after the execution
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMillis || !log.isWarnEnabled()) {
+            return;
+        }
+
+        final var entry = new LinkedHashMap<String, Object>();
+        entry.put("event", "slow-query");
+        entry.put("durationMs", execInfo.getElapsedTime());
+        entry.put("thresholdMs", thresholdMillis);
+        entry.put("success", execInfo.isSuccess());
+        entry.put("batchSize", execInfo.getBatchSize());
+        entry.put("bindParameters", queryInfoList.stream()
+                .flatMap(queryInfo -> queryInfo.getParametersList().stream())
+                .mapToInt(List::size)
+                .sum());
+        entry.put("sql", queryInfoList.stream().map(QueryInfo::getQuery).toList());
+
+        try {
+            log.warn(OBJECT_MAPPER.writeValueAsString(entry));
+        } catch (JsonProcessingException ex) {
+            log.warn("Could not write the slow query entry {}", entry, ex);
+        }
+    }
+}
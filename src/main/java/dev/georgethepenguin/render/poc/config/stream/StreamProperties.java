@@ -0,0 +1,63 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.config.stream;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * The transaction stream configuration properties.
+ *
+ * @param replaySize the number of recent events kept to resume a stream from its last event id, not greater than the
+ *                   buffer size, so a resumed subscriber is not disconnected by its own replay
+ * @param bufferSize the max number of events waiting to be sent to a subscriber before it is disconnected as too slow
+ * @param timeout    the time after which a stream is closed, so the client reconnects, or zero for no timeout
+ * @param threads    the number of platform threads that send the events to the subscribers, which is also the number
+ *                   of stalled clients the stream carries before the others wait for the write timeout of the
+ *                   connector; unused when the virtual threads are enabled
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@ConfigurationProperties(prefix = "render.poc.stream")
+public record StreamProperties(@DefaultValue("1000") int replaySize,
+                               @DefaultValue("1000") int bufferSize,
+                               @DefaultValue("PT30M") Duration timeout,
+                               @DefaultValue("4") int threads) {
+
+    /**
+     * Constructor.
+     *
+     * @throws IllegalArgumentException if the replay size is greater than the buffer size
+     */
+    public StreamProperties {
+        if (replaySize > bufferSize) {
+            throw new IllegalArgumentException("The stream replay size " + replaySize
+                    + " is greater than the buffer size " + bufferSize);
+        }
+    }
+}
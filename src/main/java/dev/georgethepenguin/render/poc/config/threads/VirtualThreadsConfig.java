@@ -0,0 +1,97 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.config.threads;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The virtual threads configuration.
+ * <p>
+ * When enabled, Tomcat handles every request, including the service and repository calls, on its own virtual thread
+ * instead of a thread of the bounded platform pool. The application is still compiled for Java 17, so the executor is
+ * looked up at runtime and the application fails to start on a JDK without virtual threads.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "render.poc.threads.virtual", name = "enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    /**
+     * Builds the executor that starts a new virtual thread per task.
+     *
+     * @return the executor
+     * @throws IllegalStateException if the JDK does not support virtual threads
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService virtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) MethodHandles.publicLookup()
+                    .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                            MethodType.methodType(ExecutorService.class))
+                    .invoke();
+        } catch (Throwable ex) {
+            throw new IllegalStateException("The virtual threads require Java 21 or newer, running on "
+                    + Runtime.version(), ex);
+        }
+    }
+
+    /**
+     * Builds the Tomcat customizer that runs the requests on virtual threads.
+     *
+     * @param virtualThreadPerTaskExecutor the virtual thread per task executor
+     * @return the Tomcat customizer
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer(
+            ExecutorService virtualThreadPerTaskExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadPerTaskExecutor);
+    }
+
+    /**
+     * Builds the executor for the asynchronous request processing of Spring MVC, so it also runs on virtual threads.
+     *
+     * @param virtualThreadPerTaskExecutor the virtual thread per task executor
+     * @return the executor
+     */
+    @Bean(name = "applicationTaskExecutor")
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadPerTaskExecutor) {
+        return new TaskExecutorAdapter(virtualThreadPerTaskExecutor);
+    }
+}
@@ -25,7 +25,11 @@
 
 package dev.georgethepenguin.render.poc.controller.advice;
 
+import dev.georgethepenguin.render.poc.model.exception.IngestionQueueFullException;
+import dev.georgethepenguin.render.poc.model.exception.TransactionConflictException;
 import dev.georgethepenguin.render.poc.model.exception.TransactionException;
+import dev.georgethepenguin.render.poc.model.exception.TransactionPreconditionFailedException;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -36,6 +40,9 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 import java.time.LocalDateTime;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
 
 /**
  * The REST response entity exception handler.
@@ -61,5 +68,50 @@ public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionH
                 new HttpHeaders(), BAD_REQUEST, request);
     }
 
+    /**
+     * Handle the exceptions that trigger a conflict response, when a concurrent update has won.
+     *
+     * @param ex      the conflict exception
+     * @param request the request
+     * @return the response entity with the error response
+     */
+    @ExceptionHandler({TransactionConflictException.class, ConcurrencyFailureException.class})
+    protected ResponseEntity<Object> handleConflictException(final Exception ex, final WebRequest request) {
+        return handleExceptionInternal(ex,
+                new ErrorResponse(LocalDateTime.now(), CONFLICT.getReasonPhrase(), ex.getMessage()),
+                new HttpHeaders(), CONFLICT, request);
+    }
+
+    /**
+     * Handle the exceptions that trigger a precondition failed response, when the If-Match header does not match.
+     *
+     * @param ex      the precondition failed exception
+     * @param request the request
+     * @return the response entity with the error response
+     */
+    @ExceptionHandler(TransactionPreconditionFailedException.class)
+    protected ResponseEntity<Object> handlePreconditionFailedException(final Exception ex,
+                                                                       final WebRequest request) {
+        return handleExceptionInternal(ex,
+                new ErrorResponse(LocalDateTime.now(), PRECONDITION_FAILED.getReasonPhrase(), ex.getMessage()),
+                new HttpHeaders(), PRECONDITION_FAILED, request);
+    }
+
+    /**
+     * Handle the exceptions that trigger a too many requests response, asking the client to retry a second later.
+     *
+     * @param ex      the ingestion queue full exception
+     * @param request the request
+     * @return the response entity with the error response
+     */
+    @ExceptionHandler(IngestionQueueFullException.class)
+    protected ResponseEntity<Object> handleTooManyRequestsException(final Exception ex, final WebRequest request) {
+        final var headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return handleExceptionInternal(ex,
+                new ErrorResponse(LocalDateTime.now(), TOO_MANY_REQUESTS.getReasonPhrase(), ex.getMessage()),
+                headers, TOO_MANY_REQUESTS, request);
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,149 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.controller.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * A lock-free concurrency limiter whose limit follows the latency, by additive increase and multiplicative decrease.
+ * <p>
+ * While the requests are faster than the latency threshold and at least half of the limit is in use, every request
+ * raises the limit by one. A slower request, a sign that the database or the connection pool are saturated, lowers it
+ * by the backoff ratio, so the excess requests are rejected before they queue for a connection. The requests in flight
+ * when the database slows down all end slow, so the limit shrinks at most once per backoff interval, instead of once
+ * per request.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long latencyThresholdNanos;
+
+    private final double backoffRatio;
+
+    private final long backoffIntervalNanos;
+
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger limit;
+
+    private final AtomicLong nextBackoff;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Constructor.
+     *
+     * @param initialLimit          the initial max number of requests in flight
+     * @param minLimit              the min number of requests in flight the limit shrinks to
+     * @param maxLimit              the max number of requests in flight the limit grows to
+     * @param latencyThresholdNanos the latency above which a request shrinks the limit
+     * @param backoffRatio          the ratio the limit is multiplied by when it shrinks
+     * @param backoffIntervalNanos  the min time between two shrinks
+     * @param nanoClock             the clock, in nanoseconds
+     * @throws IllegalArgumentException if the limits are not ordered or the ratio is not between 0 and 1
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos,
+                                      double backoffRatio, long backoffIntervalNanos, LongSupplier nanoClock) {
+        if (minLimit <= 0 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("The limits must be positive and min <= initial <= max: " + minLimit
+                    + ", " + initialLimit + ", " + maxLimit);
+        }
+
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("The backoff ratio must be between 0 and 1: " + backoffRatio);
+        }
+
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.backoffIntervalNanos = backoffIntervalNanos;
+        this.nanoClock = nanoClock;
+        this.limit = new AtomicInteger(initialLimit);
+        this.nextBackoff = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Start a request if the limit allows it. Every started request must be released.
+     *
+     * @return whether the request was started
+     */
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > limit.get()) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Release a started request, and adapt the limit to its latency.
+     *
+     * @param latencyNanos the latency of the request
+     */
+    public void release(final long latencyNanos) {
+        final var concurrency = inFlight.getAndDecrement();
+
+        if (latencyNanos > latencyThresholdNanos) {
+            final var now = nanoClock.getAsLong();
+            final var next = nextBackoff.get();
+
+            // Only the first slow request of the interval shrinks the limit
+            if (now - next >= 0 && nextBackoff.compareAndSet(next, now + backoffIntervalNanos)) {
+                limit.updateAndGet(current -> Math.max(minLimit, (int) (current * backoffRatio)));
+            }
+        } else if (concurrency * 2 >= limit.get()) {
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    /**
+     * Get the current limit.
+     *
+     * @return the max number of requests in flight
+     */
+    public int getLimit() {
+        return limit.get();
+    }
+
+    /**
+     * Get the requests in flight.
+     *
+     * @return the number of requests in flight
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
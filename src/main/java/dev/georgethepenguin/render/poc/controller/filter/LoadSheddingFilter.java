@@ -0,0 +1,276 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.controller.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.georgethepenguin.render.poc.config.ratelimit.RateLimitProperties;
+import dev.georgethepenguin.render.poc.controller.advice.ErrorResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * The filter that sheds the excess load before it reaches the services and the connection pool.
+ * <p>
+ * Every client, identified by its API key when it is a known one or else by its IP address, which is the one of the
+ * client behind a trusted proxy when the forwarded headers are enabled, has a token bucket per endpoint, and is rejected
+ * with {@code 429 Too Many Requests} when it runs out of tokens. Then the requests of all the clients together are
+ * limited by an adaptive concurrency limit, and rejected with {@code 503 Service Unavailable} when it is reached. Both
+ * rejections have a {@code Retry-After} header and are counted by reason and endpoint.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    /**
+     * The counter of the rejected requests.
+     */
+    public static final String REJECTED_METRIC = "load.shedding.rejected";
+
+    /**
+     * The gauge of the adaptive concurrency limit.
+     */
+    public static final String LIMIT_METRIC = "load.shedding.concurrency.limit";
+
+    /**
+     * The gauge of the requests in flight under the concurrency limit.
+     */
+    public static final String IN_FLIGHT_METRIC = "load.shedding.concurrency.in.flight";
+
+    /**
+     * The endpoint tag of the requests without an endpoint of their own.
+     */
+    public static final String DEFAULT_ENDPOINT = "default";
+
+    private static final UrlPathHelper URL_PATH_HELPER = UrlPathHelper.defaultInstance;
+
+    private final String apiKeyHeader;
+
+    private final Set<String> apiKeys;
+
+    private final List<Route> routes;
+
+    private final Route defaultRoute;
+
+    private final Cache<String, TokenBucket> buckets;
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    private final List<PathPattern> excludedPaths;
+
+    private final ObjectMapper objectMapper;
+
+    private final MeterRegistry meterRegistry;
+
+    private final LongSupplier nanoClock;
+
+    /**
+     * Constructor.
+     *
+     * @param rateLimitProperties the rate limit properties
+     * @param objectMapper        the object mapper of the error responses
+     * @param meterRegistry       the meter registry
+     * @param nanoClock           the clock, in nanoseconds
+     */
+    public LoadSheddingFilter(RateLimitProperties rateLimitProperties,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              LongSupplier nanoClock) {
+        final var parser = PathPatternParser.defaultInstance;
+        final var concurrency = rateLimitProperties.concurrency();
+
+        this.apiKeyHeader = rateLimitProperties.apiKeyHeader();
+        this.apiKeys = rateLimitProperties.apiKeys();
+        this.routes = rateLimitProperties.endpoints().stream()
+                .map(endpoint -> new Route(
+                        (endpoint.method() == null ? "" : endpoint.method() + " ") + endpoint.path(),
+                        endpoint.method(), parser.parse(endpoint.path()), endpoint.permitsPerSecond(),
+                        endpoint.burst()))
+                .toList();
+        this.defaultRoute = new Route(DEFAULT_ENDPOINT, null, null, rateLimitProperties.limit().permitsPerSecond(),
+                rateLimitProperties.limit().burst());
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(rateLimitProperties.maxClients())
+                .expireAfterAccess(rateLimitProperties.clientIdleTimeout())
+                .build();
+        this.concurrencyLimiter = concurrency.enabled()
+                ? new AdaptiveConcurrencyLimiter(concurrency.initialLimit(), concurrency.minLimit(),
+                concurrency.maxLimit(), concurrency.latencyThreshold().toNanos(), concurrency.backoffRatio(),
+                concurrency.backoffInterval().toNanos(), nanoClock)
+                : null;
+        this.excludedPaths = concurrency.excludedPaths().stream().map(parser::parse).toList();
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+
+        if (concurrencyLimiter != null) {
+            Gauge.builder(LIMIT_METRIC, concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("The adaptive max number of requests in flight")
+                    .register(meterRegistry);
+            Gauge.builder(IN_FLIGHT_METRIC, concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("The requests in flight under the concurrency limit")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        final var path = PathContainer.parsePath(URL_PATH_HELPER.getPathWithinApplication(request));
+        final var route = route(request.getMethod(), path);
+        final var wait = buckets.get(route.name() + " " + client(request), key -> route.newBucket(nanoClock))
+                .tryAcquire();
+
+        if (wait > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, route, "rate_limit",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1)),
+                    "The rate limit of the client has been exceeded");
+            return;
+        }
+
+        if (concurrencyLimiter == null || excludedPaths.stream().anyMatch(pattern -> pattern.matches(path))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!concurrencyLimiter.tryAcquire()) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, route, "concurrency_limit", 1,
+                    "The server is overloaded");
+            return;
+        }
+
+        final var start = nanoClock.getAsLong();
+        final var released = new AtomicBoolean();
+        final Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                concurrencyLimiter.release(nanoClock.getAsLong() - start);
+            }
+        };
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private Route route(final String method, final PathContainer path) {
+        return routes.stream()
+                .filter(route -> route.method() == null || route.method().equalsIgnoreCase(method))
+                .filter(route -> route.pattern().matches(path))
+                .findFirst()
+                .orElse(defaultRoute);
+    }
+
+    private String client(final HttpServletRequest request) {
+        final var apiKey = request.getHeader(apiKeyHeader);
+
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(final HttpServletResponse response, final HttpStatus status, final Route route,
+                        final String reason, final long retryAfterSeconds, final String message) throws IOException {
+        meterRegistry.counter(REJECTED_METRIC, "reason", reason, "endpoint", route.name()).increment();
+
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(LocalDateTime.now(), status.getReasonPhrase(), message));
+    }
+
+    /**
+     * An endpoint with its rate limit.
+     *
+     * @param name             the name of the endpoint, for the buckets and the metrics
+     * @param method           the HTTP method, or {@code null} for any
+     * @param pattern          the path pattern, or {@code null} for any
+     * @param permitsPerSecond the sustained requests per second
+     * @param burst            the requests accepted at once after an idle period
+     */
+    private record Route(String name, String method, PathPattern pattern, double permitsPerSecond, int burst) {
+
+        TokenBucket newBucket(final LongSupplier nanoClock) {
+            return new TokenBucket(permitsPerSecond, burst, nanoClock);
+        }
+    }
+
+    /**
+     * The listener that releases an asynchronous request once it ends.
+     *
+     * @param release the release of the request
+     */
+    private record ReleaseListener(Runnable release) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.controller.filter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * A lock-free token bucket.
+ * <p>
+ * Instead of the tokens, the bucket keeps the time at which it would be full again, as the generic cell rate
+ * algorithm does, so a permit is taken with a single compare and set and there is no refill task.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+public final class TokenBucket {
+
+    private final long nanosPerPermit;
+
+    private final long capacityNanos;
+
+    private final LongSupplier nanoClock;
+
+    private final AtomicLong fullAt;
+
+    /**
+     * Constructor of a full bucket.
+     *
+     * @param permitsPerSecond the permits added per second
+     * @param burst            the max permits in the bucket
+     * @param nanoClock        the clock, in nanoseconds
+     * @throws IllegalArgumentException if the rate or the burst are not positive
+     */
+    public TokenBucket(double permitsPerSecond, int burst, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("The rate and the burst must be positive: " + permitsPerSecond
+                    + ", " + burst);
+        }
+
+        this.nanosPerPermit = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.capacityNanos = nanosPerPermit * burst;
+        this.nanoClock = nanoClock;
+        this.fullAt = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Take a permit if there is one.
+     *
+     * @return zero if the permit was taken, or else the nanoseconds until there is one
+     */
+    public long tryAcquire() {
+        while (true) {
+            final var now = nanoClock.getAsLong();
+            final var current = fullAt.get();
+            final var next = Math.max(current, now) + nanosPerPermit;
+            final var wait = next - now - capacityNanos;
+
+            if (wait > 0) {
+                return wait;
+            }
+
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
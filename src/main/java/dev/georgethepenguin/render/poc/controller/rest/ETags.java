@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.controller.rest;
+
+import dev.georgethepenguin.render.poc.model.exception.TransactionPreconditionFailedException;
+
+/**
+ * The entity tags of the responses, built from versions, and the versions sent back in the If-Match headers.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Build a strong entity tag.
+     *
+     * @param value the value
+     * @return the quoted entity tag
+     */
+    public static String of(final String value) {
+        return "\"" + value + "\"";
+    }
+
+    /**
+     * Build a weak entity tag, for the responses that only stay semantically equivalent while the value is the same,
+     * like the ones with the date time they were built at.
+     *
+     * @param value the value
+     * @return the quoted entity tag, with the weak prefix
+     */
+    public static String weak(final String value) {
+        return "W/" + of(value);
+    }
+
+    /**
+     * Parse the version of an If-Match header, a list of ETags or {@code *}.
+     * <p>
+     * Only the strong ETags of a version can match, so the weak ones are ignored. Every write increments the version,
+     * so the current version is the newest one ever issued, and only the newest version in the list can still match.
+     *
+     * @param ifMatch the If-Match header
+     * @return the newest version of the list, or {@code null} if there is no header or it matches any version
+     * @throws TransactionPreconditionFailedException if the header has no strong ETag of a version, so it cannot match.
+     * @throws IllegalArgumentException               if the header is not a list of ETags.
+     */
+    public static Long toVersion(final String ifMatch) throws TransactionPreconditionFailedException {
+        if (ifMatch == null || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+
+        Long version = null;
+        var index = 0;
+
+        while (index < ifMatch.length()) {
+            if (ifMatch.charAt(index) == ',' || Character.isWhitespace(ifMatch.charAt(index))) {
+                index++;
+                continue;
+            }
+
+            final var weak = ifMatch.startsWith("W/", index);
+            final var open = weak ? index + 2 : index;
+            final var close = ifMatch.startsWith("\"", open) ? ifMatch.indexOf('"', open + 1) : -1;
+
+            if (close < 0) {
+                throw new IllegalArgumentException("The If-Match header is not a list of ETags: " + ifMatch);
+            }
+
+            final var tagged = weak ? null : parseVersion(ifMatch.substring(open + 1, close));
+
+            if (tagged != null && (version == null || tagged > version)) {
+                version = tagged;
+            }
+
+            index = close + 1;
+        }
+
+        if (version == null) {
+            throw new TransactionPreconditionFailedException("The If-Match header has no strong ETag of a version: "
+                    + ifMatch);
+        }
+
+        return version;
+    }
+
+    private static Long parseVersion(final String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
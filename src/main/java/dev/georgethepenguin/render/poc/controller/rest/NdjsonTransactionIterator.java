@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.controller.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An iterator over the transactions of a newline delimited JSON stream.
+ * <p>
+ * Every line is read on demand, so the stream is never fully loaded in memory. Blank lines are skipped, and a line
+ * that is not a valid transaction is reported with an {@link IllegalArgumentException} from {@link #next()}, leaving
+ * the iterator positioned on the following line.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+class NdjsonTransactionIterator implements Iterator<Transaction> {
+
+    private final BufferedReader reader;
+
+    private final ObjectReader objectReader;
+
+    private String nextLine;
+
+    private int lineNumber;
+
+    /**
+     * Constructor.
+     *
+     * @param reader       the reader of the stream
+     * @param objectReader the object reader for the Transaction entity
+     */
+    NdjsonTransactionIterator(BufferedReader reader, ObjectReader objectReader) {
+        this.reader = reader;
+        this.objectReader = objectReader;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (nextLine == null) {
+                final var line = reader.readLine();
+
+                if (line == null) {
+                    return false;
+                }
+
+                lineNumber++;
+
+                if (!line.isBlank()) {
+                    nextLine = line;
+                }
+            }
+
+            return true;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public Transaction next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        final var line = nextLine;
+        nextLine = null;
+
+        try {
+            return objectReader.readValue(line);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("The line " + lineNumber + " is not a valid transaction: "
+                    + ex.getOriginalMessage(), ex);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.controller.rest;
+
+import dev.georgethepenguin.render.poc.controller.advice.ErrorResponse;
+import dev.georgethepenguin.render.poc.model.dto.IngestionAcknowledgement;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.model.exception.TransactionException;
+import dev.georgethepenguin.render.poc.model.service.TransactionIngestionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The transaction ingestion REST controller, only available when the write-behind ingestion is enabled.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@RestController
+@RequestMapping("/api/transaction")
+@Tag(name = "Transaction", description = "The transaction API")
+@ConditionalOnProperty(prefix = "render.poc.ingestion", name = "enabled", havingValue = "true")
+public class TransactionIngestionRestController {
+
+    private final TransactionIngestionService transactionIngestionService;
+
+    /**
+     * Constructor.
+     *
+     * @param transactionIngestionService the transaction ingestion service
+     */
+    @Autowired
+    public TransactionIngestionRestController(TransactionIngestionService transactionIngestionService) {
+        this.transactionIngestionService = transactionIngestionService;
+    }
+
+    /**
+     * Accept a transaction to be persisted asynchronously.
+     *
+     * @param transaction the transaction
+     * @param durable     whether to respond once the transaction has been persisted instead of once it is queued
+     * @return the future response entity with the acknowledgement.
+     * @throws TransactionException the transaction exception
+     */
+    @Operation(
+            summary = "Ingest a transaction asynchronously",
+            description = "Validate a transaction, assign its id and queue it to be persisted by the next group "
+                    + "commit. The response is sent as soon as it is queued, or once it has been persisted when "
+                    + "durable is true. It is rejected with 429 when the queue is full.",
+            tags = {"Transaction"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Created",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = IngestionAcknowledgement.class))),
+            @ApiResponse(responseCode = "202", description = "Accepted",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = IngestionAcknowledgement.class))),
+            @ApiResponse(responseCode = "400", description = "Bad Request",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "429", description = "Too Many Requests",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))})
+    @PostMapping("/ingest")
+    public CompletableFuture<ResponseEntity<IngestionAcknowledgement>> ingest(
+            @RequestBody Transaction transaction,
+            @Parameter(description = "Whether to respond once the transaction has been persisted")
+            @RequestParam(name = "durable", defaultValue = "false") boolean durable)
+            throws TransactionException {
+        final var persisted = transactionIngestionService.submit(transaction);
+        final var location = URI.create("/api/transaction/" + transaction.getId());
+
+        if (!durable) {
+            return CompletableFuture.completedFuture(ResponseEntity.accepted().location(location)
+                    .body(new IngestionAcknowledgement(transaction.getId(), false)));
+        }
+
+        return persisted.thenApply(created -> ResponseEntity.created(location)
+                .body(new IngestionAcknowledgement(created.getId(), true)));
+    }
+}
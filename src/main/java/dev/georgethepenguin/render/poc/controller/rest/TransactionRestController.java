@@ -25,23 +25,54 @@
 
 package dev.georgethepenguin.render.poc.controller.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.georgethepenguin.render.poc.controller.advice.ErrorResponse;
+import dev.georgethepenguin.render.poc.model.amount.Amounts;
+import dev.georgethepenguin.render.poc.model.dto.AggregationPeriod;
+import dev.georgethepenguin.render.poc.model.dto.BalanceAggregate;
+import dev.georgethepenguin.render.poc.model.dto.ExportFormat;
+import dev.georgethepenguin.render.poc.model.dto.TransactionBatchItemResult;
+import dev.georgethepenguin.render.poc.model.dto.TransactionFilter;
+import dev.georgethepenguin.render.poc.model.dto.TransactionPage;
 import dev.georgethepenguin.render.poc.model.entity.Transaction;
 import dev.georgethepenguin.render.poc.model.exception.TransactionException;
+import dev.georgethepenguin.render.poc.model.service.DailyBalanceService;
+import dev.georgethepenguin.render.poc.model.service.IdempotencyService;
+import dev.georgethepenguin.render.poc.model.service.TransactionBatchService;
+import dev.georgethepenguin.render.poc.model.service.TransactionExportService;
 import dev.georgethepenguin.render.poc.model.service.TransactionService;
+import dev.georgethepenguin.render.poc.model.service.TransactionUpdateService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.UnaryOperator;
 
 /**
  * The transaction REST controller.
@@ -57,68 +88,153 @@ public class TransactionRestController {
 
     private final TransactionService transactionService;
 
+    private final TransactionBatchService transactionBatchService;
+
+    private final DailyBalanceService dailyBalanceService;
+
+    private final TransactionExportService transactionExportService;
+
+    private final IdempotencyService idempotencyService;
+
+    private final TransactionUpdateService transactionUpdateService;
+
+    private final ObjectMapper objectMapper;
+
     /**
      * Constructor.
      *
-     * @param transactionService the transaction service
+     * @param transactionService       the transaction service
+     * @param transactionBatchService  the transaction batch service
+     * @param dailyBalanceService      the daily balance service
+     * @param transactionExportService the transaction export service
+     * @param idempotencyService       the idempotency service
+     * @param transactionUpdateService the transaction update service
+     * @param objectMapper             the object mapper
      */
     @Autowired
-    public TransactionRestController(TransactionService transactionService) {
+    public TransactionRestController(TransactionService transactionService,
+                                     TransactionBatchService transactionBatchService,
+                                     DailyBalanceService dailyBalanceService,
+                                     TransactionExportService transactionExportService,
+                                     IdempotencyService idempotencyService,
+                                     TransactionUpdateService transactionUpdateService,
+                                     ObjectMapper objectMapper) {
         this.transactionService = transactionService;
+        this.transactionBatchService = transactionBatchService;
+        this.dailyBalanceService = dailyBalanceService;
+        this.transactionExportService = transactionExportService;
+        this.idempotencyService = idempotencyService;
+        this.transactionUpdateService = transactionUpdateService;
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * Find all the transactions.
+     * Find a page of the transactions that match the optional filters.
      *
-     * @return the response entity with the list of transactions.
+     * @param from      the minimum date time, inclusive
+     * @param to        the maximum date time, exclusive
+     * @param minAmount the minimum amount, inclusive
+     * @param maxAmount the maximum amount, inclusive
+     * @param q         the case-insensitive prefix of the description
+     * @param cursor    the cursor of the page
+     * @param size      the page size
+     * @param request   the request, for its conditional headers
+     * @return the response entity with the page of transactions, or {@code null} if the client's copy is up to date.
      */
     @Operation(
-            summary = "Find all the transactions",
-            description = "Find all the transactions",
+            summary = "Find a page of transactions",
+            description = "Find a page of the transactions that match the optional filters, ordered by date time "
+                    + "descending. Use the next cursor of the response, with the same filters, to request the "
+                    + "following page. The ETag changes with the version of the ledger, so a request with a matching "
+                    + "If-None-Match header gets 304 Not Modified without reading the transactions.",
             tags = {"Transaction"})
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "OK",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Transaction.class)))})
+                            schema = @Schema(implementation = TransactionPage.class))),
+            @ApiResponse(responseCode = "304", description = "Not Modified"),
+            @ApiResponse(responseCode = "400", description = "Bad Request",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))})
     @GetMapping
-    public ResponseEntity<Iterable<Transaction>> findAll() {
-        return ResponseEntity.ok(transactionService.findAll());
+    public ResponseEntity<TransactionPage> findAll(
+            @Parameter(description = "The minimum date time, inclusive, in ISO format")
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "The maximum date time, exclusive, in ISO format")
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "The minimum amount, inclusive")
+            @RequestParam(name = "minAmount", required = false) BigDecimal minAmount,
+            @Parameter(description = "The maximum amount, inclusive")
+            @RequestParam(name = "maxAmount", required = false) BigDecimal maxAmount,
+            @Parameter(description = "The case-insensitive prefix of the description")
+            @RequestParam(name = "q", required = false) String q,
+            @Parameter(description = "The cursor returned with the previous page")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "The page size")
+            @RequestParam(name = "size", required = false) Integer size,
+            WebRequest request) {
+        if (isLedgerNotModified(request, ETags::of)) {
+            return null;
+        }
+
+        return ResponseEntity.ok(transactionService.findAll(new TransactionFilter(from, to, toMinorUnits(minAmount),
+                toMinorUnits(maxAmount), q), cursor, size));
     }
 
     /**
      * Find a transaction by id.
      *
-     * @param id the id
-     * @return the response entity with the transaction.
+     * @param id      the id
+     * @param request the request, for its conditional headers
+     * @return the response entity with the transaction, or {@code null} if the client's copy is up to date.
      */
     @Operation(
             summary = "Find a transaction by id",
-            description = "Find a transaction by id",
+            description = "Find a transaction by id. The ETag is the version of the transaction, and the "
+                    + "Last-Modified header its date time, so a conditional request gets 304 Not Modified while it is "
+                    + "not updated. The ETag can be sent back in the If-Match header of an update.",
             tags = {"Transaction"})
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "OK",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Transaction.class))),
+            @ApiResponse(responseCode = "304", description = "Not Modified"),
             @ApiResponse(responseCode = "404", description = "Not Found",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class)))})
     @GetMapping("/{id}")
-    public ResponseEntity<Transaction> findById(@PathVariable("id") String id) {
+    public ResponseEntity<Transaction> findById(@PathVariable("id") String id, WebRequest request) {
         final var optionalTransaction = transactionService.findById(UUID.fromString(id));
-        return optionalTransaction.isEmpty() ? ResponseEntity.notFound().build()
-                : ResponseEntity.ok(optionalTransaction.get());
+
+        if (optionalTransaction.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        final var transaction = optionalTransaction.get();
+        final var createdAt = transaction.getCreatedAt();
+
+        if (request.checkNotModified(ETags.of(String.valueOf(transaction.getVersion())),
+                createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())) {
+            return null;
+        }
+
+        return ResponseEntity.ok(transaction);
     }
 
     /**
      * Create a transaction.
      *
-     * @param transaction the transaction
+     * @param transaction    the transaction
+     * @param idempotencyKey the optional idempotency key
      * @return the response entity with the transaction.
      * @throws TransactionException the transaction exception
      */
     @Operation(
             summary = "Create a transaction",
-            description = "Create a transaction",
+            description = "Create a transaction. A request retried with the same Idempotency-Key header gets the "
+                    + "transaction created the first time instead of creating another one.",
             tags = {"Transaction"})
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "OK",
@@ -128,31 +244,101 @@ public class TransactionRestController {
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class)))})
     @PostMapping
-    public ResponseEntity<Transaction> create(@RequestBody Transaction transaction) throws TransactionException {
-        return ResponseEntity.ok(transactionService.create(transaction));
+    public ResponseEntity<Transaction> create(
+            @RequestBody Transaction transaction,
+            @Parameter(description = "The key that identifies the request across its retries")
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey)
+            throws TransactionException {
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(transactionService.create(transaction));
+        }
+
+        return ResponseEntity.ok(idempotencyService.create(idempotencyKey, transaction));
+    }
+
+    /**
+     * Create a batch of transactions from a JSON array.
+     *
+     * @param transactions the transactions
+     * @return the response entity with the result of every transaction.
+     */
+    @Operation(
+            summary = "Create a batch of transactions",
+            description = "Create a batch of transactions from a JSON array. Every transaction is validated as in the "
+                    + "single create operation, and the response reports the result of each one.",
+            tags = {"Transaction"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = TransactionBatchItemResult.class)))),
+            @ApiResponse(responseCode = "400", description = "Bad Request",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))})
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<TransactionBatchItemResult>> createAll(@RequestBody List<Transaction> transactions) {
+        return ResponseEntity.ok(transactionBatchService.createAll(transactions.iterator()));
+    }
+
+    /**
+     * Create a batch of transactions from a newline delimited JSON stream.
+     *
+     * @param inputStream the request body
+     * @return the response entity with the result of every transaction.
+     * @throws IOException if the request body cannot be read
+     */
+    @Operation(
+            summary = "Create a batch of transactions from a stream",
+            description = "Create a batch of transactions from a newline delimited JSON stream, one transaction per "
+                    + "line. The stream is read incrementally, and the response reports the result of each line.",
+            tags = {"Transaction"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = TransactionBatchItemResult.class))))})
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<TransactionBatchItemResult>> createAll(InputStream inputStream) throws IOException {
+        try (var reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            return ResponseEntity.ok(transactionBatchService.createAll(
+                    new NdjsonTransactionIterator(reader, objectMapper.readerFor(Transaction.class))));
+        }
     }
 
     /**
      * Update a transaction.
      *
      * @param transaction the transaction
+     * @param ifMatch     the optional ETags of the versions the update is based on
      * @return the response entity with the transaction.
      * @throws TransactionException the transaction exception
      */
     @Operation(
             summary = "Update a transaction",
-            description = "Update a transaction",
+            description = "Update a transaction. With an If-Match header holding the ETags of previous responses, the "
+                    + "update is rejected with 412 Precondition Failed if the transaction has been updated since then. "
+                    + "Without it, or with *, the update is applied on top of the current version, and it is rejected "
+                    + "with 409 Conflict if concurrent updates keep winning.",
             tags = {"Transaction"})
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "OK",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Transaction.class))),
             @ApiResponse(responseCode = "400", description = "Bad Request",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Conflict",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "412", description = "Precondition Failed",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class)))})
     @PutMapping
-    public ResponseEntity<Transaction> update(@RequestBody Transaction transaction) throws TransactionException {
-        return ResponseEntity.ok(transactionService.update(transaction));
+    public ResponseEntity<Transaction> update(
+            @RequestBody Transaction transaction,
+            @Parameter(description = "The ETags of the versions the update is based on, or *")
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch)
+            throws TransactionException {
+        final var updated = transactionUpdateService.update(transaction, ETags.toVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(String.valueOf(updated.getVersion()))).body(updated);
     }
 
     /**
@@ -182,21 +368,142 @@ public class TransactionRestController {
     /**
      * Get the current balance.
      *
-     * @return the response entity with the current balance.
+     * @param request the request, for its conditional headers
+     * @return the response entity with the current balance, or {@code null} if the client's copy is up to date.
      */
     @Operation(
             summary = "Get the current balance",
-            description = "Get the current balance",
+            description = "Get the current balance. The ETag changes with the version of the ledger, so a request "
+                    + "with a matching If-None-Match header gets 304 Not Modified.",
             tags = {"Transaction"})
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "OK",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Transaction.class)))})
+                            schema = @Schema(implementation = Transaction.class))),
+            @ApiResponse(responseCode = "304", description = "Not Modified")})
     @GetMapping("/current-balance")
-    public ResponseEntity<Map<String, Object>> getCurrentBalance() {
+    public ResponseEntity<Map<String, Object>> getCurrentBalance(WebRequest request) {
+        // The body has the date time it is built at, so it is only the same as the client's copy semantically
+        if (isLedgerNotModified(request, ETags::weak)) {
+            return null;
+        }
+
         return ResponseEntity.ok(Map.of(
                 "dateTime", LocalDateTime.now(),
-                "balance", transactionService.getCurrentBalance()
+                "balance", Amounts.toDecimal(transactionService.getCurrentBalance())
         ));
     }
+
+    /**
+     * Get the balance at a point in time.
+     *
+     * @param at the point in time, inclusive
+     * @return the response entity with the balance.
+     */
+    @Operation(
+            summary = "Get the balance at a point in time",
+            description = "Get the sum of the amount of the transactions created up to a date time, inclusive",
+            tags = {"Transaction"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "400", description = "Bad Request",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))})
+    @GetMapping("/balance")
+    public ResponseEntity<Map<String, Object>> getBalanceAt(
+            @Parameter(description = "The date time, in ISO format")
+            @RequestParam(name = "at") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(Map.of(
+                "dateTime", at,
+                "balance", Amounts.toDecimal(dailyBalanceService.getBalanceAt(at))
+        ));
+    }
+
+    /**
+     * Aggregate the transactions of a range of days by period.
+     *
+     * @param period the period
+     * @param from   the first day, inclusive
+     * @param to     the last day, inclusive
+     * @return the response entity with the totals of every period.
+     */
+    @Operation(
+            summary = "Aggregate the transactions by period",
+            description = "Get the sum of the amount and the number of the transactions of every day, week or month "
+                    + "of a range of days. The periods without transactions are omitted.",
+            tags = {"Transaction"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = BalanceAggregate.class)))),
+            @ApiResponse(responseCode = "400", description = "Bad Request",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))})
+    @GetMapping("/aggregate")
+    public ResponseEntity<List<BalanceAggregate>> aggregate(
+            @Parameter(description = "The period: DAY, WEEK or MONTH")
+            @RequestParam(name = "period") AggregationPeriod period,
+            @Parameter(description = "The first day, inclusive, in ISO format")
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "The last day, inclusive, in ISO format")
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(dailyBalanceService.aggregate(period, from, to));
+    }
+
+    /**
+     * Export every transaction, streaming them to the response as they are read from the database.
+     *
+     * @param format   the format, ndjson or csv
+     * @param response the response
+     * @throws IOException if the response cannot be written
+     */
+    @Operation(
+            summary = "Export every transaction",
+            description = "Stream every transaction, ordered by date time ascending, as newline delimited JSON or "
+                    + "as CSV. The response is compressed when the request accepts the gzip encoding.",
+            tags = {"Transaction"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = {@Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE),
+                            @Content(mediaType = "text/csv")}),
+            @ApiResponse(responseCode = "400", description = "Bad Request",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))})
+    @GetMapping("/export")
+    public void export(
+            @Parameter(description = "The format: ndjson or csv")
+            @RequestParam(name = "format", defaultValue = "ndjson") String format,
+            HttpServletResponse response) throws IOException {
+        final var exportFormat = ExportFormat.fromName(format);
+
+        response.setContentType(exportFormat.getMediaType().toString());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("transactions." + exportFormat.getExtension())
+                .build()
+                .toString());
+
+        transactionExportService.export(exportFormat, response.getOutputStream());
+    }
+
+    /**
+     * Check the conditional headers of a request against the version of the ledger, setting the ETag of the response.
+     * <p>
+     * The version is read before the response, so a concurrent write can only make the client fetch a response it
+     * already has, never keep a stale one. Without an initialized ledger balance there is no ETag and the response is
+     * always sent.
+     *
+     * @param request the request
+     * @param eTag    the builder of the strong or weak ETag
+     * @return whether the client's copy is up to date, in which case the status is already 304
+     */
+    private boolean isLedgerNotModified(final WebRequest request, final UnaryOperator<String> eTag) {
+        final var version = transactionService.getLedgerVersion();
+        return version.isPresent() && request.checkNotModified(eTag.apply("v" + version.get()));
+    }
+
+    private static Long toMinorUnits(final BigDecimal amount) {
+        return amount == null ? null : Amounts.toMinorUnits(amount);
+    }
 }
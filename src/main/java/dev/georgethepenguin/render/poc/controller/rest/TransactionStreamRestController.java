@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.controller.rest;
+
+import dev.georgethepenguin.render.poc.model.dto.TransactionStreamEvent;
+import dev.georgethepenguin.render.poc.model.service.TransactionStreamService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * The transaction stream REST controller, which sends the transaction changes as server-sent events.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@RestController
+@RequestMapping("/api/transaction")
+@Tag(name = "Transaction", description = "The transaction API")
+public class TransactionStreamRestController {
+
+    private final TransactionStreamService transactionStreamService;
+
+    /**
+     * Constructor.
+     *
+     * @param transactionStreamService the transaction stream service
+     */
+    @Autowired
+    public TransactionStreamRestController(TransactionStreamService transactionStreamService) {
+        this.transactionStreamService = transactionStreamService;
+    }
+
+    /**
+     * Stream the transaction changes.
+     *
+     * @param lastEventId the id of the last event received, sent by the client when it reconnects
+     * @return the emitter of the events
+     */
+    @Operation(
+            summary = "Stream the transaction changes",
+            description = "Send every created, updated and deleted transaction, with the balance right after it, as "
+                    + "server-sent events. A client that reconnects with the Last-Event-ID header receives the events "
+                    + "it missed, or a reset event when they are not available anymore and the transactions must be "
+                    + "reloaded. A client that falls too far behind is disconnected, and can resume the same way.",
+            tags = {"Transaction"})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = TransactionStreamEvent.class)))})
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @Parameter(description = "The id of the last event received")
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        return transactionStreamService.subscribe(lastEventId);
+    }
+}
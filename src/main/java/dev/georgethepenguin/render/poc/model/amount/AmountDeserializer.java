@@ -0,0 +1,71 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.model.amount;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+
+import java.io.IOException;
+
+/**
+ * Deserializes an amount in minor units from a JSON decimal number or string, like {@code 12.5} or {@code "12.50"}.
+ * <p>
+ * The numbers are read from their text as a {@link java.math.BigDecimal}, so they never go through {@code double}.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+public class AmountDeserializer extends StdDeserializer<Long> {
+
+    /**
+     * Constructor.
+     */
+    public AmountDeserializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public Long deserialize(final JsonParser parser, final DeserializationContext context) throws IOException {
+        final var token = parser.currentToken();
+
+        try {
+            if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                return Amounts.toMinorUnits(parser.getDecimalValue());
+            }
+
+            if (token == JsonToken.VALUE_STRING) {
+                return Amounts.parse(parser.getText());
+            }
+        } catch (IllegalArgumentException ex) {
+            throw InvalidFormatException.from(parser, ex.getMessage(), parser.getText(), Long.class);
+        }
+
+        return (Long) context.handleUnexpectedToken(Long.class, parser);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.model.amount;
+
+import java.math.BigDecimal;
+
+/**
+ * The conversions of the amounts, which are kept as a {@code long} number of hundredths, the minor units, so they are
+ * stored and summed exactly.
+ * <p>
+ * The decimal forms are converted without going through {@code double}.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+public final class Amounts {
+
+    /**
+     * The number of decimals of an amount.
+     */
+    public static final int SCALE = 2;
+
+    private static final long MINOR_UNITS_PER_UNIT = 100;
+
+    private Amounts() {
+    }
+
+    /**
+     * Convert a decimal amount to minor units.
+     *
+     * @param amount the decimal amount
+     * @return the minor units
+     * @throws IllegalArgumentException if the amount has more decimals than the scale or does not fit in a long
+     */
+    public static long toMinorUnits(final BigDecimal amount) {
+        try {
+            return amount.movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("The amount must have at most " + SCALE
+                    + " decimals and fit in the supported range: " + amount.toPlainString(), ex);
+        }
+    }
+
+    /**
+     * Convert a decimal amount to minor units.
+     *
+     * @param amount the decimal amount, like {@code -12.5}
+     * @return the minor units
+     * @throws IllegalArgumentException if the amount is not a decimal number, has more decimals than the scale or does
+     *                                  not fit in a long
+     */
+    public static long parse(final String amount) {
+        final BigDecimal decimal;
+
+        try {
+            decimal = new BigDecimal(amount.strip());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("The amount is not a decimal number: " + amount, ex);
+        }
+
+        return toMinorUnits(decimal);
+    }
+
+    /**
+     * Convert minor units to a decimal amount.
+     *
+     * @param minorUnits the minor units
+     * @return the decimal amount, with the scale as its number of decimals
+     */
+    public static BigDecimal toDecimal(final long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * Format minor units as a plain decimal number, like {@code -12.50}, with primitive arithmetic only.
+     *
+     * @param minorUnits the minor units
+     * @return the decimal number, with the scale as its number of decimals
+     */
+    public static String format(final long minorUnits) {
+        final var units = minorUnits / MINOR_UNITS_PER_UNIT;
+        final var cents = Math.abs(minorUnits % MINOR_UNITS_PER_UNIT);
+        final var builder = new StringBuilder(24);
+
+        // The sign is lost in the units when the amount is between minus one and zero
+        if (minorUnits < 0 && units == 0) {
+            builder.append('-');
+        }
+
+        builder.append(units).append('.');
+
+        if (cents < 10) {
+            builder.append('0');
+        }
+
+        return builder.append(cents).toString();
+    }
+}
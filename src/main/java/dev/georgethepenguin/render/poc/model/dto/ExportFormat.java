@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.model.dto;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * The formats the ledger can be exported in.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+public enum ExportFormat {
+
+    /**
+     * A JSON transaction per line.
+     */
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+
+    /**
+     * Comma separated values, with a header line.
+     */
+    CSV(new MediaType("text", "csv"), "csv");
+
+    private final MediaType mediaType;
+
+    private final String extension;
+
+    ExportFormat(final MediaType mediaType, final String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    /**
+     * Get the format with a name, ignoring its case.
+     *
+     * @param name the name, like {@code csv}
+     * @return the format
+     * @throws IllegalArgumentException if there is no format with the name
+     */
+    public static ExportFormat fromName(final String name) {
+        try {
+            return valueOf(name.strip().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("The export format is not supported: " + name, ex);
+        }
+    }
+
+    /**
+     * Get the media type of the format.
+     *
+     * @return the media type
+     */
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Get the file extension of the format.
+     *
+     * @return the file extension, without the dot
+     */
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.model.dto;
+
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+
+/**
+ * The result of one item of a batch of transactions.
+ *
+ * @param index       the zero based position of the item in the batch
+ * @param status      the status of the item
+ * @param transaction the created transaction, or {@code null} if the item was not created
+ * @param message     the reason why the item was not created, or {@code null} if it was created
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+public record TransactionBatchItemResult(int index,
+                                         Status status,
+                                         Transaction transaction,
+                                         String message) {
+
+    /**
+     * The status of a batch item.
+     */
+    public enum Status {
+
+        /**
+         * The transaction was created.
+         */
+        CREATED,
+
+        /**
+         * The transaction did not pass the validations.
+         */
+        REJECTED,
+
+        /**
+         * The transaction was valid, but the chunk that contained it could not be persisted.
+         */
+        FAILED
+    }
+
+    /**
+     * Builds the result of a created item.
+     *
+     * @param index       the index
+     * @param transaction the created transaction
+     * @return the result
+     */
+    public static TransactionBatchItemResult created(final int index, final Transaction transaction) {
+        return new TransactionBatchItemResult(index, Status.CREATED, transaction, null);
+    }
+
+    /**
+     * Builds the result of a rejected item.
+     *
+     * @param index   the index
+     * @param message the reason
+     * @return the result
+     */
+    public static TransactionBatchItemResult rejected(final int index, final String message) {
+        return new TransactionBatchItemResult(index, Status.REJECTED, null, message);
+    }
+
+    /**
+     * Builds the result of a failed item.
+     *
+     * @param index   the index
+     * @param message the reason
+     * @return the result
+     */
+    public static TransactionBatchItemResult failed(final int index, final String message) {
+        return new TransactionBatchItemResult(index, Status.FAILED, null, message);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.model.dto;
+
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+
+import java.util.UUID;
+
+/**
+ * The change of a transaction, published by the services inside the database transaction that makes it.
+ *
+ * @param type          the type of the change
+ * @param transactionId the id of the changed transaction
+ * @param transaction   the created or updated transaction, or {@code null} if it was deleted
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+public record TransactionChange(Type type,
+                                UUID transactionId,
+                                Transaction transaction) {
+
+    /**
+     * The type of a transaction change.
+     */
+    public enum Type {
+
+        /**
+         * The transaction was created.
+         */
+        CREATED,
+
+        /**
+         * The transaction was updated.
+         */
+        UPDATED,
+
+        /**
+         * The transaction was deleted.
+         */
+        DELETED
+    }
+
+    /**
+     * Builds the change of a created transaction.
+     *
+     * @param transaction the created transaction
+     * @return the change
+     */
+    public static TransactionChange created(final Transaction transaction) {
+        return new TransactionChange(Type.CREATED, transaction.getId(), transaction);
+    }
+
+    /**
+     * Builds the change of an updated transaction.
+     *
+     * @param transaction the updated transaction
+     * @return the change
+     */
+    public static TransactionChange updated(final Transaction transaction) {
+        return new TransactionChange(Type.UPDATED, transaction.getId(), transaction);
+    }
+
+    /**
+     * Builds the change of a deleted transaction.
+     *
+     * @param transactionId the id of the deleted transaction
+     * @return the change
+     */
+    public static TransactionChange deleted(final UUID transactionId) {
+        return new TransactionChange(Type.DELETED, transactionId, null);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.model.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * The keyset cursor that points to the last transaction of a page.
+ * <p>
+ * It is exchanged with the clients as an opaque, URL safe token.
+ *
+ * @param createdAt the creation date time of the last transaction of the page
+ * @param id        the id of the last transaction of the page
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+public record TransactionCursor(LocalDateTime createdAt, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Encodes the cursor as an opaque token.
+     *
+     * @return the token
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes an opaque token.
+     *
+     * @param token the token
+     * @return the cursor
+     * @throws IllegalArgumentException if the token is not a valid cursor
+     */
+    public static TransactionCursor decode(final String token) {
+        try {
+            final var value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final var separatorIndex = value.indexOf(SEPARATOR);
+
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException("The cursor is not valid: " + token);
+            }
+
+            return new TransactionCursor(LocalDateTime.parse(value.substring(0, separatorIndex)),
+                    UUID.fromString(value.substring(separatorIndex + 1)));
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("The cursor is not valid: " + token, ex);
+        }
+    }
+}
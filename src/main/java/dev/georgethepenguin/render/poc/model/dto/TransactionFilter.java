@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.model.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * The optional criteria to filter the transactions. A {@code null} criterion does not filter.
+ *
+ * @param from      the minimum date time, inclusive
+ * @param to        the maximum date time, exclusive
+ * @param minAmount the minimum amount in minor units, inclusive
+ * @param maxAmount the maximum amount in minor units, inclusive
+ * @param q         the case-insensitive prefix of the description
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+public record TransactionFilter(LocalDateTime from, LocalDateTime to, Long minAmount, Long maxAmount, String q) {
+
+    /**
+     * The filter that matches every transaction.
+     */
+    public static final TransactionFilter NONE = new TransactionFilter(null, null, null, null, null);
+
+    /**
+     * Constructor that validates the ranges and ignores a blank description prefix.
+     *
+     * @throws IllegalArgumentException if a range is empty
+     */
+    public TransactionFilter {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("The from date time must be before the to date time: " + from);
+        }
+
+        if (minAmount != null && maxAmount != null && minAmount > maxAmount) {
+            throw new IllegalArgumentException("The min amount must not be greater than the max amount: "
+                    + minAmount);
+        }
+
+        q = q == null || q.isBlank() ? null : q.strip();
+    }
+
+    /**
+     * Whether the filter matches every transaction.
+     *
+     * @return {@code true} if no criterion is set
+     */
+    public boolean isEmpty() {
+        return from == null && to == null && minAmount == null && maxAmount == null && q == null;
+    }
+}
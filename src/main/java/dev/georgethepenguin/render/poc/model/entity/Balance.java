@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+/**
+ * The balance entity.
+ * <p>
+ * It materializes the sum of the amount of all the transactions, so it can be read without scanning the transaction
+ * table. The ledger uses a single row, identified by {@link #LEDGER_ID}, and its amount is in minor units. Its version
+ * is incremented by every write to the ledger, so it tells whether any transaction has changed.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "balance")
+public class Balance {
+
+    /**
+     * The id of the ledger balance row.
+     */
+    public static final int LEDGER_ID = 1;
+
+    @Id
+    @Column(name = "id", nullable = false)
+    private int id;
+
+    @Column(name = "amount", nullable = false)
+    private long amount;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    /**
+     * Constructor of a balance with the initial version.
+     *
+     * @param id     the id
+     * @param amount the amount, in minor units
+     */
+    public Balance(int id, long amount) {
+        this(id, amount, 0);
+    }
+}
@@ -26,16 +26,24 @@
 package dev.georgethepenguin.render.poc.model.entity;
 
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import dev.georgethepenguin.render.poc.model.amount.AmountDeserializer;
+import dev.georgethepenguin.render.poc.model.amount.AmountSerializer;
+import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.*;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 /**
  * The transaction entity.
+ * <p>
+ * The amount is kept in minor units, hundredths, and it is a decimal number in its JSON form. The version is
+ * incremented by every update, and it is read-only in the JSON form: the updates take the version they are based on
+ * from the If-Match header instead.
  *
  * @author Jorge Garcia - George the Penguin
  * @version 1.0.0
@@ -59,38 +67,61 @@ public class Transaction {
     private LocalDateTime createdAt;
 
     @Column(name = "amount", nullable = false)
-    private double amount;
+    @JsonSerialize(using = AmountSerializer.class)
+    @JsonDeserialize(using = AmountDeserializer.class)
+    @Schema(type = "number", example = "12.50")
+    private long amount;
 
     @Column(name = "description", nullable = false)
     private String description;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY)
+    private long version;
+
+    /**
+     * Constructor of a transaction with the initial version.
+     *
+     * @param id          the id
+     * @param createdAt   the date time
+     * @param amount      the amount, in minor units
+     * @param description the description
+     */
+    public Transaction(UUID id, LocalDateTime createdAt, long amount, String description) {
+        this(id, createdAt, amount, description, 0);
+    }
+
+    /**
+     * Two transactions are equal when they have the same id, which also holds for the lazy proxies of Hibernate since
+     * they extend the entity. A transaction without id is only equal to itself.
+     *
+     * @param o the other object
+     * @return whether the other object is the same transaction
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) {
             return true;
         }
 
-        if (o == null || getClass() != o.getClass()) {
+        if (!(o instanceof Transaction other)) {
             return false;
         }
 
-        final var that = (Transaction) o;
-
-        return new EqualsBuilder()
-                .append(id, that.id)
-                .append(createdAt, that.createdAt)
-                .append(amount, that.amount)
-                .append(description, that.description)
-                .isEquals();
+        return id != null && id.equals(other.getId());
     }
 
+    /**
+     * The hash code is constant, so it does not change when the id is assigned on persist or when the mutable fields
+     * are updated, and the transaction is never lost inside a hash based collection. As a consequence, large hash based
+     * collections of transactions should be keyed by id instead.
+     *
+     * @return the hash code
+     */
     @Override
     public int hashCode() {
-        return new HashCodeBuilder(17, 37)
-                .append(id)
-                .append(createdAt)
-                .append(amount)
-                .append(description)
-                .toHashCode();
+        return Transaction.class.hashCode();
     }
 }
\ No newline at end of file
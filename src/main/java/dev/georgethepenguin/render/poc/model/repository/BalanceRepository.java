@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.model.repository;
+
+import dev.georgethepenguin.render.poc.model.entity.Balance;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The JPA repository for the Balance entity.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@Repository
+public interface BalanceRepository extends JpaRepository<Balance, Integer> {
+
+    /**
+     * Finds the amount of the ledger balance.
+     *
+     * @return the amount of the ledger balance, or empty if the balance has not been initialized yet.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT b.amount FROM Balance b WHERE b.id = " + Balance.LEDGER_ID)
+    Optional<Long> findLedgerAmount();
+
+    /**
+     * Finds the version of the ledger balance.
+     *
+     * @return the version of the ledger balance, or empty if the balance has not been initialized yet.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT b.version FROM Balance b WHERE b.id = " + Balance.LEDGER_ID)
+    Optional<Long> findLedgerVersion();
+
+    /**
+     * Finds the ledger balance and locks it until the end of the current transaction.
+     *
+     * @return the ledger balance, or empty if the balance has not been initialized yet.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Balance b WHERE b.id = " + Balance.LEDGER_ID)
+    Optional<Balance> findLedgerForUpdate();
+
+    /**
+     * Adds a delta to the amount of the ledger balance, and increments its version.
+     *
+     * @param delta the delta
+     * @return the number of updated rows.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE balance SET amount = amount + :delta, version = version + 1 "
+            + "WHERE id = " + Balance.LEDGER_ID, nativeQuery = true)
+    int addToLedger(@Param("delta") long delta);
+
+    /**
+     * Replaces the amount of a transaction in the ledger balance, reading its current amount in the same statement, and
+     * increments its version.
+     * <p>
+     * It must be executed before the transaction is updated. The balance does not change if the transaction does not
+     * exist.
+     *
+     * @param id     the id of the transaction
+     * @param amount the new amount of the transaction
+     * @return the number of updated rows.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE balance SET amount = amount + :amount "
+            + "- COALESCE((SELECT t.amount FROM transaction t WHERE t.id = :id), :amount), version = version + 1 "
+            + "WHERE id = " + Balance.LEDGER_ID, nativeQuery = true)
+    int replaceInLedger(@Param("id") UUID id, @Param("amount") long amount);
+
+    /**
+     * Removes the amount of a transaction from the ledger balance, reading it in the same statement, and increments its
+     * version.
+     * <p>
+     * It must be executed before the transaction is deleted. The balance does not change if the transaction does not
+     * exist.
+     *
+     * @param id the id of the transaction
+     * @return the number of updated rows.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE balance SET amount = amount "
+            + "- COALESCE((SELECT t.amount FROM transaction t WHERE t.id = :id), 0), version = version + 1 "
+            + "WHERE id = " + Balance.LEDGER_ID, nativeQuery = true)
+    int removeFromLedger(@Param("id") UUID id);
+}
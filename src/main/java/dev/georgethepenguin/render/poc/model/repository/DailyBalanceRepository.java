@@ -0,0 +1,155 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.model.repository;
+
+import dev.georgethepenguin.render.poc.model.entity.DailyBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The JPA repository for the DailyBalance entity.
+ * <p>
+ * The writers update the ledger balance before the daily balances, so the lock on the ledger row serializes the
+ * daily balance changes too, and a day is never inserted twice. The ledger row is seeded by the schema migrations,
+ * since an update of a missing row takes no lock.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@Repository
+public interface DailyBalanceRepository extends JpaRepository<DailyBalance, LocalDate> {
+
+    /**
+     * Adds transactions to a day, inserting the day if it does not exist yet.
+     *
+     * @param day    the day
+     * @param amount the sum of the amount of the transactions
+     * @param count  the number of transactions
+     */
+    @Transactional
+    default void addToDay(final LocalDate day, final long amount, final long count) {
+        if (addToExistingDay(day, amount, count) == 0) {
+            insertDay(day, amount, count);
+        }
+    }
+
+    /**
+     * Adds transactions to a day that already exists.
+     *
+     * @param day    the day
+     * @param amount the sum of the amount of the transactions
+     * @param count  the number of transactions
+     * @return the number of updated rows, zero if the day does not exist.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE daily_balance SET total_amount = total_amount + :amount, "
+            + "transaction_count = transaction_count + :count WHERE balance_date = :day", nativeQuery = true)
+    int addToExistingDay(@Param("day") LocalDate day, @Param("amount") long amount, @Param("count") long count);
+
+    /**
+     * Inserts a day.
+     *
+     * @param day    the day
+     * @param amount the sum of the amount of the transactions
+     * @param count  the number of transactions
+     * @return the number of inserted rows.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO daily_balance (balance_date, total_amount, transaction_count) "
+            + "VALUES (:day, :amount, :count)", nativeQuery = true)
+    int insertDay(@Param("day") LocalDate day, @Param("amount") long amount, @Param("count") long count);
+
+    /**
+     * Removes a transaction from the day it was created on, reading it in the same statement.
+     * <p>
+     * It must be executed before the transaction is updated or deleted. Nothing changes if the transaction does not
+     * exist.
+     *
+     * @param id the id of the transaction
+     * @return the number of updated rows.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE daily_balance SET "
+            + "total_amount = total_amount - (SELECT t.amount FROM transaction t WHERE t.id = :id), "
+            + "transaction_count = transaction_count - 1 "
+            + "WHERE balance_date = (SELECT CAST(t.date_time AS DATE) FROM transaction t WHERE t.id = :id)",
+            nativeQuery = true)
+    int removeFromDay(@Param("id") UUID id);
+
+    /**
+     * Sums the amount of the transactions created before a day.
+     *
+     * @param day the day, exclusive
+     * @return the sum, zero if there are no days before it.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT COALESCE(SUM(d.totalAmount), 0) FROM DailyBalance d WHERE d.balanceDate < :day")
+    long sumBefore(@Param("day") LocalDate day);
+
+    /**
+     * Finds the days of a range, ordered by day.
+     *
+     * @param from the first day, inclusive
+     * @param to   the last day, inclusive
+     * @return the list of days.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT d FROM DailyBalance d WHERE d.balanceDate >= :from AND d.balanceDate <= :to "
+            + "ORDER BY d.balanceDate")
+    List<DailyBalance> findRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Deletes every day.
+     *
+     * @return the number of deleted rows.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM daily_balance", nativeQuery = true)
+    int removeAllDays();
+
+    /**
+     * Sums the transactions of every day, without storing them.
+     *
+     * @return the daily balances computed from the transactions, ordered by day.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new DailyBalance(CAST(t.createdAt AS LocalDate), SUM(t.amount), COUNT(t)) FROM Transaction t "
+            + "GROUP BY CAST(t.createdAt AS LocalDate) ORDER BY CAST(t.createdAt AS LocalDate)")
+    List<DailyBalance> sumAllDays();
+}
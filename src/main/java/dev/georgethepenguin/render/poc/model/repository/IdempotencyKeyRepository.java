@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.model.repository;
+
+import dev.georgethepenguin.render.poc.model.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The JPA repository for the IdempotencyKey entity.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Inserts a key, without checking first whether it exists as {@code save} does.
+     * <p>
+     * It fails with a duplicate key error when another request has inserted the same key concurrently.
+     *
+     * @param key           the idempotency key
+     * @param transactionId the id of the transaction created with the key
+     * @param createdAt     the date time the key was used for the first time
+     * @return the number of inserted rows.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_key (idempotency_key, transaction_id, created_at) "
+            + "VALUES (:key, :transactionId, :createdAt)", nativeQuery = true)
+    int insertKey(@Param("key") String key, @Param("transactionId") UUID transactionId,
+                  @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Deletes the keys created before a date time.
+     *
+     * @param createdAt the date time, exclusive
+     * @return the number of deleted rows.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :createdAt")
+    int removeCreatedBefore(@Param("createdAt") LocalDateTime createdAt);
+}
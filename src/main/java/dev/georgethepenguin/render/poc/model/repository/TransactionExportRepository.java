@@ -0,0 +1,51 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.model.repository;
+
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+
+import java.util.function.Consumer;
+
+/**
+ * The repository fragment that reads every transaction through a database cursor, for the ledger export.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+public interface TransactionExportRepository {
+
+    /**
+     * Reads every transaction, ordered by date time and id ascending, and hands each one to a consumer as soon as it
+     * is read.
+     * <p>
+     * The transactions are detached, and they are not kept after the consumer returns. It must be executed inside a
+     * transaction, so the database keeps the cursor open between fetches.
+     *
+     * @param fetchSize the number of rows fetched from the cursor at a time
+     * @param consumer  the consumer of the transactions
+     */
+    void forEachTransaction(int fetchSize, Consumer<Transaction> consumer);
+}
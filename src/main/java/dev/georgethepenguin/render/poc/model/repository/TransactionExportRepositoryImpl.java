@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.model.repository;
+
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * The implementation of the transaction export repository fragment.
+ * <p>
+ * It reads the rows with plain JDBC through a forward-only, read-only result set instead of Hibernate, so no entity is
+ * ever attached to the persistence context and the memory does not grow with the number of rows.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+public class TransactionExportRepositoryImpl implements TransactionExportRepository {
+
+    private static final String SELECT_ALL = "SELECT id, date_time, amount, description, version FROM transaction "
+            + "ORDER BY date_time, id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor.
+     *
+     * @param jdbcTemplate the JDBC template
+     */
+    @Autowired
+    public TransactionExportRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void forEachTransaction(final int fetchSize, final Consumer<Transaction> consumer) {
+        jdbcTemplate.query(connection -> {
+            final var statement = connection.prepareStatement(SELECT_ALL, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> consumer.accept(new Transaction(
+                resultSet.getObject(1, UUID.class),
+                resultSet.getObject(2, LocalDateTime.class),
+                resultSet.getLong(3),
+                resultSet.getString(4),
+                resultSet.getLong(5))));
+    }
+}
@@ -26,12 +26,17 @@
 package dev.georgethepenguin.render.poc.model.repository;
 
 import dev.georgethepenguin.render.poc.model.entity.Transaction;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -42,23 +47,94 @@ import java.util.UUID;
  * @since 17
  */
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
+public interface TransactionRepository extends JpaRepository<Transaction, UUID>, TransactionSearchRepository,
+        TransactionExportRepository, TransactionInsertRepository {
 
     /**
-     * Finds all the transactions ordered by date time descending.
+     * Finds the first page of transactions ordered by date time and id descending.
      *
+     * @param pageable the pageable with the page size
      * @return the list of transactions.
      */
-    default Iterable<Transaction> findAllOrderByCreatedAtDesc() {
-        return findAll(Sort.by(Sort.Direction.DESC, "createdAt"));
-    }
+    @Transactional(readOnly = true)
+    @Query("SELECT t FROM Transaction t ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findFirstPage(Pageable pageable);
+
+    /**
+     * Finds the page of transactions that follows the given keyset, ordered by date time and id descending.
+     * <p>
+     * The redundant {@code createdAt <= :createdAt} predicate bounds the range scan over the date time index, so the
+     * cost of a page does not depend on how deep it is.
+     *
+     * @param createdAt the date time of the last transaction of the previous page
+     * @param id        the id of the last transaction of the previous page
+     * @param pageable  the pageable with the page size
+     * @return the list of transactions.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT t FROM Transaction t "
+            + "WHERE t.createdAt <= :createdAt AND (t.createdAt < :createdAt OR t.id < :id) "
+            + "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id,
+                                    Pageable pageable);
+
+    /**
+     * Finds the version of a transaction.
+     *
+     * @param id the id
+     * @return the version, or empty if the id does not exist.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT t.version FROM Transaction t WHERE t.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    /**
+     * Updates a transaction with a single statement, without loading it first, if it still has the expected version,
+     * and increments its version.
+     *
+     * @param id          the id
+     * @param version     the expected version
+     * @param createdAt   the new date time
+     * @param amount      the new amount
+     * @param description the new description
+     * @return the number of updated rows, zero if the id does not exist or the version is not the expected one.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Transaction t SET t.createdAt = :createdAt, t.amount = :amount, t.description = :description, "
+            + "t.version = t.version + 1 WHERE t.id = :id AND t.version = :version")
+    int updateByIdAndVersion(@Param("id") UUID id, @Param("version") long version,
+                             @Param("createdAt") LocalDateTime createdAt, @Param("amount") long amount,
+                             @Param("description") String description);
+
+    /**
+     * Deletes a transaction with a single statement, without loading it first.
+     *
+     * @param id the id
+     * @return the number of deleted rows, zero if the id does not exist.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Transaction t WHERE t.id = :id")
+    int removeById(@Param("id") UUID id);
 
     /**
      * Sum the amount of all the transactions.
      *
-     * @return the sum of the amount of all the transactions.
+     * @return the sum of the amount of all the transactions, zero if there are none.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t")
+    long sumByAmount();
+
+    /**
+     * Sum the amount of the transactions created in a date time range.
+     *
+     * @param from the minimum date time, inclusive
+     * @param to   the maximum date time, inclusive
+     * @return the sum of the amount of the transactions, zero if there are none.
      */
     @Transactional(readOnly = true)
-    @Query("SELECT SUM(t.amount) FROM Transaction t")
-    Double sumByAmount();
+    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t WHERE t.createdAt >= :from AND t.createdAt <= :to")
+    long sumByAmountBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.model.repository;
+
+import dev.georgethepenguin.render.poc.model.dto.TransactionCursor;
+import dev.georgethepenguin.render.poc.model.dto.TransactionFilter;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * The implementation of the transaction search repository fragment.
+ * <p>
+ * Only the criteria that are set become predicates, instead of a static query with {@code :param IS NULL OR ...}
+ * conditions, so the database can use the index of the date time range, the amount range or the description prefix.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+public class TransactionSearchRepositoryImpl implements TransactionSearchRepository {
+
+    /**
+     * The escape character of the LIKE patterns.
+     */
+    public static final char ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Transaction> search(final TransactionFilter filter, final TransactionCursor after, final int limit) {
+        final var builder = entityManager.getCriteriaBuilder();
+        final var query = builder.createQuery(Transaction.class);
+        final var root = query.from(Transaction.class);
+        final var createdAt = root.<LocalDateTime>get("createdAt");
+        final var amount = root.<Long>get("amount");
+        final var id = root.<UUID>get("id");
+        final var predicates = new ArrayList<Predicate>();
+
+        if (filter.from() != null) {
+            predicates.add(builder.greaterThanOrEqualTo(createdAt, filter.from()));
+        }
+
+        if (filter.to() != null) {
+            predicates.add(builder.lessThan(createdAt, filter.to()));
+        }
+
+        if (filter.minAmount() != null) {
+            predicates.add(builder.greaterThanOrEqualTo(amount, filter.minAmount()));
+        }
+
+        if (filter.maxAmount() != null) {
+            predicates.add(builder.lessThanOrEqualTo(amount, filter.maxAmount()));
+        }
+
+        if (filter.q() != null) {
+            predicates.add(builder.like(builder.lower(root.get("description")),
+                    escapeLike(filter.q().toLowerCase(Locale.ROOT)) + "%", ESCAPE));
+        }
+
+        if (after != null) {
+            predicates.add(builder.lessThanOrEqualTo(createdAt, after.createdAt()));
+            predicates.add(builder.or(builder.lessThan(createdAt, after.createdAt()),
+                    builder.lessThan(id, after.id())));
+        }
+
+        query.select(root)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(builder.desc(createdAt), builder.desc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    /**
+     * Escapes the wildcards of a LIKE pattern, so they match themselves.
+     *
+     * @param value the value
+     * @return the escaped value
+     */
+    public static String escapeLike(final String value) {
+        final var escaped = new StringBuilder(value.length() + 4);
+
+        for (var i = 0; i < value.length(); i++) {
+            final var c = value.charAt(i);
+
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                escaped.append(ESCAPE);
+            }
+
+            escaped.append(c);
+        }
+
+        return escaped.toString();
+    }
+}
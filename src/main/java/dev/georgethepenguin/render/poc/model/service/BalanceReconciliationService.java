@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.model.service;
+
+import dev.georgethepenguin.render.poc.model.entity.Balance;
+import dev.georgethepenguin.render.poc.model.repository.BalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+import java.util.OptionalLong;
+
+/**
+ * The service that reconciles the materialized ledger balance against the sum of all the transactions.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@Slf4j
+@Service
+public class BalanceReconciliationService {
+
+    // The reconciliations that find the ledger changed since their sum was computed, before it is left for the next run
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    private final TransactionRepository transactionRepository;
+
+    private final BalanceRepository balanceRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructor.
+     *
+     * @param transactionRepository the transaction repository
+     * @param balanceRepository     the balance repository
+     * @param transactionTemplate   the transaction template
+     */
+    @Autowired
+    public BalanceReconciliationService(TransactionRepository transactionRepository,
+                                        BalanceRepository balanceRepository,
+                                        TransactionTemplate transactionTemplate) {
+        this.transactionRepository = transactionRepository;
+        this.balanceRepository = balanceRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Reconcile the ledger balance, creating it if it does not exist yet.
+     * <p>
+     * The transactions are summed without any lock, after reading the version of the ledger balance. Then the ledger
+     * balance row is locked only to correct it, and only if its version has not changed in between: every write
+     * increments it, so an unchanged version means the sum is still current, and the writers waiting for the lock apply
+     * their deltas on top of the reconciled amount. Otherwise the reconciliation starts again, up to three times, and
+     * then waits for the next run.
+     * <p>
+     * The migrations seed the ledger balance row. If it is missing anyway, it is created with zero and the
+     * reconciliation starts again, since the writes committed while the transactions were summed took no lock and
+     * did not change any version, so only a sum taken after the row exists is known to be current.
+     *
+     * @return the reconciled amount, in minor units, or empty if the ledger kept changing while the transactions were
+     * summed
+     */
+    @Scheduled(fixedDelayString = "${render.poc.balance.reconciliation-interval:PT1H}")
+    public OptionalLong reconcile() {
+        for (var attempt = 1; attempt <= RECONCILE_ATTEMPTS; attempt++) {
+            final var version = balanceRepository.findLedgerVersion().orElse(null);
+            final var expected = transactionRepository.sumByAmount();
+
+            final Boolean reconciled;
+            try {
+                reconciled = transactionTemplate.execute(status -> apply(version, expected));
+            } catch (DataIntegrityViolationException ex) {
+                log.debug("The ledger balance was created by another reconciliation, attempt {}", attempt);
+                continue;
+            }
+
+            if (Boolean.TRUE.equals(reconciled)) {
+                return OptionalLong.of(expected);
+            }
+
+            log.debug("The ledger changed while the transactions were summed, attempt {}", attempt);
+        }
+
+        log.warn("The ledger kept changing while the transactions were summed, "
+                + "the reconciliation waits for the next run");
+
+        return OptionalLong.empty();
+    }
+
+    private boolean apply(final Long version, final long expected) {
+        final var optionalBalance = balanceRepository.findLedgerForUpdate();
+
+        if (!Objects.equals(version, optionalBalance.map(Balance::getVersion).orElse(null))) {
+            return false;
+        }
+
+        if (optionalBalance.isEmpty()) {
+            log.warn("The ledger balance does not exist, creating it before summing the transactions again");
+            balanceRepository.saveAndFlush(new Balance(Balance.LEDGER_ID, 0));
+            return false;
+        }
+
+        final var balance = optionalBalance.get();
+
+        if (balance.getAmount() != expected) {
+            log.warn("The ledger balance {} does not match the sum of the transactions {}, correcting it",
+                    balance.getAmount(), expected);
+            balance.setAmount(expected);
+            balance.setVersion(balance.getVersion() + 1);
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.model.service;
+
+import dev.georgethepenguin.render.poc.model.dto.AggregationPeriod;
+import dev.georgethepenguin.render.poc.model.dto.BalanceAggregate;
+import dev.georgethepenguin.render.poc.model.entity.Balance;
+import dev.georgethepenguin.render.poc.model.repository.BalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.DailyBalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalInt;
+
+/**
+ * The service for the balance history, computed from the daily balances instead of the whole transaction table.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@Slf4j
+@Service
+public class DailyBalanceService {
+
+    // The rebuilds that find the ledger changed since their sums were computed, before it is left for the next run
+    private static final int REBUILD_ATTEMPTS = 3;
+
+    private final TransactionRepository transactionRepository;
+
+    private final BalanceRepository balanceRepository;
+
+    private final DailyBalanceRepository dailyBalanceRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructor.
+     *
+     * @param transactionRepository  the transaction repository
+     * @param balanceRepository      the balance repository
+     * @param dailyBalanceRepository the daily balance repository
+     * @param transactionTemplate    the transaction template
+     */
+    @Autowired
+    public DailyBalanceService(TransactionRepository transactionRepository,
+                               BalanceRepository balanceRepository,
+                               DailyBalanceRepository dailyBalanceRepository,
+                               TransactionTemplate transactionTemplate) {
+        this.transactionRepository = transactionRepository;
+        this.balanceRepository = balanceRepository;
+        this.dailyBalanceRepository = dailyBalanceRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Get the balance at a point in time.
+     * <p>
+     * It is the sum of the days before it, plus the sum of the transactions of its own day up to it, which is a range
+     * scan over the date time index.
+     *
+     * @param dateTime the point in time, inclusive
+     * @return the balance, in minor units
+     * @throws IllegalArgumentException if the point in time is null
+     */
+    @Transactional(readOnly = true)
+    public long getBalanceAt(final LocalDateTime dateTime) {
+        if (dateTime == null) {
+            throw new IllegalArgumentException("The date time is null");
+        }
+
+        final var day = dateTime.toLocalDate();
+
+        return dailyBalanceRepository.sumBefore(day)
+                + transactionRepository.sumByAmountBetween(day.atStartOfDay(), dateTime);
+    }
+
+    /**
+     * Aggregate the transactions of a range of days by period.
+     * <p>
+     * The periods without transactions are omitted.
+     *
+     * @param period the period
+     * @param from   the first day, inclusive
+     * @param to     the last day, inclusive
+     * @return the totals of every period, ordered by its first day
+     * @throws IllegalArgumentException if an argument is null or the range is empty
+     */
+    @Transactional(readOnly = true)
+    public List<BalanceAggregate> aggregate(final AggregationPeriod period, final LocalDate from,
+                                            final LocalDate to) {
+        if (period == null || from == null || to == null) {
+            throw new IllegalArgumentException("The period, from and to are required");
+        }
+
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("The from day must not be after the to day: " + from);
+        }
+
+        final var aggregates = new ArrayList<BalanceAggregate>();
+
+        for (final var dailyBalance : dailyBalanceRepository.findRange(from, to)) {
+            final var start = period.start(dailyBalance.getBalanceDate());
+            final var last = aggregates.isEmpty() ? null : aggregates.get(aggregates.size() - 1);
+
+            if (last != null && last.start().equals(start)) {
+                aggregates.set(aggregates.size() - 1, new BalanceAggregate(start,
+                        last.total() + dailyBalance.getTotalAmount(),
+                        last.count() + dailyBalance.getTransactionCount()));
+            } else {
+                aggregates.add(new BalanceAggregate(start, dailyBalance.getTotalAmount(),
+                        dailyBalance.getTransactionCount()));
+            }
+        }
+
+        return aggregates;
+    }
+
+    /**
+     * Rebuild the daily balances from the transactions.
+     * <p>
+     * The days are summed without any lock, after reading the version of the ledger balance. Then the ledger balance
+     * row is locked, like every writer does before it changes a daily balance, only to replace the daily balances, and
+     * only if its version has not changed in between: every write increments it, so an unchanged version means the sums
+     * are still current. Otherwise the rebuild starts again, up to three times, and then waits for the next run.
+     *
+     * @return the number of days, or empty if the ledger kept changing while the days were summed
+     */
+    @Scheduled(cron = "${render.poc.balance.daily-rebuild-cron:0 30 3 * * *}")
+    public OptionalInt rebuild() {
+        for (var attempt = 1; attempt <= REBUILD_ATTEMPTS; attempt++) {
+            final var version = balanceRepository.findLedgerVersion().orElse(null);
+            final var days = dailyBalanceRepository.sumAllDays();
+
+            final var replaced = transactionTemplate.execute(status -> {
+                final var current = balanceRepository.findLedgerForUpdate().map(Balance::getVersion).orElse(null);
+
+                if (!Objects.equals(version, current)) {
+                    return false;
+                }
+
+                dailyBalanceRepository.removeAllDays();
+                days.forEach(day -> dailyBalanceRepository.insertDay(day.getBalanceDate(), day.getTotalAmount(),
+                        day.getTransactionCount()));
+                return true;
+            });
+
+            if (Boolean.TRUE.equals(replaced)) {
+                log.info("Rebuilt the daily balances of {} days", days.size());
+                return OptionalInt.of(days.size());
+            }
+
+            log.debug("The ledger changed while the daily balances were summed, attempt {}", attempt);
+        }
+
+        log.warn("The ledger kept changing while the daily balances were summed, the rebuild waits for the next run");
+
+        return OptionalInt.empty();
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.model.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.georgethepenguin.render.poc.config.idempotency.IdempotencyProperties;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.model.exception.TransactionException;
+import dev.georgethepenguin.render.poc.model.repository.IdempotencyKeyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The business service for the creation of transactions with an idempotency key.
+ * <p>
+ * The result of every key is kept in a bounded in-memory store, which expires it after the configured time to live,
+ * and in the database, so it survives restarts. The concurrent requests with the same key are serialized by one of a
+ * fixed set of locks, so only the first one creates the transaction and the rest replay its result from memory. The
+ * requests on other instances, or after the result has been evicted, are caught by the primary key of the stored key:
+ * the one that loses the race rolls back and replays the stored result.
+ * {@link ReentrantLock} is used instead of {@code synchronized}, so a virtual thread waiting for the database does not
+ * pin its carrier thread.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    /**
+     * The max length of an idempotency key.
+     */
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final TransactionService transactionService;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final IdempotencyProperties idempotencyProperties;
+
+    private final Cache<String, Transaction> results;
+
+    private final ReentrantLock[] locks;
+
+    /**
+     * Constructor.
+     *
+     * @param transactionService       the transaction service
+     * @param idempotencyKeyRepository the idempotency key repository
+     * @param idempotencyProperties    the idempotency properties
+     */
+    @Autowired
+    public IdempotencyService(TransactionService transactionService,
+                              IdempotencyKeyRepository idempotencyKeyRepository,
+                              IdempotencyProperties idempotencyProperties) {
+        this.transactionService = transactionService;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.idempotencyProperties = idempotencyProperties;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(idempotencyProperties.maxSize())
+                .expireAfterWrite(idempotencyProperties.ttl())
+                .build();
+        this.locks = new ReentrantLock[idempotencyProperties.stripes()];
+
+        for (var i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Create a transaction, or replay the transaction created with the same idempotency key before.
+     *
+     * @param idempotencyKey the idempotency key
+     * @param transaction    the transaction
+     * @return the created transaction, or the transaction created with the key the first time
+     * @throws TransactionException if the key is blank or too long, if the transaction is null or the id is not null or
+     *                              the description is blank, or if the transaction created with the key does not exist
+     *                              anymore.
+     */
+    public Transaction create(final String idempotencyKey, final Transaction transaction)
+            throws TransactionException {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            throw new TransactionException("The idempotency key is blank");
+        }
+
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new TransactionException("The idempotency key is longer than " + MAX_KEY_LENGTH + " characters");
+        }
+
+        final var replayed = results.getIfPresent(idempotencyKey);
+
+        if (replayed != null) {
+            return copy(replayed);
+        }
+
+        final var lock = locks[Math.floorMod(idempotencyKey.hashCode(), locks.length)];
+        lock.lock();
+
+        try {
+            // A concurrent request with the same key may have stored its result while this one was waiting
+            final var stored = results.getIfPresent(idempotencyKey);
+
+            if (stored != null) {
+                return copy(stored);
+            }
+
+            final var created = createOrReplay(idempotencyKey, transaction);
+            results.put(idempotencyKey, copy(created));
+            return created;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Purge the keys that have outlived their time to live from the database.
+     *
+     * @return the number of purged keys
+     */
+    @Scheduled(fixedDelayString = "${render.poc.idempotency.purge-interval:PT1H}")
+    public int purgeExpired() {
+        final var purged = idempotencyKeyRepository.removeCreatedBefore(
+                LocalDateTime.now().minus(idempotencyProperties.ttl()));
+
+        log.info("Purged {} expired idempotency keys", purged);
+
+        return purged;
+    }
+
+    private Transaction createOrReplay(final String idempotencyKey, final Transaction transaction)
+            throws TransactionException {
+        try {
+            return transactionService.createIdempotent(idempotencyKey, transaction);
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance has stored the key after it was checked, and its database transaction has committed
+            log.debug("Replaying the idempotency key stored concurrently: {}", idempotencyKey);
+            return transactionService.findIdempotent(idempotencyKey).orElseThrow(() -> ex);
+        }
+    }
+
+    private static Transaction copy(final Transaction transaction) {
+        return new Transaction(transaction.getId(), transaction.getCreatedAt(), transaction.getAmount(),
+                transaction.getDescription(), transaction.getVersion());
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.model.service;
+
+import dev.georgethepenguin.render.poc.config.batch.BatchProperties;
+import dev.georgethepenguin.render.poc.model.dto.TransactionBatchItemResult;
+import dev.georgethepenguin.render.poc.model.dto.TransactionChange;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.model.exception.TransactionException;
+import dev.georgethepenguin.render.poc.model.repository.BalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.DailyBalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * The business service for the bulk ingestion of transactions.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@Slf4j
+@Service
+public class TransactionBatchService {
+
+    private final TransactionRepository transactionRepository;
+
+    private final BalanceRepository balanceRepository;
+
+    private final DailyBalanceRepository dailyBalanceRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final BatchProperties batchProperties;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * Constructor.
+     *
+     * @param transactionRepository     the transaction repository
+     * @param balanceRepository         the balance repository
+     * @param dailyBalanceRepository    the daily balance repository
+     * @param transactionTemplate       the transaction template
+     * @param batchProperties           the batch properties
+     * @param applicationEventPublisher the application event publisher
+     */
+    @Autowired
+    public TransactionBatchService(TransactionRepository transactionRepository,
+                                   BalanceRepository balanceRepository,
+                                   DailyBalanceRepository dailyBalanceRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   BatchProperties batchProperties,
+                                   ApplicationEventPublisher applicationEventPublisher) {
+        this.transactionRepository = transactionRepository;
+        this.balanceRepository = balanceRepository;
+        this.dailyBalanceRepository = dailyBalanceRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchProperties = batchProperties;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * Create a batch of transactions.
+     * <p>
+     * Every item is validated with the same rules as {@link TransactionService#create(Transaction)}. The valid items
+     * are persisted in chunks, each one in its own database transaction, so the inserts are sent as JDBC batches and
+     * the persistence context never holds more than one chunk. An item that cannot be read from the source, signaled
+     * by an {@link IllegalArgumentException} from the iterator, is rejected without stopping the batch.
+     *
+     * @param transactions the transactions
+     * @return the result of every item, in the same order as the source
+     */
+    public List<TransactionBatchItemResult> createAll(final Iterator<Transaction> transactions) {
+        final var results = new ArrayList<TransactionBatchItemResult>();
+        final var chunk = new ArrayList<Transaction>(batchProperties.chunkSize());
+        final var chunkIndexes = new ArrayList<Integer>(batchProperties.chunkSize());
+
+        while (transactions.hasNext()) {
+            final var index = results.size();
+            results.add(null);
+
+            try {
+                final var transaction = transactions.next();
+                TransactionService.validateNew(transaction);
+                transaction.setCreatedAt(LocalDateTime.now());
+                chunk.add(transaction);
+                chunkIndexes.add(index);
+            } catch (TransactionException | IllegalArgumentException ex) {
+                results.set(index, TransactionBatchItemResult.rejected(index, ex.getMessage()));
+            }
+
+            if (chunk.size() == batchProperties.chunkSize()) {
+                persistChunk(chunk, chunkIndexes, results);
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            persistChunk(chunk, chunkIndexes, results);
+        }
+
+        return results;
+    }
+
+    private void persistChunk(final List<Transaction> chunk, final List<Integer> chunkIndexes,
+                              final List<TransactionBatchItemResult> results) {
+        try {
+            transactionTemplate.execute(status -> {
+                transactionRepository.saveAll(chunk);
+                addToBalances(chunk);
+                publishCreated(chunk);
+                return null;
+            });
+
+            for (var i = 0; i < chunk.size(); i++) {
+                results.set(chunkIndexes.get(i), TransactionBatchItemResult.created(chunkIndexes.get(i), chunk.get(i)));
+            }
+        } catch (RuntimeException ex) {
+            log.error("Could not persist a chunk of {} transactions", chunk.size(), ex);
+
+            for (var i = 0; i < chunk.size(); i++) {
+                results.set(chunkIndexes.get(i), TransactionBatchItemResult.failed(chunkIndexes.get(i),
+                        "The chunk of the transaction could not be persisted"));
+            }
+        }
+
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+
+    /**
+     * Insert a group of transactions that have already been validated and have their id and date time assigned, in a
+     * single database transaction.
+     * <p>
+     * It is the group commit of the write-behind ingestion: the rows are sent as one JDBC batch and the balances are
+     * updated once for the whole group.
+     *
+     * @param transactions the transactions
+     * @throws org.springframework.dao.DataAccessException if the group cannot be persisted, in which case none of the
+     *                                                     transactions is.
+     */
+    public void insertAll(final List<Transaction> transactions) {
+        transactionTemplate.execute(status -> {
+            transactionRepository.insertAll(transactions);
+            addToBalances(transactions);
+            publishCreated(transactions);
+            return null;
+        });
+    }
+
+    private void addToBalances(final List<Transaction> chunk) {
+        balanceRepository.addToLedger(chunk.stream().mapToLong(Transaction::getAmount).sum());
+        // A chunk only spans two days when it is created around midnight
+        chunk.stream()
+                .collect(Collectors.groupingBy(transaction -> transaction.getCreatedAt().toLocalDate(),
+                        TreeMap::new, Collectors.toList()))
+                .forEach((day, transactions) -> dailyBalanceRepository.addToDay(day,
+                        transactions.stream().mapToLong(Transaction::getAmount).sum(), transactions.size()));
+    }
+
+    private void publishCreated(final List<Transaction> chunk) {
+        chunk.forEach(transaction -> applicationEventPublisher.publishEvent(TransactionChange.created(transaction)));
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.model.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.georgethepenguin.render.poc.config.export.ExportProperties;
+import dev.georgethepenguin.render.poc.model.amount.Amounts;
+import dev.georgethepenguin.render.poc.model.dto.ExportFormat;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.model.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * The business service for the export of the whole ledger.
+ * <p>
+ * The transactions are written to the output as they are read from the database cursor, so the memory used does not
+ * depend on the number of transactions.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@Service
+public class TransactionExportService {
+
+    /**
+     * The header line of the CSV format.
+     */
+    public static final String CSV_HEADER = "id,dateTime,amount,description";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final TransactionRepository transactionRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final ExportProperties exportProperties;
+
+    /**
+     * Constructor.
+     *
+     * @param transactionRepository the transaction repository
+     * @param objectMapper          the object mapper
+     * @param exportProperties      the export properties
+     */
+    @Autowired
+    public TransactionExportService(TransactionRepository transactionRepository,
+                                    ObjectMapper objectMapper,
+                                    ExportProperties exportProperties) {
+        this.transactionRepository = transactionRepository;
+        this.objectMapper = objectMapper;
+        this.exportProperties = exportProperties;
+    }
+
+    /**
+     * Export every transaction, ordered by date time and id ascending.
+     *
+     * @param format the format
+     * @param output the output, which is flushed but not closed
+     * @throws IOException              if the output cannot be written
+     * @throws IllegalArgumentException if the format is null
+     */
+    @Transactional(readOnly = true)
+    public void export(final ExportFormat format, final OutputStream output) throws IOException {
+        if (format == null) {
+            throw new IllegalArgumentException("The export format is null");
+        }
+
+        final var writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        try {
+            switch (format) {
+                case NDJSON -> exportNdjson(writer);
+                case CSV -> exportCsv(writer);
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+
+        writer.flush();
+    }
+
+    private void exportNdjson(final Writer writer) throws IOException {
+        final var objectWriter = objectMapper.writerFor(Transaction.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        final var generator = objectMapper.getFactory().createGenerator(writer)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null);
+
+        transactionRepository.forEachTransaction(exportProperties.fetchSize(), transaction -> {
+            try {
+                objectWriter.writeValue(generator, transaction);
+                generator.writeRaw('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+
+        generator.flush();
+    }
+
+    private void exportCsv(final Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        transactionRepository.forEachTransaction(exportProperties.fetchSize(), transaction -> {
+            try {
+                writer.write(transaction.getId().toString());
+                writer.write(',');
+                DateTimeFormatter.ISO_LOCAL_DATE_TIME.formatTo(transaction.getCreatedAt(), writer);
+                writer.write(',');
+                writer.write(Amounts.format(transaction.getAmount()));
+                writer.write(',');
+                writeCsvField(writer, transaction.getDescription());
+                writer.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private static void writeCsvField(final Writer writer, final String value) throws IOException {
+        // RFC 4180: a field with a separator, a quote or a line break is quoted, and its quotes are doubled
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.model.service;
+
+import dev.georgethepenguin.render.poc.config.ingestion.IngestionProperties;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.model.exception.IngestionQueueFullException;
+import dev.georgethepenguin.render.poc.model.exception.TransactionException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The business service for the write-behind ingestion of transactions.
+ * <p>
+ * The transactions are validated and given their id and date time when they are submitted, and then wait in a bounded
+ * lock-free queue. A single writer thread drains the queue in group commits: it persists a group as soon as it reaches
+ * the group size, or after the max delay, whichever comes first, so a peak of single transactions costs one database
+ * transaction per group instead of one per transaction. When the queue is full the submissions are rejected, so the
+ * clients back off instead of the memory growing. When a group cannot be persisted, its transactions are persisted one
+ * by one, so a single failing row does not fail the others.
+ * <p>
+ * Stopping the ingestion first waits for the submissions in progress, and then for the writer to persist everything
+ * in the queue, so no accepted transaction is dropped.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "render.poc.ingestion", name = "enabled", havingValue = "true")
+public class TransactionIngestionService implements SmartLifecycle {
+
+    private final TransactionBatchService transactionBatchService;
+
+    private final IngestionProperties ingestionProperties;
+
+    private final Queue<PendingTransaction> queue = new ConcurrentLinkedQueue<>();
+
+    // The queue does not know its size in constant time, and it bounds the queue without a lock
+    private final AtomicInteger size = new AtomicInteger();
+
+    // The submissions between the accepting check and the offer, which stopping waits for
+    private final AtomicInteger submitting = new AtomicInteger();
+
+    private volatile boolean accepting;
+
+    private volatile boolean running;
+
+    private volatile Thread writer;
+
+    /**
+     * Constructor.
+     *
+     * @param transactionBatchService the transaction batch service
+     * @param ingestionProperties     the ingestion properties
+     */
+    @Autowired
+    public TransactionIngestionService(TransactionBatchService transactionBatchService,
+                                       IngestionProperties ingestionProperties) {
+        this.transactionBatchService = transactionBatchService;
+        this.ingestionProperties = ingestionProperties;
+    }
+
+    /**
+     * Submit a transaction to be persisted by the next group commit.
+     * <p>
+     * The id and the date time are assigned before it returns, so they can be acknowledged to the client right away.
+     *
+     * @param transaction the transaction
+     * @return the future that completes with the transaction once it has been persisted, or exceptionally if its group
+     * could not be persisted.
+     * @throws TransactionException         if the transaction is null or the id is not null or the description is
+     *                                      blank or too long.
+     * @throws IngestionQueueFullException if the queue is full or the ingestion is stopped.
+     */
+    public CompletableFuture<Transaction> submit(final Transaction transaction) throws TransactionException {
+        TransactionService.validateNew(transaction);
+
+        submitting.incrementAndGet();
+
+        try {
+            if (!accepting) {
+                throw new IngestionQueueFullException("The ingestion queue is not accepting transactions");
+            }
+
+            final var queued = size.incrementAndGet();
+
+            if (queued > ingestionProperties.queueCapacity()) {
+                size.decrementAndGet();
+                throw new IngestionQueueFullException("The ingestion queue is full");
+            }
+
+            transaction.setId(UUID.randomUUID());
+            transaction.setCreatedAt(LocalDateTime.now());
+
+            final var pending = new PendingTransaction(transaction, new CompletableFuture<>());
+            queue.offer(pending);
+
+            if (queued >= ingestionProperties.groupSize()) {
+                LockSupport.unpark(writer);
+            }
+
+            return pending.persisted();
+        } finally {
+            submitting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Get the number of transactions waiting to be persisted.
+     *
+     * @return the number of transactions in the queue
+     */
+    public int getQueueSize() {
+        return size.get();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        accepting = true;
+        writer = new Thread(this::drain, "transaction-ingestion");
+        writer.start();
+    }
+
+    /**
+     * Stop accepting transactions, and wait for the writer to persist every transaction accepted so far, including
+     * the ones submitted while stopping.
+     */
+    @Override
+    public void stop() {
+        accepting = false;
+
+        // A submission that passed the accepting check is about to offer its transaction, which the writer must see
+        while (submitting.get() > 0) {
+            Thread.onSpinWait();
+        }
+
+        running = false;
+        LockSupport.unpark(writer);
+
+        try {
+            writer.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * The ingestion starts before and stops after the web server, so the queue is drained once no more requests come.
+     *
+     * @return the phase
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        final var groupSize = ingestionProperties.groupSize();
+        final var maxDelay = ingestionProperties.maxDelay().toNanos();
+        final var group = new ArrayList<PendingTransaction>(groupSize);
+
+        while (running || !queue.isEmpty()) {
+            if (running && size.get() < groupSize) {
+                LockSupport.parkNanos(this, maxDelay);
+            }
+
+            PendingTransaction pending;
+
+            while (group.size() < groupSize && (pending = queue.poll()) != null) {
+                group.add(pending);
+            }
+
+            if (!group.isEmpty()) {
+                size.addAndGet(-group.size());
+                persist(group);
+                group.clear();
+            }
+        }
+    }
+
+    private void persist(final List<PendingTransaction> group) {
+        try {
+            transactionBatchService.insertAll(group.stream().map(PendingTransaction::transaction).toList());
+            group.forEach(pending -> pending.persisted().complete(pending.transaction()));
+        } catch (RuntimeException ex) {
+            log.warn("Could not persist a group of {} transactions, persisting them one by one", group.size(), ex);
+            group.forEach(this::persist);
+        }
+    }
+
+    private void persist(final PendingTransaction pending) {
+        try {
+            transactionBatchService.insertAll(List.of(pending.transaction()));
+            pending.persisted().complete(pending.transaction());
+        } catch (RuntimeException ex) {
+            log.error("Could not persist the transaction {}", pending.transaction().getId(), ex);
+            pending.persisted().completeExceptionally(ex);
+        }
+    }
+
+    private record PendingTransaction(Transaction transaction, CompletableFuture<Transaction> persisted) {
+    }
+}
@@ -25,19 +25,40 @@
 
 package dev.georgethepenguin.render.poc.model.service;
 
+import dev.georgethepenguin.render.poc.config.cache.CacheConfig;
+import dev.georgethepenguin.render.poc.config.pagination.PaginationProperties;
+import dev.georgethepenguin.render.poc.model.dto.TransactionChange;
+import dev.georgethepenguin.render.poc.model.dto.TransactionCursor;
+import dev.georgethepenguin.render.poc.model.dto.TransactionFilter;
+import dev.georgethepenguin.render.poc.model.dto.TransactionPage;
 import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.model.exception.TransactionConflictException;
 import dev.georgethepenguin.render.poc.model.exception.TransactionException;
+import dev.georgethepenguin.render.poc.model.exception.TransactionPreconditionFailedException;
+import dev.georgethepenguin.render.poc.model.repository.BalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.DailyBalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.IdempotencyKeyRepository;
 import dev.georgethepenguin.render.poc.model.repository.TransactionRepository;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
  * The business service for the Transaction entity.
+ * <p>
+ * Every change is published as a {@link TransactionChange} inside its database transaction, so the listeners that
+ * wait for the commit never see a change that has been rolled back.
  *
  * @author Jorge Garcia - George the Penguin
  * @version 1.0.0
@@ -46,16 +67,46 @@ import java.util.UUID;
 @Service
 public class TransactionService {
 
+    /**
+     * The maximum length of a description, the size of its column.
+     */
+    public static final int DESCRIPTION_MAX_LENGTH = 255;
+
     private final TransactionRepository transactionRepository;
 
+    private final BalanceRepository balanceRepository;
+
+    private final DailyBalanceRepository dailyBalanceRepository;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final PaginationProperties paginationProperties;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
     /**
      * Constructor.
      *
-     * @param transactionRepository the transaction repository
+     * @param transactionRepository     the transaction repository
+     * @param balanceRepository         the balance repository
+     * @param dailyBalanceRepository    the daily balance repository
+     * @param idempotencyKeyRepository  the idempotency key repository
+     * @param paginationProperties      the pagination properties
+     * @param applicationEventPublisher the application event publisher
      */
     @Autowired
-    public TransactionService(TransactionRepository transactionRepository) {
+    public TransactionService(TransactionRepository transactionRepository,
+                              BalanceRepository balanceRepository,
+                              DailyBalanceRepository dailyBalanceRepository,
+                              IdempotencyKeyRepository idempotencyKeyRepository,
+                              PaginationProperties paginationProperties,
+                              ApplicationEventPublisher applicationEventPublisher) {
         this.transactionRepository = transactionRepository;
+        this.balanceRepository = balanceRepository;
+        this.dailyBalanceRepository = dailyBalanceRepository;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.paginationProperties = paginationProperties;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     /**
@@ -63,9 +114,79 @@ public class TransactionService {
      *
      * @param transaction the transaction
      * @return the created transaction
-     * @throws TransactionException if the transaction is null or the id is not null or the description is blank.
+     * @throws TransactionException if the transaction is null or the id is not null or the description is blank or
+     *                              too long.
      */
+    @Transactional(rollbackFor = TransactionException.class)
+    @CachePut(cacheNames = CacheConfig.TRANSACTIONS_CACHE, key = "#result.id")
     public Transaction create(final Transaction transaction) throws TransactionException {
+        validateNew(transaction);
+
+        transaction.setCreatedAt(LocalDateTime.now());
+        final var created = transactionRepository.save(transaction);
+        balanceRepository.addToLedger(created.getAmount());
+        dailyBalanceRepository.addToDay(created.getCreatedAt().toLocalDate(), created.getAmount(), 1);
+        applicationEventPublisher.publishEvent(TransactionChange.created(created));
+        return created;
+    }
+
+    /**
+     * Create a transaction, unless the idempotency key has already been used.
+     * <p>
+     * The key is recorded in the same database transaction as the created transaction. When a concurrent request,
+     * maybe on another instance, records the same key first, the insert of the key fails with a
+     * {@link org.springframework.dao.DataIntegrityViolationException} and nothing is created, so the caller replays
+     * the stored result with {@link #findIdempotent(String)}.
+     *
+     * @param idempotencyKey the idempotency key
+     * @param transaction    the transaction
+     * @return the created transaction, or the transaction created with the key the first time
+     * @throws TransactionException if the transaction is null or the id is not null or the description is blank, or if
+     *                              the transaction created with the key does not exist anymore.
+     */
+    @Transactional(rollbackFor = TransactionException.class)
+    @CachePut(cacheNames = CacheConfig.TRANSACTIONS_CACHE, key = "#result.id")
+    public Transaction createIdempotent(final String idempotencyKey, final Transaction transaction)
+            throws TransactionException {
+        final var used = findIdempotent(idempotencyKey);
+
+        if (used.isPresent()) {
+            return used.get();
+        }
+
+        final var created = create(transaction);
+        idempotencyKeyRepository.insertKey(idempotencyKey, created.getId(), created.getCreatedAt());
+        return created;
+    }
+
+    /**
+     * Find the transaction created with an idempotency key.
+     *
+     * @param idempotencyKey the idempotency key
+     * @return the transaction created with the key, or empty if the key has not been used
+     * @throws TransactionException if the transaction created with the key does not exist anymore.
+     */
+    @Transactional(readOnly = true, rollbackFor = TransactionException.class)
+    public Optional<Transaction> findIdempotent(final String idempotencyKey) throws TransactionException {
+        final var used = idempotencyKeyRepository.findById(idempotencyKey);
+
+        if (used.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(transactionRepository.findById(used.get().getTransactionId())
+                .orElseThrow(() -> new TransactionException(
+                        "The transaction of the idempotency key has been deleted: " + idempotencyKey)));
+    }
+
+    /**
+     * Validate a transaction that is going to be created.
+     *
+     * @param transaction the transaction
+     * @throws TransactionException if the transaction is null or the id is not null or the description is blank or
+     *                              too long.
+     */
+    public static void validateNew(final Transaction transaction) throws TransactionException {
         if (transaction == null) {
             throw new TransactionException("The transaction is null");
         }
@@ -74,23 +195,17 @@ public class TransactionService {
             throw new TransactionException("The transaction id is not null");
         }
 
-        if (StringUtils.isBlank(transaction.getDescription())) {
-            throw new TransactionException("The transaction description is blank");
-        }
-
-        transaction.setCreatedAt(LocalDateTime.now());
-        return transactionRepository.save(transaction);
+        validateDescription(transaction.getDescription());
     }
 
     /**
-     * Update a transaction.
+     * Validate a transaction that is going to be updated.
      *
      * @param transaction the transaction
-     * @return the updated transaction
-     * @throws TransactionException if the transaction is null or the id is null or the description is blank or the id
-     *                              does not exist.
+     * @throws TransactionException if the transaction is null or the id is null or the description is blank or too
+     *                              long.
      */
-    public Transaction update(final Transaction transaction) throws TransactionException {
+    public static void validateExisting(final Transaction transaction) throws TransactionException {
         if (transaction == null) {
             throw new TransactionException("The transaction is null");
         }
@@ -99,35 +214,128 @@ public class TransactionService {
             throw new TransactionException("The transaction id is null");
         }
 
-        if (StringUtils.isBlank(transaction.getDescription())) {
+        validateDescription(transaction.getDescription());
+    }
+
+    private static void validateDescription(final String description) throws TransactionException {
+        if (StringUtils.isBlank(description)) {
             throw new TransactionException("The transaction description is blank");
         }
 
-        if (!transactionRepository.existsById(transaction.getId())) {
-            throw new TransactionException("The transaction id does not exist: " + transaction.getId());
+        if (description.length() > DESCRIPTION_MAX_LENGTH) {
+            throw new TransactionException(
+                    "The transaction description is longer than " + DESCRIPTION_MAX_LENGTH + " characters");
         }
+    }
 
+    /**
+     * Update a transaction, if it has not been updated since the expected version.
+     * <p>
+     * The version is checked by the update statement itself, so no lock is held between reading the transaction and
+     * updating it. Without an expected version the update is blind: it is based on the current version, and it only
+     * conflicts with an update that commits while it is running.
+     *
+     * @param transaction     the transaction
+     * @param expectedVersion the version the update is based on, or {@code null} for a blind update
+     * @return the updated transaction, with its new version
+     * @throws TransactionException if the transaction is null or the id is null or the description is blank or the id
+     *                              does not exist, or a {@link TransactionPreconditionFailedException} if the
+     *                              transaction does not have the expected version, or a
+     *                              {@link TransactionConflictException} if a blind update conflicts.
+     */
+    @Transactional(rollbackFor = TransactionException.class)
+    @CachePut(cacheNames = CacheConfig.TRANSACTIONS_CACHE, key = "#transaction.id")
+    public Transaction update(final Transaction transaction, final Long expectedVersion) throws TransactionException {
+        validateExisting(transaction);
+
+        final long version;
+
+        if (expectedVersion != null) {
+            version = expectedVersion;
+        } else {
+            version = transactionRepository.findVersionById(transaction.getId())
+                    .orElseThrow(() -> new TransactionException(
+                            "The transaction id does not exist: " + transaction.getId()));
+        }
+
+        // The balances read the previous amount of the row, so they must be updated before the row itself. They are
+        // rolled back if the version does not match.
         transaction.setCreatedAt(LocalDateTime.now());
-        return transactionRepository.save(transaction);
+        balanceRepository.replaceInLedger(transaction.getId(), transaction.getAmount());
+        dailyBalanceRepository.removeFromDay(transaction.getId());
+        dailyBalanceRepository.addToDay(transaction.getCreatedAt().toLocalDate(), transaction.getAmount(), 1);
+
+        if (transactionRepository.updateByIdAndVersion(transaction.getId(), version, transaction.getCreatedAt(),
+                transaction.getAmount(), transaction.getDescription()) == 0) {
+            if (!transactionRepository.existsById(transaction.getId())) {
+                throw new TransactionException("The transaction id does not exist: " + transaction.getId());
+            }
+
+            // The version is after the colon, so the message before it stays a bounded metric tag
+            final var message = "The transaction has been updated since the expected version: "
+                    + transaction.getId() + " (" + version + ")";
+            throw expectedVersion != null
+                    ? new TransactionPreconditionFailedException(message) : new TransactionConflictException(message);
+        }
+
+        transaction.setVersion(version + 1);
+        applicationEventPublisher.publishEvent(TransactionChange.updated(transaction));
+        return transaction;
     }
 
     /**
      * Find a transaction by id.
+     * <p>
+     * The found transactions are cached, and the entries are refreshed by the updates and evicted by the deletes. A
+     * read that overlaps a write never replaces the entry it left, see {@link CacheConfig}.
      *
      * @param uuid the id
      * @return the transaction
      */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.TRANSACTIONS_CACHE, key = "#uuid", unless = "#result == null")
     public Optional<Transaction> findById(final UUID uuid) {
         return transactionRepository.findById(uuid);
     }
 
     /**
-     * Find all the transactions.
+     * Find a page of the transactions that match a filter, ordered by date time descending.
      *
-     * @return the list of transactions
+     * @param filter the filter, which must be the same for every page
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param size   the requested page size, or {@code null} for the default one. It is capped to the max page size.
+     * @return the page of transactions
+     * @throws IllegalArgumentException if the cursor is not valid or the size is not positive.
      */
-    public Iterable<Transaction> findAll() {
-        return transactionRepository.findAllOrderByCreatedAtDesc();
+    @Transactional(readOnly = true)
+    public TransactionPage findAll(final TransactionFilter filter, final String cursor, final Integer size) {
+        final var pageSize = size == null ? paginationProperties.defaultSize()
+                : Math.min(size, paginationProperties.maxSize());
+
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("The page size must be greater than zero: " + size);
+        }
+
+        // One extra row tells whether there is a next page without issuing a count query.
+        final var pageable = PageRequest.ofSize(pageSize + 1);
+        final var after = cursor == null || cursor.isEmpty() ? null : TransactionCursor.decode(cursor);
+        final List<Transaction> transactions;
+
+        if (filter != null && !filter.isEmpty()) {
+            transactions = transactionRepository.search(filter, after, pageSize + 1);
+        } else if (after == null) {
+            transactions = transactionRepository.findFirstPage(pageable);
+        } else {
+            transactions = transactionRepository.findPageAfter(after.createdAt(), after.id(), pageable);
+        }
+
+        if (transactions.size() <= pageSize) {
+            return new TransactionPage(transactions, null);
+        }
+
+        final var content = transactions.subList(0, pageSize);
+        final var last = content.get(pageSize - 1);
+        return new TransactionPage(content, new TransactionCursor(last.getCreatedAt(), last.getId()).encode());
     }
 
     /**
@@ -136,24 +344,45 @@ public class TransactionService {
      * @param uuid the id
      * @throws TransactionException if the id is null or the id does not exist.
      */
+    @Transactional(rollbackFor = TransactionException.class)
+    @CacheEvict(cacheNames = CacheConfig.TRANSACTIONS_CACHE, key = "#uuid")
     public void deleteById(final UUID uuid) throws TransactionException {
         if (uuid == null) {
             throw new TransactionException("The transaction is null");
         }
 
-        if (!transactionRepository.existsById(uuid)) {
+        balanceRepository.removeFromLedger(uuid);
+        dailyBalanceRepository.removeFromDay(uuid);
+
+        if (transactionRepository.removeById(uuid) == 0) {
             throw new TransactionException("The transaction id does not exist: " + uuid);
         }
 
-        transactionRepository.deleteById(uuid);
+        applicationEventPublisher.publishEvent(TransactionChange.deleted(uuid));
     }
 
     /**
      * Get the current balance.
+     * <p>
+     * It reads the materialized ledger balance, and only falls back to the sum of all the transactions while the
+     * ledger balance has not been initialized yet.
+     *
+     * @return the current balance, in minor units
+     */
+    @Transactional(readOnly = true)
+    public long getCurrentBalance() {
+        return balanceRepository.findLedgerAmount().orElseGet(transactionRepository::sumByAmount);
+    }
+
+    /**
+     * Get the version of the ledger, which changes whenever any transaction is created, updated or deleted.
+     * <p>
+     * It reads the single ledger balance row, without touching the transaction table.
      *
-     * @return the current balance
+     * @return the version of the ledger, or empty while the ledger balance has not been initialized yet
      */
-    public Double getCurrentBalance() {
-        return transactionRepository.sumByAmount();
+    @Transactional(readOnly = true)
+    public Optional<Long> getLedgerVersion() {
+        return balanceRepository.findLedgerVersion();
     }
 }
@@ -0,0 +1,430 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.model.service;
+
+import dev.georgethepenguin.render.poc.config.stream.StreamProperties;
+import dev.georgethepenguin.render.poc.model.dto.TransactionChange;
+import dev.georgethepenguin.render.poc.model.dto.TransactionStreamEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The business service for the stream of transaction changes, sent to the subscribers as server-sent events.
+ * <p>
+ * The changes are collected per database transaction and, once it has committed, numbered and kept in a ring buffer
+ * of the most recent ones, so a client that reconnects with the id of the last event it received gets the ones it
+ * missed. The balance is read once per database transaction, and only while there are subscribers: the changes
+ * committed without any are only counted, so a client resuming across them gets a reset event.
+ * <p>
+ * The publisher never waits for a subscriber: every subscriber has a bounded buffer, drained by a task of the stream
+ * executor only while it has events, and a subscriber that falls further behind than its buffer is disconnected, so
+ * it can resume from the ring buffer instead of holding the memory of the events it cannot keep up with. Its emitter
+ * is completed by its drain task, not by the publisher: a send blocked on a full socket holds the monitor of the
+ * emitter, which its completion also needs.
+ * <p>
+ * A send to a stalled client blocks its thread until the write timeout of the connector,
+ * {@code server.tomcat.connection-timeout}. On platform threads, {@code render.poc.stream.threads} therefore caps the
+ * stalled clients the stream can carry before the others wait for that timeout; with virtual threads, every send has
+ * its own.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@Slf4j
+@Service
+public class TransactionStreamService {
+
+    /**
+     * The name of the event that tells a resumed subscriber that the missed events are not available anymore, so it
+     * must reload the transactions.
+     */
+    public static final String RESET_EVENT = "reset";
+
+    private final TransactionService transactionService;
+
+    private final StreamProperties streamProperties;
+
+    private final Executor executor;
+
+    private final boolean ownsExecutor;
+
+    // The event ids of a previous run, or of another instance, are never resumed
+    private final String streamId = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // A null event is a change committed without subscribers, which cannot be replayed
+    private final StreamEvent[] ring;
+
+    private long sequence;
+
+    /**
+     * Constructor.
+     * <p>
+     * The events are sent on a virtual thread each when the virtual threads are enabled, and otherwise on a pool of
+     * its own, so the subscribers with slow sockets never hold the threads of the shared application task executor,
+     * which also runs the asynchronous requests.
+     *
+     * @param transactionService           the transaction service
+     * @param streamProperties             the stream properties
+     * @param virtualThreadPerTaskExecutor the virtual thread per task executor, if the virtual threads are enabled
+     */
+    @Autowired
+    public TransactionStreamService(TransactionService transactionService, StreamProperties streamProperties,
+                                    @Qualifier("virtualThreadPerTaskExecutor")
+                                    ObjectProvider<ExecutorService> virtualThreadPerTaskExecutor) {
+        this(transactionService, streamProperties, Optional.ofNullable(virtualThreadPerTaskExecutor.getIfAvailable()));
+    }
+
+    private TransactionStreamService(TransactionService transactionService, StreamProperties streamProperties,
+                                     Optional<ExecutorService> virtualThreadPerTaskExecutor) {
+        this(transactionService, streamProperties, virtualThreadPerTaskExecutor.map(Executor.class::cast)
+                        .orElseGet(() -> Executors.newFixedThreadPool(streamProperties.threads(),
+                                new CustomizableThreadFactory("transaction-stream-"))),
+                virtualThreadPerTaskExecutor.isEmpty());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param transactionService the transaction service
+     * @param streamProperties   the stream properties
+     * @param executor           the executor that sends the events to the subscribers
+     * @param ownsExecutor       whether the executor is shut down with the streams
+     */
+    TransactionStreamService(TransactionService transactionService, StreamProperties streamProperties,
+                             Executor executor, boolean ownsExecutor) {
+        this.transactionService = transactionService;
+        this.streamProperties = streamProperties;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.ring = new StreamEvent[streamProperties.replaySize()];
+    }
+
+    /**
+     * Publish a transaction change to the subscribers once its database transaction has committed, together with the
+     * balance after that commit.
+     * <p>
+     * As with a transactional event listener, a change published outside a database transaction is discarded.
+     *
+     * @param change the transaction change
+     */
+    @EventListener
+    public void onTransactionChange(final TransactionChange change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+
+        var commit = (PendingCommit) TransactionSynchronizationManager.getResource(this);
+
+        if (commit == null) {
+            commit = new PendingCommit();
+            TransactionSynchronizationManager.bindResource(this, commit);
+            TransactionSynchronizationManager.registerSynchronization(commit);
+        }
+
+        commit.changes.add(change);
+    }
+
+    /**
+     * Subscribe to the stream of transaction changes.
+     *
+     * @param lastEventId the id of the last event received by the client, to resume the stream after it, or
+     *                    {@code null} to only receive the new events
+     * @return the emitter of the events
+     */
+    public SseEmitter subscribe(final String lastEventId) {
+        final var emitter = new SseEmitter(streamProperties.timeout().toMillis());
+        final var subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+
+        lock.lock();
+
+        try {
+            // The missed events are queued before any new one can be published
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+
+        return emitter;
+    }
+
+    /**
+     * Get the number of subscribers.
+     *
+     * @return the number of subscribers
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Complete the streams, so the clients reconnect to another instance.
+     */
+    @PreDestroy
+    public void completeAll() {
+        subscribers.forEach(Subscriber::close);
+
+        if (ownsExecutor && executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Publish the changes of a committed database transaction.
+     *
+     * @param changes the transaction changes
+     * @param balance the balance after the commit, or {@code null} when it was not read because there were no
+     *                subscribers, so the changes are only counted
+     */
+    void publish(final List<TransactionChange> changes, final Long balance) {
+        lock.lock();
+
+        try {
+            for (final var change : changes) {
+                sequence++;
+                final var slot = (int) (sequence % ring.length);
+
+                if (balance == null) {
+                    ring[slot] = null;
+                    continue;
+                }
+
+                final var event = new StreamEvent(streamId + "-" + sequence,
+                        change.type().name().toLowerCase(Locale.ROOT), new TransactionStreamEvent(change.type(),
+                        change.transactionId(), change.transaction(), balance));
+                ring[slot] = event;
+                subscribers.forEach(subscriber -> subscriber.offer(event));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void replay(final Subscriber subscriber, final String lastEventId) {
+        final var last = parseSequence(lastEventId);
+        // The replay size is not greater than the buffer size, so a replay never disconnects the subscriber
+        final var replayable = last >= 0 && last <= sequence && sequence - last <= ring.length;
+
+        if (!replayable || isGap(last)) {
+            subscriber.offer(new StreamEvent(streamId + "-" + sequence, RESET_EVENT, Map.of()));
+            return;
+        }
+
+        for (var id = last + 1; id <= sequence; id++) {
+            subscriber.offer(ring[(int) (id % ring.length)]);
+        }
+    }
+
+    private boolean isGap(final long last) {
+        for (var id = last + 1; id <= sequence; id++) {
+            if (ring[(int) (id % ring.length)] == null) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private long parseSequence(final String eventId) {
+        final var prefix = streamId + "-";
+
+        if (!eventId.startsWith(prefix)) {
+            return -1;
+        }
+
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private record StreamEvent(String id, String name, Object data) {
+    }
+
+    /**
+     * The changes of a database transaction, published once it has committed.
+     */
+    private final class PendingCommit implements TransactionSynchronization {
+
+        private final List<TransactionChange> changes = new ArrayList<>();
+
+        private Long balance;
+
+        @Override
+        public void beforeCommit(final boolean readOnly) {
+            if (subscribers.isEmpty()) {
+                return;
+            }
+
+            // Read within the database transaction, which holds the ledger row, so it is the balance of this commit
+            try {
+                balance = transactionService.getCurrentBalance();
+            } catch (RuntimeException ex) {
+                // The stream must never roll back the changes, which are then only counted
+                log.warn("The balance of the stream events could not be read", ex);
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            publish(changes, balance);
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TransactionStreamService.this);
+        }
+    }
+
+    /**
+     * A subscriber, with its buffer of events waiting to be sent.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final Queue<StreamEvent> buffer = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        private Subscriber(final SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(final StreamEvent event) {
+            if (closed) {
+                return;
+            }
+
+            if (size.incrementAndGet() > streamProperties.bufferSize()) {
+                log.debug("Disconnecting a subscriber {} events behind", streamProperties.bufferSize());
+                close();
+                return;
+            }
+
+            buffer.offer(event);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException ex) {
+                    // The streams are being completed
+                    draining.set(false);
+                    closed = true;
+                    subscribers.remove(this);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                StreamEvent event;
+
+                while (!closed && (event = buffer.poll()) != null) {
+                    size.decrementAndGet();
+                    emitter.send(SseEmitter.event()
+                            .id(event.id())
+                            .name(event.name())
+                            .data(event.data(), MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // The client has gone away, and the container completes the emitter
+                completed.set(true);
+                closed = true;
+                subscribers.remove(this);
+            } finally {
+                draining.set(false);
+            }
+
+            if (closed) {
+                if (completed.compareAndSet(false, true)) {
+                    emitter.complete();
+                }
+            } else if (!buffer.isEmpty()) {
+                // An event offered after the last poll, but before the flag was cleared, is not left behind
+                scheduleDrain();
+            }
+        }
+
+        /**
+         * Disconnect the subscriber without waiting for it: the emitter is completed by the drain task, once the send
+         * in progress, if any, has returned.
+         */
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+            scheduleDrain();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.model.service;
+
+import dev.georgethepenguin.render.poc.config.update.UpdateProperties;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.model.exception.TransactionConflictException;
+import dev.georgethepenguin.render.poc.model.exception.TransactionException;
+import dev.georgethepenguin.render.poc.model.exception.TransactionPreconditionFailedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+
+/**
+ * The business service for the updates of transactions, with the retry policy of the blind updates.
+ * <p>
+ * An update based on an expected version is never retried, since only the client can decide how to apply its change
+ * on top of the newer version. A blind update has no such decision to make, so when it conflicts with a concurrent
+ * update, or the database aborts it because of one, it is retried on top of the new current version up to the
+ * configured number of times, each retry in its own database transaction.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@Slf4j
+@Service
+public class TransactionUpdateService {
+
+    private final TransactionService transactionService;
+
+    private final UpdateProperties updateProperties;
+
+    /**
+     * Constructor.
+     *
+     * @param transactionService the transaction service
+     * @param updateProperties   the update properties
+     */
+    @Autowired
+    public TransactionUpdateService(TransactionService transactionService,
+                                    UpdateProperties updateProperties) {
+        this.transactionService = transactionService;
+        this.updateProperties = updateProperties;
+    }
+
+    /**
+     * Update a transaction, retrying a blind update that conflicts with a concurrent one.
+     *
+     * @param transaction     the transaction
+     * @param expectedVersion the version the update is based on, or {@code null} for a blind update
+     * @return the updated transaction, with its new version
+     * @throws TransactionException if the transaction is null or the id is null or the description is blank or the id
+     *                              does not exist, or a {@link TransactionPreconditionFailedException} if the
+     *                              transaction does not have the expected version, or a
+     *                              {@link TransactionConflictException} if a blind update has run out of retries.
+     */
+    public Transaction update(final Transaction transaction, final Long expectedVersion) throws TransactionException {
+        for (var attempt = 0; ; attempt++) {
+            try {
+                return transactionService.update(transaction, expectedVersion);
+            } catch (TransactionConflictException | ConcurrencyFailureException ex) {
+                if (expectedVersion != null || attempt >= updateProperties.blindRetries()) {
+                    throw ex;
+                }
+
+                log.debug("Retrying the blind update of the transaction {} after a conflict", transaction.getId());
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void backOff(final int attempt) throws TransactionConflictException {
+        try {
+            Thread.sleep(updateProperties.retryBackoff().multipliedBy(attempt + 1L).toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new TransactionConflictException("Interrupted while retrying a conflicting update");
+        }
+    }
+}
@@ -0,0 +1,45 @@
+--
+-- MIT License
+--
+-- Copyright (c) 2023 Jorge Garcia - George the Penguin
+--
+-- Permission is hereby granted, free of charge, to any person obtaining a copy
+-- of this software and associated documentation files (the "Software"), to deal
+-- in the Software without restriction, including without limitation the rights
+-- to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+-- copies of the Software, and to permit persons to whom the Software is
+-- furnished to do so, subject to the following conditions:
+--
+-- The above copyright notice and this permission notice shall be included in all
+-- copies or substantial portions of the Software.
+--
+-- THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+-- IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+-- FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+-- AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+-- LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+-- OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+-- SOFTWARE.
+--
+--
+
+-- The schema that was created by Hibernate, so the databases that already have it are baselined without changes.
+
+CREATE TABLE IF NOT EXISTS transaction
+(
+    id          UUID             NOT NULL,
+    date_time   TIMESTAMP(6)     NOT NULL,
+    amount      DOUBLE PRECISION NOT NULL,
+    description VARCHAR(255)     NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS balance
+(
+    id     INTEGER          NOT NULL,
+    amount DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- The keyset pagination sorts and seeks by date_time and id, both descending.
+CREATE INDEX IF NOT EXISTS idx_transaction_date_time_id ON transaction (date_time DESC, id DESC);
@@ -0,0 +1,34 @@
+--
+-- MIT License
+--
+-- Copyright (c) 2023 Jorge Garcia - George the Penguin
+--
+-- Permission is hereby granted, free of charge, to any person obtaining a copy
+-- of this software and associated documentation files (the "Software"), to deal
+-- in the Software without restriction, including without limitation the rights
+-- to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+-- copies of the Software, and to permit persons to whom the Software is
+-- furnished to do so, subject to the following conditions:
+--
+-- The above copyright notice and this permission notice shall be included in all
+-- copies or substantial portions of the Software.
+--
+-- THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+-- IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+-- FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+-- AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+-- LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+-- OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+-- SOFTWARE.
+--
+--
+
+-- The amounts are stored as a whole number of hundredths, the minor units, so they are summed exactly.
+UPDATE transaction SET amount = ROUND(amount * 100);
+ALTER TABLE transaction ALTER COLUMN amount SET DATA TYPE BIGINT;
+
+UPDATE balance SET amount = ROUND(amount * 100);
+ALTER TABLE balance ALTER COLUMN amount SET DATA TYPE BIGINT;
+
+UPDATE daily_balance SET total_amount = ROUND(total_amount * 100);
+ALTER TABLE daily_balance ALTER COLUMN total_amount SET DATA TYPE BIGINT;
@@ -0,0 +1,36 @@
+--
+-- MIT License
+--
+-- Copyright (c) 2023 Jorge Garcia - George the Penguin
+--
+-- Permission is hereby granted, free of charge, to any person obtaining a copy
+-- of this software and associated documentation files (the "Software"), to deal
+-- in the Software without restriction, including without limitation the rights
+-- to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+-- copies of the Software, and to permit persons to whom the Software is
+-- furnished to do so, subject to the following conditions:
+--
+-- The above copyright notice and this permission notice shall be included in all
+-- copies or substantial portions of the Software.
+--
+-- THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+-- IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+-- FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+-- AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+-- LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+-- OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+-- SOFTWARE.
+--
+--
+
+-- The transactions created with an idempotency key, so a retried request gets the first result after a restart too.
+CREATE TABLE idempotency_key
+(
+    idempotency_key VARCHAR(255) NOT NULL,
+    transaction_id  UUID         NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (idempotency_key)
+);
+
+-- The expired keys are purged by creation time.
+CREATE INDEX idx_idempotency_key_created_at ON idempotency_key (created_at);
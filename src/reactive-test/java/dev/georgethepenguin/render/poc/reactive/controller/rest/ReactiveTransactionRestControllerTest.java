@@ -0,0 +1,269 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.reactive.controller.rest;
+
+import dev.georgethepenguin.render.poc.model.dto.TransactionPage;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.reactive.ReactiveApplication;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The tests for the reactive transaction REST controller, against an in-memory H2 database through R2DBC.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@SpringBootTest(classes = ReactiveApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.main.web-application-type=reactive",
+                "spring.r2dbc.url=r2dbc:h2:mem:///reactive?options=DB_CLOSE_DELAY=-1",
+                "spring.flyway.url=jdbc:h2:mem:reactive;DB_CLOSE_DELAY=-1"})
+@ActiveProfiles(ReactiveApplication.PROFILE)
+class ReactiveTransactionRestControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * Empties the tables and initializes the ledger balance.
+     */
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("DELETE FROM daily_balance").then()
+                .then(databaseClient.sql("DELETE FROM transaction").then())
+                .then(databaseClient.sql("DELETE FROM balance").then())
+                .then(databaseClient.sql("INSERT INTO balance (id, amount, version) VALUES (1, 0, 0)").then())
+                .block();
+    }
+
+    /**
+     * GIVEN: a created transaction
+     * WHEN: find by id, with and without its ETag
+     * THEN: the transaction, then 304 Not Modified
+     */
+    @Test
+    void givenCreatedTransactionWhenFindByIdThenTransactionOrNotModified() {
+        final var created = create("20.50", "coffee");
+
+        assertNotNull(created.getId());
+        assertNotNull(created.getCreatedAt());
+        assertEquals(2050, created.getAmount());
+
+        webTestClient.get().uri("/api/transaction/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody().jsonPath("$.description").isEqualTo("coffee");
+
+        webTestClient.get().uri("/api/transaction/{id}", created.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    /**
+     * GIVEN: an invalid transaction
+     * WHEN: create
+     * THEN: 400 Bad Request with the error response
+     */
+    @Test
+    void givenBlankDescriptionWhenCreateThenBadRequest() {
+        webTestClient.post().uri("/api/transaction")
+                .bodyValue(Map.of("amount", "20.50", "description", " "))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("The transaction description is blank");
+    }
+
+    /**
+     * GIVEN: a created transaction
+     * WHEN: update with its ETag, then with the same stale ETag, then with a weak ETag, then with a list and with *
+     * THEN: the new version, then 412 Precondition Failed twice, then the next versions
+     */
+    @Test
+    void givenCreatedTransactionWhenUpdateThenNewVersionOrPreconditionFailed() {
+        final var created = create("20.50", "coffee");
+        final var update = Map.of("id", created.getId().toString(), "amount", "12.00", "description", "tea");
+
+        webTestClient.put().uri("/api/transaction")
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(update)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody().jsonPath("$.version").isEqualTo(1);
+
+        webTestClient.put().uri("/api/transaction")
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(update)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        webTestClient.put().uri("/api/transaction")
+                .header(HttpHeaders.IF_MATCH, "W/\"1\"")
+                .bodyValue(update)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        webTestClient.put().uri("/api/transaction")
+                .header(HttpHeaders.IF_MATCH, "\"0\", \"1\"")
+                .bodyValue(update)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"2\"");
+
+        webTestClient.put().uri("/api/transaction")
+                .header(HttpHeaders.IF_MATCH, "*")
+                .bodyValue(update)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"");
+
+        webTestClient.get().uri("/api/transaction/current-balance")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.balance").isEqualTo(12.0);
+    }
+
+    /**
+     * GIVEN: three transactions
+     * WHEN: find all with a page size of two, then with the next cursor
+     * THEN: the newest two, then the oldest one without a next cursor
+     */
+    @Test
+    void givenTransactionsWhenFindAllThenPagesByCursor() {
+        create("1.00", "first");
+        create("2.00", "second");
+        create("3.00", "third");
+
+        final var first = findAll("/api/transaction?size=2");
+        assertEquals(2, first.content().size());
+        assertEquals("third", first.content().get(0).getDescription());
+        assertNotNull(first.next());
+
+        final var second = findAll("/api/transaction?size=2&cursor=" + first.next());
+        assertEquals(1, second.content().size());
+        assertEquals("first", second.content().get(0).getDescription());
+        assertNull(second.next());
+
+        final var filtered = findAll("/api/transaction?q=SEC");
+        assertEquals(1, filtered.content().size());
+        assertEquals("second", filtered.content().get(0).getDescription());
+    }
+
+    /**
+     * GIVEN: a created transaction
+     * WHEN: delete it twice
+     * THEN: the balance is restored, it is not found anymore and the second delete is a bad request
+     */
+    @Test
+    void givenCreatedTransactionWhenDeleteThenRemovedFromBalance() {
+        final var created = create("20.50", "coffee");
+
+        webTestClient.delete().uri("/api/transaction/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get().uri("/api/transaction/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+
+        webTestClient.delete().uri("/api/transaction/{id}", created.getId())
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        webTestClient.get().uri("/api/transaction/current-balance")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.balance").isEqualTo(0.0);
+    }
+
+    /**
+     * GIVEN: the ETag of the current balance
+     * WHEN: get the current balance with it, before and after a transaction is created
+     * THEN: a weak ETag, 304 Not Modified, then the new balance
+     */
+    @Test
+    void givenLedgerETagWhenGetCurrentBalanceThenNotModifiedUntilChanged() {
+        final var eTag = webTestClient.get().uri("/api/transaction/current-balance")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Map.class)
+                .getResponseHeaders()
+                .getETag();
+
+        assertNotNull(eTag);
+        assertTrue(eTag.startsWith("W/"));
+
+        webTestClient.get().uri("/api/transaction/current-balance")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        create("20.50", "coffee");
+
+        webTestClient.get().uri("/api/transaction/current-balance")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.balance").isEqualTo(20.5);
+    }
+
+    private Transaction create(final String amount, final String description) {
+        return Objects.requireNonNull(webTestClient.post().uri("/api/transaction")
+                .bodyValue(Map.of("amount", amount, "description", description))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Transaction.class)
+                .returnResult()
+                .getResponseBody());
+    }
+
+    private TransactionPage findAll(final String uri) {
+        return Objects.requireNonNull(webTestClient.get().uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TransactionPage.class)
+                .returnResult()
+                .getResponseBody());
+    }
+}
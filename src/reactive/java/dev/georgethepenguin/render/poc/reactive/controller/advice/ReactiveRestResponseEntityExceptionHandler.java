@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.reactive.controller.advice;
+
+import dev.georgethepenguin.render.poc.controller.advice.ErrorResponse;
+import dev.georgethepenguin.render.poc.model.exception.TransactionConflictException;
+import dev.georgethepenguin.render.poc.model.exception.TransactionException;
+import dev.georgethepenguin.render.poc.model.exception.TransactionPreconditionFailedException;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.reactive.result.method.annotation.ResponseEntityExceptionHandler;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+
+/**
+ * The reactive REST response entity exception handler, with the same error responses as the servlet one.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@RestControllerAdvice
+public class ReactiveRestResponseEntityExceptionHandler extends ResponseEntityExceptionHandler {
+
+    /**
+     * Handle the exceptions that trigger a bad request response.
+     *
+     * @param ex       the transaction exception
+     * @param exchange the exchange
+     * @return the response entity with the error response
+     */
+    @ExceptionHandler({TransactionException.class, IllegalArgumentException.class})
+    protected Mono<ResponseEntity<Object>> handleBadRequestException(final Exception ex,
+                                                                     final ServerWebExchange exchange) {
+        return handleExceptionInternal(ex,
+                new ErrorResponse(LocalDateTime.now(), BAD_REQUEST.getReasonPhrase(), ex.getMessage()),
+                new HttpHeaders(), BAD_REQUEST, exchange);
+    }
+
+    /**
+     * Handle the exceptions that trigger a conflict response, when a concurrent update has won.
+     *
+     * @param ex       the conflict exception
+     * @param exchange the exchange
+     * @return the response entity with the error response
+     */
+    @ExceptionHandler({TransactionConflictException.class, ConcurrencyFailureException.class})
+    protected Mono<ResponseEntity<Object>> handleConflictException(final Exception ex,
+                                                                   final ServerWebExchange exchange) {
+        return handleExceptionInternal(ex,
+                new ErrorResponse(LocalDateTime.now(), CONFLICT.getReasonPhrase(), ex.getMessage()),
+                new HttpHeaders(), CONFLICT, exchange);
+    }
+
+    /**
+     * Handle the exceptions that trigger a precondition failed response, when the If-Match header does not match.
+     *
+     * @param ex       the precondition failed exception
+     * @param exchange the exchange
+     * @return the response entity with the error response
+     */
+    @ExceptionHandler(TransactionPreconditionFailedException.class)
+    protected Mono<ResponseEntity<Object>> handlePreconditionFailedException(final Exception ex,
+                                                                             final ServerWebExchange exchange) {
+        return handleExceptionInternal(ex,
+                new ErrorResponse(LocalDateTime.now(), PRECONDITION_FAILED.getReasonPhrase(), ex.getMessage()),
+                new HttpHeaders(), PRECONDITION_FAILED, exchange);
+    }
+}
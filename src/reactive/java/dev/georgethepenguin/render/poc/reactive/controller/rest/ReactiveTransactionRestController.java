@@ -0,0 +1,198 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.reactive.controller.rest;
+
+import dev.georgethepenguin.render.poc.controller.rest.ETags;
+import dev.georgethepenguin.render.poc.model.amount.Amounts;
+import dev.georgethepenguin.render.poc.model.dto.TransactionFilter;
+import dev.georgethepenguin.render.poc.model.dto.TransactionPage;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.reactive.model.service.ReactiveTransactionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+
+/**
+ * The reactive transaction REST controller, with the same contract as the core operations of the servlet one.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@RestController
+@RequestMapping("/api/transaction")
+public class ReactiveTransactionRestController {
+
+    private final ReactiveTransactionService transactionService;
+
+    /**
+     * Constructor.
+     *
+     * @param transactionService the reactive transaction service
+     */
+    @Autowired
+    public ReactiveTransactionRestController(ReactiveTransactionService transactionService) {
+        this.transactionService = transactionService;
+    }
+
+    /**
+     * Find a page of the transactions that match the optional filters.
+     *
+     * @param from      the minimum date time, inclusive
+     * @param to        the maximum date time, exclusive
+     * @param minAmount the minimum amount, inclusive
+     * @param maxAmount the maximum amount, inclusive
+     * @param q         the case-insensitive prefix of the description
+     * @param cursor    the cursor of the page
+     * @param size      the page size
+     * @param exchange  the exchange, for its conditional headers
+     * @return the response entity with the page of transactions, or empty if the client's copy is up to date.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<TransactionPage>> findAll(
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(name = "minAmount", required = false) BigDecimal minAmount,
+            @RequestParam(name = "maxAmount", required = false) BigDecimal maxAmount,
+            @RequestParam(name = "q", required = false) String q,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", required = false) Integer size,
+            ServerWebExchange exchange) {
+        final var filter = new TransactionFilter(from, to, toMinorUnits(minAmount), toMinorUnits(maxAmount), q);
+
+        return ifLedgerModified(exchange, ETags::of,
+                transactionService.findAll(filter, cursor, size).map(ResponseEntity::ok));
+    }
+
+    /**
+     * Find a transaction by id.
+     * <p>
+     * The ETag and Last-Modified headers of the response are checked against the conditional headers of the request
+     * when it is written.
+     *
+     * @param id the id
+     * @return the response entity with the transaction.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Transaction>> findById(@PathVariable("id") String id) {
+        return transactionService.findById(UUID.fromString(id))
+                .map(transaction -> ResponseEntity.ok()
+                        .eTag(ETags.of(String.valueOf(transaction.getVersion())))
+                        .lastModified(transaction.getCreatedAt().atZone(ZoneId.systemDefault()))
+                        .body(transaction))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Create a transaction.
+     *
+     * @param transaction the transaction
+     * @return the response entity with the transaction.
+     */
+    @PostMapping
+    public Mono<ResponseEntity<Transaction>> create(@RequestBody Transaction transaction) {
+        return transactionService.create(transaction).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Update a transaction.
+     *
+     * @param transaction the transaction
+     * @param ifMatch     the ETag of the version the update is based on
+     * @return the response entity with the transaction.
+     */
+    @PutMapping
+    public Mono<ResponseEntity<Transaction>> update(
+            @RequestBody Transaction transaction,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return Mono.fromCallable(() -> Optional.ofNullable(ETags.toVersion(ifMatch)))
+                .flatMap(version -> transactionService.update(transaction, version.orElse(null)))
+                .map(updated -> ResponseEntity.ok().eTag(ETags.of(String.valueOf(updated.getVersion()))).body(updated));
+    }
+
+    /**
+     * Delete a transaction.
+     *
+     * @param id the id
+     * @return the empty response entity.
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable("id") String id) {
+        return transactionService.deleteById(UUID.fromString(id)).thenReturn(ResponseEntity.ok().<Void>build());
+    }
+
+    /**
+     * Get the current balance.
+     *
+     * @param exchange the exchange, for its conditional headers
+     * @return the response entity with the current balance, or empty if the client's copy is up to date.
+     */
+    @GetMapping("/current-balance")
+    public Mono<ResponseEntity<Map<String, Object>>> getCurrentBalance(ServerWebExchange exchange) {
+        // The body has the date time it is built at, so it is only the same as the client's copy semantically
+        return ifLedgerModified(exchange, ETags::weak, transactionService.getCurrentBalance()
+                .map(balance -> ResponseEntity.ok(Map.<String, Object>of(
+                        "dateTime", LocalDateTime.now(),
+                        "balance", Amounts.toDecimal(balance)))));
+    }
+
+    /**
+     * Check the conditional headers of a request against the version of the ledger, setting the ETag of the response,
+     * before the response is read.
+     *
+     * @param exchange the exchange
+     * @param eTag     the builder of the strong or weak ETag
+     * @param response the response, only subscribed if the client's copy is not up to date
+     * @param <T>      the type of the body
+     * @return the response, or empty if the client's copy is up to date, in which case the status is already 304
+     */
+    private <T> Mono<ResponseEntity<T>> ifLedgerModified(final ServerWebExchange exchange,
+                                                         final UnaryOperator<String> eTag,
+                                                         final Mono<ResponseEntity<T>> response) {
+        return transactionService.getLedgerVersion()
+                .map(version -> exchange.checkNotModified(eTag.apply("v" + version)))
+                .defaultIfEmpty(false)
+                .filter(notModified -> !notModified)
+                .flatMap(modified -> response);
+    }
+
+    private static Long toMinorUnits(final BigDecimal amount) {
+        return amount == null ? null : Amounts.toMinorUnits(amount);
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.reactive.model.repository;
+
+import dev.georgethepenguin.render.poc.model.entity.Balance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * The reactive repository for the ledger and daily balances, over R2DBC.
+ * <p>
+ * It issues the same statements as the JPA repositories, so the balances stay consistent whichever variant writes the
+ * transactions.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@Repository
+public class ReactiveBalanceRepository {
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Constructor.
+     *
+     * @param databaseClient the database client
+     */
+    @Autowired
+    public ReactiveBalanceRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Finds the amount of the ledger balance.
+     *
+     * @return the amount of the ledger balance, or empty if the balance has not been initialized yet.
+     */
+    public Mono<Long> findLedgerAmount() {
+        return databaseClient.sql("SELECT amount FROM balance WHERE id = " + Balance.LEDGER_ID)
+                .map(row -> row.get("amount", Long.class))
+                .one();
+    }
+
+    /**
+     * Finds the version of the ledger balance.
+     *
+     * @return the version of the ledger balance, or empty if the balance has not been initialized yet.
+     */
+    public Mono<Long> findLedgerVersion() {
+        return databaseClient.sql("SELECT version FROM balance WHERE id = " + Balance.LEDGER_ID)
+                .map(row -> row.get("version", Long.class))
+                .one();
+    }
+
+    /**
+     * Adds a delta to the amount of the ledger balance, and increments its version.
+     *
+     * @param delta the delta
+     * @return the number of updated rows.
+     */
+    public Mono<Long> addToLedger(final long delta) {
+        return databaseClient.sql("UPDATE balance SET amount = amount + :delta, version = version + 1 "
+                        + "WHERE id = " + Balance.LEDGER_ID)
+                .bind("delta", delta)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Replaces the amount of a transaction in the ledger balance, reading its current amount in the same statement, and
+     * increments its version.
+     * <p>
+     * It must be executed before the transaction is updated. The balance does not change if the transaction does not
+     * exist.
+     *
+     * @param id     the id of the transaction
+     * @param amount the new amount of the transaction
+     * @return the number of updated rows.
+     */
+    public Mono<Long> replaceInLedger(final UUID id, final long amount) {
+        return databaseClient.sql("UPDATE balance SET amount = amount + :amount "
+                        + "- COALESCE((SELECT t.amount FROM transaction t WHERE t.id = :id), :amount), "
+                        + "version = version + 1 WHERE id = " + Balance.LEDGER_ID)
+                .bind("amount", amount)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Removes the amount of a transaction from the ledger balance, reading it in the same statement, and increments its
+     * version.
+     * <p>
+     * It must be executed before the transaction is deleted. The balance does not change if the transaction does not
+     * exist.
+     *
+     * @param id the id of the transaction
+     * @return the number of updated rows.
+     */
+    public Mono<Long> removeFromLedger(final UUID id) {
+        return databaseClient.sql("UPDATE balance SET amount = amount "
+                        + "- COALESCE((SELECT t.amount FROM transaction t WHERE t.id = :id), 0), "
+                        + "version = version + 1 WHERE id = " + Balance.LEDGER_ID)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Adds transactions to the balance of a day, creating the day if it does not exist yet.
+     *
+     * @param day    the day
+     * @param amount the sum of the amount of the transactions
+     * @param count  the number of transactions
+     * @return the number of updated or inserted rows.
+     */
+    public Mono<Long> addToDay(final LocalDate day, final long amount, final long count) {
+        return databaseClient.sql("UPDATE daily_balance SET total_amount = total_amount + :amount, "
+                        + "transaction_count = transaction_count + :count WHERE balance_date = :day")
+                .bind("amount", amount)
+                .bind("count", count)
+                .bind("day", day)
+                .fetch()
+                .rowsUpdated()
+                .flatMap(updated -> updated > 0 ? Mono.just(updated) : databaseClient
+                        .sql("INSERT INTO daily_balance (balance_date, total_amount, transaction_count) "
+                                + "VALUES (:day, :amount, :count)")
+                        .bind("day", day)
+                        .bind("amount", amount)
+                        .bind("count", count)
+                        .fetch()
+                        .rowsUpdated());
+    }
+
+    /**
+     * Removes a transaction from the day it was created on, reading it in the same statement.
+     * <p>
+     * It must be executed before the transaction is updated or deleted. Nothing changes if the transaction does not
+     * exist.
+     *
+     * @param id the id of the transaction
+     * @return the number of updated rows.
+     */
+    public Mono<Long> removeFromDay(final UUID id) {
+        return databaseClient.sql("UPDATE daily_balance SET "
+                        + "total_amount = total_amount - (SELECT t.amount FROM transaction t WHERE t.id = :id), "
+                        + "transaction_count = transaction_count - 1 "
+                        + "WHERE balance_date = (SELECT CAST(t.date_time AS DATE) FROM transaction t WHERE t.id = :id)")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+}
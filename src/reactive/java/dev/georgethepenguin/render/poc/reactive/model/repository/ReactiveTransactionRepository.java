@@ -0,0 +1,233 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.reactive.model.repository;
+
+import dev.georgethepenguin.render.poc.model.dto.TransactionCursor;
+import dev.georgethepenguin.render.poc.model.dto.TransactionFilter;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.model.repository.TransactionSearchRepositoryImpl;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * The reactive repository for the Transaction entity, over R2DBC.
+ * <p>
+ * It issues the same statements as the JPA repository, so both variants can serve the same database.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@Repository
+public class ReactiveTransactionRepository {
+
+    private static final String COLUMNS = "id, date_time, amount, description, version";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Constructor.
+     *
+     * @param databaseClient the database client
+     */
+    @Autowired
+    public ReactiveTransactionRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Finds a transaction by id.
+     *
+     * @param id the id
+     * @return the transaction, or empty if it does not exist.
+     */
+    public Mono<Transaction> findById(final UUID id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM transaction WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveTransactionRepository::toTransaction)
+                .one();
+    }
+
+    /**
+     * Finds the transactions that match a filter, after a cursor, ordered by date time and id descending.
+     *
+     * @param filter the filter
+     * @param after  the cursor of the last transaction of the previous page, or {@code null} for the first page
+     * @param limit  the max number of transactions
+     * @return the transactions.
+     */
+    public Flux<Transaction> search(final TransactionFilter filter, final TransactionCursor after, final int limit) {
+        final var where = new StringBuilder();
+        final var parameters = new LinkedHashMap<String, Object>();
+
+        if (filter.from() != null) {
+            and(where, "date_time >= :from");
+            parameters.put("from", filter.from());
+        }
+
+        if (filter.to() != null) {
+            and(where, "date_time < :to");
+            parameters.put("to", filter.to());
+        }
+
+        if (filter.minAmount() != null) {
+            and(where, "amount >= :minAmount");
+            parameters.put("minAmount", filter.minAmount());
+        }
+
+        if (filter.maxAmount() != null) {
+            and(where, "amount <= :maxAmount");
+            parameters.put("maxAmount", filter.maxAmount());
+        }
+
+        if (filter.q() != null) {
+            and(where, "LOWER(description) LIKE :q ESCAPE '" + TransactionSearchRepositoryImpl.ESCAPE + "'");
+            parameters.put("q", TransactionSearchRepositoryImpl.escapeLike(filter.q().toLowerCase(Locale.ROOT)) + "%");
+        }
+
+        if (after != null) {
+            and(where, "date_time <= :createdAt AND (date_time < :createdAt OR id < :id)");
+            parameters.put("createdAt", after.createdAt());
+            parameters.put("id", after.id());
+        }
+
+        var spec = databaseClient.sql("SELECT " + COLUMNS + " FROM transaction" + where
+                + " ORDER BY date_time DESC, id DESC LIMIT :limit");
+
+        for (final var parameter : parameters.entrySet()) {
+            spec = spec.bind(parameter.getKey(), parameter.getValue());
+        }
+
+        return spec.bind("limit", limit)
+                .map(ReactiveTransactionRepository::toTransaction)
+                .all();
+    }
+
+    /**
+     * Finds the version of a transaction.
+     *
+     * @param id the id of the transaction
+     * @return the version, or empty if the transaction does not exist.
+     */
+    public Mono<Long> findVersionById(final UUID id) {
+        return databaseClient.sql("SELECT version FROM transaction WHERE id = :id")
+                .bind("id", id)
+                .map(row -> row.get("version", Long.class))
+                .one();
+    }
+
+    /**
+     * Whether a transaction exists.
+     *
+     * @param id the id of the transaction
+     * @return whether it exists.
+     */
+    public Mono<Boolean> existsById(final UUID id) {
+        return findVersionById(id).hasElement();
+    }
+
+    /**
+     * Inserts a transaction with an assigned id.
+     *
+     * @param transaction the transaction
+     * @return the number of inserted rows.
+     */
+    public Mono<Long> insert(final Transaction transaction) {
+        return databaseClient.sql("INSERT INTO transaction (" + COLUMNS + ") "
+                        + "VALUES (:id, :createdAt, :amount, :description, :version)")
+                .bind("id", transaction.getId())
+                .bind("createdAt", transaction.getCreatedAt())
+                .bind("amount", transaction.getAmount())
+                .bind("description", transaction.getDescription())
+                .bind("version", transaction.getVersion())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Updates a transaction, if it has the expected version, and increments its version.
+     *
+     * @param id          the id
+     * @param version     the expected version
+     * @param createdAt   the date time
+     * @param amount      the amount
+     * @param description the description
+     * @return the number of updated rows, zero if the transaction does not exist or has another version.
+     */
+    public Mono<Long> updateByIdAndVersion(final UUID id, final long version, final LocalDateTime createdAt,
+                                           final long amount, final String description) {
+        return databaseClient.sql("UPDATE transaction SET date_time = :createdAt, amount = :amount, "
+                        + "description = :description, version = version + 1 WHERE id = :id AND version = :version")
+                .bind("createdAt", createdAt)
+                .bind("amount", amount)
+                .bind("description", description)
+                .bind("id", id)
+                .bind("version", version)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Removes a transaction by id.
+     *
+     * @param id the id
+     * @return the number of deleted rows.
+     */
+    public Mono<Long> removeById(final UUID id) {
+        return databaseClient.sql("DELETE FROM transaction WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Sums the amount of all the transactions.
+     *
+     * @return the sum, in minor units.
+     */
+    public Mono<Long> sumByAmount() {
+        return databaseClient.sql("SELECT CAST(COALESCE(SUM(amount), 0) AS BIGINT) AS total FROM transaction")
+                .map(row -> row.get("total", Long.class))
+                .one();
+    }
+
+    private static void and(final StringBuilder where, final String condition) {
+        where.append(where.isEmpty() ? " WHERE " : " AND ").append(condition);
+    }
+
+    private static Transaction toTransaction(final Readable row) {
+        return new Transaction(row.get("id", UUID.class), row.get("date_time", LocalDateTime.class),
+                row.get("amount", Long.class), row.get("description", String.class), row.get("version", Long.class));
+    }
+}
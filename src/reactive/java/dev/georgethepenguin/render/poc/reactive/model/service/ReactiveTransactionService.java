@@ -0,0 +1,244 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.reactive.model.service;
+
+import dev.georgethepenguin.render.poc.config.pagination.PaginationProperties;
+import dev.georgethepenguin.render.poc.model.dto.TransactionCursor;
+import dev.georgethepenguin.render.poc.model.dto.TransactionFilter;
+import dev.georgethepenguin.render.poc.model.dto.TransactionPage;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.model.exception.TransactionConflictException;
+import dev.georgethepenguin.render.poc.model.exception.TransactionException;
+import dev.georgethepenguin.render.poc.model.exception.TransactionPreconditionFailedException;
+import dev.georgethepenguin.render.poc.model.service.TransactionService;
+import dev.georgethepenguin.render.poc.reactive.model.repository.ReactiveBalanceRepository;
+import dev.georgethepenguin.render.poc.reactive.model.repository.ReactiveTransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The reactive business service for the Transaction entity.
+ * <p>
+ * It applies the same validations and keeps the same balances as {@link TransactionService}, with every statement of
+ * an operation in a single reactive database transaction, without blocking any thread while it waits for the database.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@Service
+public class ReactiveTransactionService {
+
+    private final ReactiveTransactionRepository transactionRepository;
+
+    private final ReactiveBalanceRepository balanceRepository;
+
+    private final PaginationProperties paginationProperties;
+
+    /**
+     * Constructor.
+     *
+     * @param transactionRepository the reactive transaction repository
+     * @param balanceRepository     the reactive balance repository
+     * @param paginationProperties  the pagination properties
+     */
+    @Autowired
+    public ReactiveTransactionService(ReactiveTransactionRepository transactionRepository,
+                                      ReactiveBalanceRepository balanceRepository,
+                                      PaginationProperties paginationProperties) {
+        this.transactionRepository = transactionRepository;
+        this.balanceRepository = balanceRepository;
+        this.paginationProperties = paginationProperties;
+    }
+
+    /**
+     * Create a transaction.
+     *
+     * @param transaction the transaction
+     * @return the created transaction, or a {@link TransactionException} if the transaction is null or the id is not
+     * null or the description is blank.
+     */
+    @Transactional(rollbackFor = TransactionException.class)
+    public Mono<Transaction> create(final Transaction transaction) {
+        return Mono.fromCallable(() -> {
+            TransactionService.validateNew(transaction);
+            transaction.setId(UUID.randomUUID());
+            transaction.setCreatedAt(LocalDateTime.now());
+            return transaction;
+        }).flatMap(created -> transactionRepository.insert(created)
+                .then(balanceRepository.addToLedger(created.getAmount()))
+                .then(balanceRepository.addToDay(created.getCreatedAt().toLocalDate(), created.getAmount(), 1))
+                .thenReturn(created));
+    }
+
+    /**
+     * Update a transaction, if it has not been updated since the expected version.
+     *
+     * @param transaction     the transaction
+     * @param expectedVersion the version the update is based on, or {@code null} for a blind update
+     * @return the updated transaction, with its new version, or a {@link TransactionException} if the transaction is
+     * null or the id is null or the description is blank or the id does not exist, or a
+     * {@link TransactionPreconditionFailedException} if the transaction does not have the expected version, or a
+     * {@link TransactionConflictException} if a blind update conflicts.
+     */
+    @Transactional(rollbackFor = TransactionException.class)
+    public Mono<Transaction> update(final Transaction transaction, final Long expectedVersion) {
+        return Mono.fromCallable(() -> {
+            TransactionService.validateExisting(transaction);
+            return transaction.getId();
+        }).flatMap(id -> expectedVersion != null ? Mono.just(expectedVersion)
+                : transactionRepository.findVersionById(id).switchIfEmpty(Mono.error(() -> notFound(id))))
+                .flatMap(version -> updateVersion(transaction, version, expectedVersion != null));
+    }
+
+    /**
+     * Find a transaction by id.
+     *
+     * @param uuid the id
+     * @return the transaction, or empty if it does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Mono<Transaction> findById(final UUID uuid) {
+        return transactionRepository.findById(uuid);
+    }
+
+    /**
+     * Find a page of the transactions that match a filter, ordered by date time descending.
+     *
+     * @param filter the filter, which must be the same for every page
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param size   the requested page size, or {@code null} for the default one. It is capped to the max page size.
+     * @return the page of transactions, or an {@link IllegalArgumentException} if the cursor is not valid or the size
+     * is not positive.
+     */
+    @Transactional(readOnly = true)
+    public Mono<TransactionPage> findAll(final TransactionFilter filter, final String cursor, final Integer size) {
+        return Mono.defer(() -> {
+            final var pageSize = size == null ? paginationProperties.defaultSize()
+                    : Math.min(size, paginationProperties.maxSize());
+
+            if (pageSize < 1) {
+                throw new IllegalArgumentException("The page size must be greater than zero: " + size);
+            }
+
+            final var after = cursor == null || cursor.isEmpty() ? null : TransactionCursor.decode(cursor);
+
+            // One extra row tells whether there is a next page without issuing a count query.
+            return transactionRepository.search(filter == null ? TransactionFilter.NONE : filter, after, pageSize + 1)
+                    .collectList()
+                    .map(transactions -> {
+                        if (transactions.size() <= pageSize) {
+                            return new TransactionPage(transactions, null);
+                        }
+
+                        final var content = transactions.subList(0, pageSize);
+                        final var last = content.get(pageSize - 1);
+                        return new TransactionPage(content,
+                                new TransactionCursor(last.getCreatedAt(), last.getId()).encode());
+                    });
+        });
+    }
+
+    /**
+     * Delete a transaction by id.
+     *
+     * @param uuid the id
+     * @return the completion, or a {@link TransactionException} if the id is null or the id does not exist.
+     */
+    @Transactional(rollbackFor = TransactionException.class)
+    public Mono<Void> deleteById(final UUID uuid) {
+        if (uuid == null) {
+            return Mono.error(new TransactionException("The transaction is null"));
+        }
+
+        return balanceRepository.removeFromLedger(uuid)
+                .then(balanceRepository.removeFromDay(uuid))
+                .then(transactionRepository.removeById(uuid))
+                .filter(rows -> rows > 0)
+                .switchIfEmpty(Mono.error(() -> notFound(uuid)))
+                .then();
+    }
+
+    /**
+     * Get the current balance.
+     * <p>
+     * It reads the materialized ledger balance, and only falls back to the sum of all the transactions while the
+     * ledger balance has not been initialized yet.
+     *
+     * @return the current balance, in minor units
+     */
+    @Transactional(readOnly = true)
+    public Mono<Long> getCurrentBalance() {
+        return balanceRepository.findLedgerAmount().switchIfEmpty(transactionRepository.sumByAmount());
+    }
+
+    /**
+     * Get the version of the ledger, which changes whenever any transaction is created, updated or deleted.
+     *
+     * @return the version of the ledger, or empty while the ledger balance has not been initialized yet
+     */
+    @Transactional(readOnly = true)
+    public Mono<Long> getLedgerVersion() {
+        return balanceRepository.findLedgerVersion();
+    }
+
+    private Mono<Transaction> updateVersion(final Transaction transaction, final long version,
+                                            final boolean expected) {
+        final var id = transaction.getId();
+
+        // The balances read the previous amount of the row, so they must be updated before the row itself. They are
+        // rolled back if the version does not match.
+        transaction.setCreatedAt(LocalDateTime.now());
+
+        return balanceRepository.replaceInLedger(id, transaction.getAmount())
+                .then(balanceRepository.removeFromDay(id))
+                .then(balanceRepository.addToDay(transaction.getCreatedAt().toLocalDate(), transaction.getAmount(), 1))
+                .then(transactionRepository.updateByIdAndVersion(id, version, transaction.getCreatedAt(),
+                        transaction.getAmount(), transaction.getDescription()))
+                .filter(rows -> rows > 0)
+                .switchIfEmpty(transactionRepository.existsById(id).flatMap(exists -> Mono.<Long>error(exists
+                        ? conflict(id, version, expected) : notFound(id))))
+                .map(rows -> {
+                    transaction.setVersion(version + 1);
+                    return transaction;
+                });
+    }
+
+    private static TransactionConflictException conflict(final UUID uuid, final long version, final boolean expected) {
+        final var message = "The transaction has been updated since the expected version: " + uuid + " (" + version
+                + ")";
+        return expected
+                ? new TransactionPreconditionFailedException(message) : new TransactionConflictException(message);
+    }
+
+    private static TransactionException notFound(final UUID uuid) {
+        return new TransactionException("The transaction id does not exist: " + uuid);
+    }
+}
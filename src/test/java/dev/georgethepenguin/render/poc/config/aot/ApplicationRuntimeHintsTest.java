@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.config.aot;
+
+import dev.georgethepenguin.render.poc.controller.advice.ErrorResponse;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The unit tests for the runtime hints of the application.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+class ApplicationRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    {
+        new ApplicationRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    /**
+     * GIVEN: the runtime hints
+     * WHEN: the transaction and the error response are checked
+     * THEN: their accessors and fields are available through reflection
+     */
+    @Test
+    void givenHintsWhenBodiesThenReflection() throws NoSuchMethodException {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Transaction.class.getMethod("getAmount")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ErrorResponse.class.getMethod("message")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Transaction.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Executors.class).test(hints));
+    }
+
+    /**
+     * GIVEN: the runtime hints
+     * WHEN: the migrations of every location are checked
+     * THEN: they are available as resources
+     */
+    @Test
+    void givenHintsWhenMigrationsThenResources() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource(
+                "db/migration/common/V1__create_transaction_and_balance.sql").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource(
+                "db/migration/postgresql/V3__create_transaction_description_prefix_index.sql").test(hints));
+    }
+}
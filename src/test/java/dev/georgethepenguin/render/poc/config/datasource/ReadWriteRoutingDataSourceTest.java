@@ -0,0 +1,206 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.config.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The unit tests for the read write routing data source, with two in-memory databases as the primary and the replica.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private static final Instant NOW = Instant.parse("2023-05-01T10:00:00Z");
+
+    private static final String DATABASE = "SELECT DATABASE()";
+
+    private final ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource(database("primary"),
+            database("replica"), new ReplicaLagGuard(Duration.ofSeconds(5), Clock.fixed(NOW, ZoneOffset.UTC)));
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    private final TransactionTemplate readWrite = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+    private final TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+    {
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    /**
+     * GIVEN: no request
+     * WHEN: a read only transaction
+     * THEN: the replica is used
+     */
+    @Test
+    void givenReadOnlyTransactionWhenQueryThenReplica() {
+        assertEquals("REPLICA", readOnly.execute(status -> database()));
+    }
+
+    /**
+     * GIVEN: no request
+     * WHEN: a read write transaction
+     * THEN: the primary is used and nothing is recorded
+     */
+    @Test
+    void givenReadWriteTransactionWhenQueryThenPrimary() {
+        assertEquals("PRIMARY", readWrite.execute(status -> database()));
+        assertEquals("REPLICA", readOnly.execute(status -> database()));
+    }
+
+    /**
+     * GIVEN: a request that writes
+     * WHEN: a read only transaction in the same request
+     * THEN: the primary is used and the cookie is set once
+     */
+    @Test
+    void givenWriteInRequestWhenReadOnlyTransactionThenPrimary() {
+        final var response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), response));
+
+        readWrite.execute(status -> database());
+        readWrite.execute(status -> database());
+
+        assertEquals("PRIMARY", readOnly.execute(status -> database()));
+        assertEquals(1, response.getHeaders(HttpHeaders.SET_COOKIE).size());
+        final var cookie = response.getCookie(ReplicaLagGuard.COOKIE);
+        assertNotNull(cookie);
+        assertEquals(String.valueOf(NOW.plusSeconds(5).toEpochMilli()), cookie.getValue());
+        assertEquals(5, cookie.getMaxAge());
+        assertTrue(cookie.isHttpOnly());
+    }
+
+    /**
+     * GIVEN: a request that has read from the replica
+     * WHEN: a read write transaction in the same request
+     * THEN: the primary is used, because every transaction acquires its own connection
+     */
+    @Test
+    void givenReadInRequestWhenReadWriteTransactionThenPrimary() {
+        final var response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), response));
+
+        assertEquals("REPLICA", readOnly.execute(status -> database()));
+        assertEquals("PRIMARY", readWrite.execute(status -> database()));
+        assertEquals("PRIMARY", readOnly.execute(status -> database()));
+        assertNotNull(response.getCookie(ReplicaLagGuard.COOKIE));
+    }
+
+    /**
+     * GIVEN: the open entity manager in view, enabled by default, or disabled
+     * WHEN: the routing data source is built
+     * THEN: IllegalStateException while it is enabled, because it would keep the replica connection for the writes
+     */
+    @Test
+    void givenOpenInViewWhenRoutingDataSourceThenIllegalStateException() {
+        final var config = new ReplicaRoutingConfig();
+        final var dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl("jdbc:h2:mem:primary");
+        final var replicaProperties = new ReplicaProperties("jdbc:h2:mem:replica", "sa", "", Duration.ofSeconds(5));
+        final var meterRegistry = new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class);
+
+        assertThrows(IllegalStateException.class, () -> config.dataSource(dataSourceProperties, replicaProperties,
+                new MockEnvironment(), meterRegistry));
+        assertThrows(IllegalStateException.class, () -> config.dataSource(dataSourceProperties, replicaProperties,
+                new MockEnvironment().withProperty("spring.jpa.open-in-view", "true"), meterRegistry));
+        assertInstanceOf(ReadWriteRoutingDataSource.class, config.dataSource(dataSourceProperties, replicaProperties,
+                new MockEnvironment().withProperty("spring.jpa.open-in-view", "false"), meterRegistry));
+    }
+
+    /**
+     * GIVEN: a request with the cookie of a recent write
+     * WHEN: a read only transaction
+     * THEN: the primary is used
+     */
+    @Test
+    void givenRecentWriteCookieWhenReadOnlyTransactionThenPrimary() {
+        final var response = new MockHttpServletResponse();
+        bind(NOW.plusSeconds(1), response);
+
+        assertEquals("PRIMARY", readOnly.execute(status -> database()));
+        assertNull(response.getCookie(ReplicaLagGuard.COOKIE));
+    }
+
+    /**
+     * GIVEN: a request with the cookie of an old write
+     * WHEN: a read only transaction
+     * THEN: the replica is used
+     */
+    @Test
+    void givenExpiredWriteCookieWhenReadOnlyTransactionThenReplica() {
+        bind(NOW.minusSeconds(1), new MockHttpServletResponse());
+
+        assertEquals("REPLICA", readOnly.execute(status -> database()));
+    }
+
+    private String database() {
+        return jdbcTemplate.queryForObject(DATABASE, String.class);
+    }
+
+    private static void bind(final Instant primaryUntil, final MockHttpServletResponse response) {
+        final var request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(ReplicaLagGuard.COOKIE, String.valueOf(primaryUntil.toEpochMilli())));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+    }
+
+    private static DriverManagerDataSource database(final String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
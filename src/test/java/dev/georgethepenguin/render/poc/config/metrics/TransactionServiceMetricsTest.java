@@ -0,0 +1,164 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.config.metrics;
+
+import dev.georgethepenguin.render.poc.config.pagination.PaginationProperties;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.model.exception.TransactionException;
+import dev.georgethepenguin.render.poc.model.repository.BalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.DailyBalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.IdempotencyKeyRepository;
+import dev.georgethepenguin.render.poc.model.repository.TransactionRepository;
+import dev.georgethepenguin.render.poc.model.service.TransactionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * The unit tests for the transaction service metrics.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceMetricsTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private BalanceRepository balanceRepository;
+
+    @Mock
+    private DailyBalanceRepository dailyBalanceRepository;
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TransactionService transactionService;
+
+    /**
+     * Builds the transaction service advised by the metrics aspect.
+     */
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        final var proxyFactory = new AspectJProxyFactory(new TransactionService(transactionRepository,
+                balanceRepository, dailyBalanceRepository, idempotencyKeyRepository, new PaginationProperties(2, 3),
+                applicationEventPublisher));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new TransactionServiceMetrics(meterRegistry));
+        transactionService = proxyFactory.getProxy();
+    }
+
+    /**
+     * GIVEN: a valid transaction
+     * WHEN: create
+     * THEN: the invocation is timed as a success and no error is counted
+     */
+    @Test
+    void givenValidTransactionWhenCreateThenSuccessTimed() throws TransactionException {
+        doAnswer(invocation -> invocation.getArgument(0)).when(transactionRepository).save(any());
+
+        transactionService.create(new Transaction(null, LocalDateTime.now(), 2050, "description"));
+
+        final var timer = meterRegistry.get(TransactionServiceMetrics.TIMER)
+                .tag("method", "create")
+                .tag("outcome", "success")
+                .timer();
+        assertEquals(1, timer.count());
+        assertTrue(meterRegistry.find(TransactionServiceMetrics.ERRORS).counters().isEmpty());
+    }
+
+    /**
+     * GIVEN: a null transaction
+     * WHEN: create
+     * THEN: the invocation is timed as an error and counted by its category
+     */
+    @Test
+    void givenNullTransactionWhenCreateThenErrorCounted() {
+        assertThrows(TransactionException.class, () -> transactionService.create(null));
+
+        final var timer = meterRegistry.get(TransactionServiceMetrics.TIMER)
+                .tag("method", "create")
+                .tag("outcome", "error")
+                .tag("exception", "TransactionException")
+                .timer();
+        assertEquals(1, timer.count());
+
+        final var counter = meterRegistry.get(TransactionServiceMetrics.ERRORS)
+                .tag("method", "create")
+                .tag("category", "The transaction is null")
+                .counter();
+        assertEquals(1, counter.count());
+    }
+
+    /**
+     * GIVEN: two ids that do not exist
+     * WHEN: deleteById
+     * THEN: both errors are counted in the same category, without the ids
+     */
+    @Test
+    void givenUnknownIdsWhenDeleteByIdThenErrorsCountedInOneCategory() {
+        assertThrows(TransactionException.class, () -> transactionService.deleteById(UUID.randomUUID()));
+        assertThrows(TransactionException.class, () -> transactionService.deleteById(UUID.randomUUID()));
+
+        final var counters = meterRegistry.find(TransactionServiceMetrics.ERRORS).counters();
+        assertEquals(1, counters.size());
+        assertEquals("The transaction id does not exist", counters.iterator().next().getId().getTag("category"));
+        assertEquals(2, counters.iterator().next().count());
+    }
+
+    /**
+     * GIVEN: an exception that is not a transaction exception
+     * WHEN: category
+     * THEN: the category is the exception class name
+     */
+    @Test
+    void givenOtherExceptionWhenCategoryThenClassName() {
+        assertEquals("IllegalArgumentException",
+                TransactionServiceMetrics.category(new IllegalArgumentException("The size must be positive: 0")));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.config.openapi;
+
+import dev.georgethepenguin.render.poc.controller.rest.TransactionIngestionRestController;
+import dev.georgethepenguin.render.poc.controller.rest.TransactionRestController;
+import dev.georgethepenguin.render.poc.controller.rest.TransactionStreamRestController;
+import dev.georgethepenguin.render.poc.model.service.DailyBalanceService;
+import dev.georgethepenguin.render.poc.model.service.IdempotencyService;
+import dev.georgethepenguin.render.poc.model.service.TransactionBatchService;
+import dev.georgethepenguin.render.poc.model.service.TransactionExportService;
+import dev.georgethepenguin.render.poc.model.service.TransactionIngestionService;
+import dev.georgethepenguin.render.poc.model.service.TransactionService;
+import dev.georgethepenguin.render.poc.model.service.TransactionStreamService;
+import dev.georgethepenguin.render.poc.model.service.TransactionUpdateService;
+import org.junit.jupiter.api.Test;
+import org.springdoc.core.configuration.SpringDocConfiguration;
+import org.springdoc.core.properties.SpringDocConfigProperties;
+import org.springdoc.webmvc.core.configuration.SpringDocWebMvcConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests the OpenAPI document that springdoc builds for every REST controller.
+ * <p>
+ * The document served at {@code /openapi.json} is generated from the running application during the build, so this
+ * test only checks that every controller, including the optional ones, is described.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@WebMvcTest(controllers = {TransactionRestController.class, TransactionStreamRestController.class,
+        TransactionIngestionRestController.class})
+@ImportAutoConfiguration({SpringDocConfiguration.class, SpringDocConfigProperties.class,
+        SpringDocWebMvcConfiguration.class})
+@Import(OpenAPIConfig.class)
+@TestPropertySource(properties = "render.poc.ingestion.enabled=true")
+class OpenAPIDocumentTest {
+
+    @MockBean
+    private TransactionService transactionService;
+
+    @MockBean
+    private TransactionBatchService transactionBatchService;
+
+    @MockBean
+    private DailyBalanceService dailyBalanceService;
+
+    @MockBean
+    private TransactionExportService transactionExportService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @MockBean
+    private TransactionUpdateService transactionUpdateService;
+
+    @MockBean
+    private TransactionStreamService transactionStreamService;
+
+    @MockBean
+    private TransactionIngestionService transactionIngestionService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    /**
+     * GIVEN: every REST controller
+     * WHEN: the OpenAPI document is requested
+     * THEN: it describes the whole transaction API
+     */
+    @Test
+    void givenControllersWhenApiDocsThenEveryControllerDescribed() throws Exception {
+        mockMvc.perform(get("/v3/api-docs"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.info.title").value("Render POC"))
+                .andExpect(jsonPath("$.paths['/api/transaction'].get").exists())
+                .andExpect(jsonPath("$.paths['/api/transaction/stream'].get").exists())
+                .andExpect(jsonPath("$.paths['/api/transaction/ingest'].post").exists())
+                .andExpect(jsonPath("$.components.schemas.ErrorResponse").exists());
+    }
+}
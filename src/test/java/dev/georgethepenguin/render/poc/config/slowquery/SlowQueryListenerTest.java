@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.config.slowquery;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The unit tests for the slow query listener.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@ExtendWith(OutputCaptureExtension.class)
+class SlowQueryListenerTest {
+
+    private static final String SQL = "select t.id from transaction t where t.description = ?";
+
+    private final SlowQueryListener slowQueryListener = new SlowQueryListener(Duration.ofMillis(100));
+
+    /**
+     * GIVEN: a statement slower than the threshold
+     * WHEN: afterQuery
+     * THEN: the statement is logged as JSON without the values of the parameters
+     */
+    @Test
+    void givenSlowStatementWhenAfterQueryThenLogged(CapturedOutput output) {
+        slowQueryListener.afterQuery(executionInfo(150), List.of(queryInfo()));
+
+        assertTrue(output.getOut().contains("{\"event\":\"slow-query\",\"durationMs\":150,\"thresholdMs\":100,"
+                + "\"success\":true,\"batchSize\":0,\"bindParameters\":1,\"sql\":[\"" + SQL + "\"]}"));
+        assertFalse(output.getOut().contains("secret description"));
+    }
+
+    /**
+     * GIVEN: a statement faster than the threshold
+     * WHEN: afterQuery
+     * THEN: nothing is logged
+     */
+    @Test
+    void givenFastStatementWhenAfterQueryThenNotLogged(CapturedOutput output) {
+        slowQueryListener.afterQuery(executionInfo(99), List.of(queryInfo()));
+
+        assertFalse(output.getOut().contains("slow-query"));
+    }
+
+    private static ExecutionInfo executionInfo(long elapsedTime) {
+        final var executionInfo = new ExecutionInfo();
+        executionInfo.setElapsedTime(elapsedTime);
+        executionInfo.setSuccess(true);
+        return executionInfo;
+    }
+
+    private static QueryInfo queryInfo() {
+        final var queryInfo = new QueryInfo(SQL);
+        queryInfo.getParametersList().add(List.of(new ParameterSetOperation(null,
+                new Object[]{1, "secret description"})));
+        return queryInfo;
+    }
+}
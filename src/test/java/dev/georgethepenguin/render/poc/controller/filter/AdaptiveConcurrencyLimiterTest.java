@@ -0,0 +1,147 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.controller.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The unit tests for the adaptive concurrency limiter.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 2, 5,
+            TimeUnit.MILLISECONDS.toNanos(250), 0.5, TimeUnit.SECONDS.toNanos(1), nanos::get);
+
+    /**
+     * GIVEN: the limit in flight
+     * WHEN: tryAcquire
+     * THEN: the request is rejected until one is released
+     */
+    @Test
+    void givenLimitInFlightWhenTryAcquireThenRejected() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        assertFalse(limiter.tryAcquire());
+        assertEquals(4, limiter.getInFlight());
+
+        limiter.release(FAST);
+
+        assertTrue(limiter.tryAcquire());
+    }
+
+    /**
+     * GIVEN: fast requests using the limit
+     * WHEN: they are released
+     * THEN: the limit grows by one per request up to the max
+     */
+    @Test
+    void givenFastRequestsWhenReleaseThenLimitGrows() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire());
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST);
+            limiter.release(FAST);
+        }
+
+        assertEquals(5, limiter.getLimit());
+    }
+
+    /**
+     * GIVEN: a single fast request, below half of the limit
+     * WHEN: it is released
+     * THEN: the limit does not grow
+     */
+    @Test
+    void givenUnusedLimitWhenReleaseThenLimitKept() {
+        assertTrue(limiter.tryAcquire());
+        limiter.release(FAST);
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    /**
+     * GIVEN: slow requests
+     * WHEN: they are released
+     * THEN: the limit shrinks by the backoff ratio down to the min
+     */
+    @Test
+    void givenSlowRequestsWhenReleaseThenLimitShrinks() {
+        assertTrue(limiter.tryAcquire());
+        limiter.release(SLOW);
+
+        assertEquals(2, limiter.getLimit());
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertTrue(limiter.tryAcquire());
+        limiter.release(SLOW);
+
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    /**
+     * GIVEN: several slow requests in flight
+     * WHEN: they are released within the backoff interval
+     * THEN: the limit shrinks once, and again only after the interval
+     */
+    @Test
+    void givenSlowRequestsWithinIntervalWhenReleaseThenLimitShrinksOnce() {
+        final var wide = new AdaptiveConcurrencyLimiter(8, 1, 8, TimeUnit.MILLISECONDS.toNanos(250), 0.5,
+                TimeUnit.SECONDS.toNanos(1), nanos::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(wide.tryAcquire());
+        }
+
+        wide.release(SLOW);
+        wide.release(SLOW);
+
+        assertEquals(4, wide.getLimit());
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        wide.release(SLOW);
+
+        assertEquals(2, wide.getLimit());
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.controller.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import dev.georgethepenguin.render.poc.config.ratelimit.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The unit tests for the load shedding filter.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+class LoadSheddingFilterTest {
+
+    private static final String API_KEY = "X-API-Key";
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final LoadSheddingFilter filter = new LoadSheddingFilter(new RateLimitProperties(API_KEY, Set.of("a", "b"), 100,
+            Duration.ofMinutes(10), new RateLimitProperties.Limit(1, 2),
+            List.of(new RateLimitProperties.Endpoint("GET", "/api/transaction", 1, 1)),
+            new RateLimitProperties.Concurrency(true, 1, 1, 1, Duration.ofMillis(250), 0.9, Duration.ofSeconds(1),
+                    List.of("/api/transaction/stream"))),
+            new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry, nanos::get);
+
+    /**
+     * GIVEN: a client that has used its burst of an endpoint
+     * WHEN: it sends another request
+     * THEN: it is rejected with 429, a Retry-After header and an error response, and counted
+     */
+    @Test
+    void givenBurstUsedWhenRequestThenTooManyRequests() throws Exception {
+        assertEquals(200, perform("GET", "/api/transaction/1", "a").getStatus());
+        assertEquals(200, perform("GET", "/api/transaction/1", "a").getStatus());
+
+        final var response = perform("GET", "/api/transaction/1", "a");
+
+        assertEquals(429, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(response.getContentAsString().contains("\"httpStatus\":\"Too Many Requests\""));
+        assertEquals(1, meterRegistry.counter(LoadSheddingFilter.REJECTED_METRIC, "reason", "rate_limit",
+                "endpoint", LoadSheddingFilter.DEFAULT_ENDPOINT).count());
+    }
+
+    /**
+     * GIVEN: a client that has used its burst
+     * WHEN: another client, or the same one once the bucket refills, sends a request
+     * THEN: it is accepted
+     */
+    @Test
+    void givenBurstUsedWhenOtherClientOrRefilledThenAccepted() throws Exception {
+        perform("GET", "/api/transaction/1", "a");
+        perform("GET", "/api/transaction/1", "a");
+
+        assertEquals(200, perform("GET", "/api/transaction/1", "b").getStatus());
+        assertEquals(200, perform("GET", "/api/transaction/1", null).getStatus());
+
+        nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+
+        assertEquals(200, perform("GET", "/api/transaction/1", "a").getStatus());
+    }
+
+    /**
+     * GIVEN: requests with unknown API keys
+     * WHEN: they exceed the burst of their IP address
+     * THEN: they are rejected, as the unknown keys do not get buckets of their own
+     */
+    @Test
+    void givenUnknownApiKeysWhenBurstUsedThenTooManyRequests() throws Exception {
+        assertEquals(200, perform("GET", "/api/transaction/1", "x").getStatus());
+        assertEquals(200, perform("GET", "/api/transaction/1", "y").getStatus());
+        assertEquals(429, perform("GET", "/api/transaction/1", "z").getStatus());
+        assertEquals(429, perform("GET", "/api/transaction/1", null).getStatus());
+        assertEquals(200, perform("GET", "/api/transaction/1", "a").getStatus());
+    }
+
+    /**
+     * GIVEN: an endpoint with its own rate limit
+     * WHEN: a client exceeds it
+     * THEN: it is rejected on that endpoint only
+     */
+    @Test
+    void givenEndpointLimitWhenExceededThenOnlyThatEndpointRejected() throws Exception {
+        assertEquals(200, perform("GET", "/api/transaction", "a").getStatus());
+        assertEquals(429, perform("GET", "/api/transaction", "a").getStatus());
+        assertEquals(200, perform("POST", "/api/transaction", "a").getStatus());
+        assertEquals(1, meterRegistry.counter(LoadSheddingFilter.REJECTED_METRIC, "reason", "rate_limit",
+                "endpoint", "GET /api/transaction").count());
+    }
+
+    /**
+     * GIVEN: the concurrency limit in flight
+     * WHEN: another request arrives
+     * THEN: it is rejected with 503, and counted
+     */
+    @Test
+    void givenConcurrencyLimitInFlightWhenRequestThenServiceUnavailable() throws Exception {
+        final var nested = new MockHttpServletResponse[1];
+        final FilterChain chain = (request, response) -> nested[0] = perform("GET", "/api/transaction/2", "b");
+
+        filter.doFilter(request("GET", "/api/transaction/1", "a"), new MockHttpServletResponse(), chain);
+
+        assertEquals(503, nested[0].getStatus());
+        assertEquals("1", nested[0].getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, meterRegistry.counter(LoadSheddingFilter.REJECTED_METRIC, "reason", "concurrency_limit",
+                "endpoint", LoadSheddingFilter.DEFAULT_ENDPOINT).count());
+        assertEquals(200, perform("GET", "/api/transaction/2", "b").getStatus());
+    }
+
+    /**
+     * GIVEN: an asynchronous request in flight
+     * WHEN: it completes
+     * THEN: it holds the concurrency limit until then
+     */
+    @Test
+    void givenAsyncRequestWhenCompletedThenReleased() throws Exception {
+        final var request = request("GET", "/api/transaction/1", "a");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertEquals(1, meterRegistry.get(LoadSheddingFilter.IN_FLIGHT_METRIC).gauge().value());
+        assertEquals(503, perform("GET", "/api/transaction/2", "b").getStatus());
+
+        request.getAsyncContext().complete();
+
+        assertEquals(0, meterRegistry.get(LoadSheddingFilter.IN_FLIGHT_METRIC).gauge().value());
+    }
+
+    /**
+     * GIVEN: the concurrency limit in flight
+     * WHEN: a request to an excluded path arrives
+     * THEN: it is accepted
+     */
+    @Test
+    void givenConcurrencyLimitInFlightWhenExcludedPathThenAccepted() throws Exception {
+        final var nested = new MockHttpServletResponse[1];
+        final FilterChain chain = (request, response) -> nested[0] = perform("GET", "/api/transaction/stream", "b");
+
+        filter.doFilter(request("GET", "/api/transaction/1", "a"), new MockHttpServletResponse(), chain);
+
+        assertEquals(200, nested[0].getStatus());
+    }
+
+    private MockHttpServletResponse perform(final String method, final String uri, final String apiKey) {
+        final var response = new MockHttpServletResponse();
+
+        try {
+            filter.doFilter(request(method, uri, apiKey), response, new MockFilterChain());
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        return response;
+    }
+
+    private static MockHttpServletRequest request(final String method, final String uri, final String apiKey) {
+        final var request = new MockHttpServletRequest(method, uri);
+
+        if (apiKey != null) {
+            request.addHeader(API_KEY, apiKey);
+        }
+
+        return request;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.controller.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The unit tests for the token bucket.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+class TokenBucketTest {
+
+    private final AtomicLong nanos = new AtomicLong(-TimeUnit.HOURS.toNanos(1));
+
+    private final TokenBucket tokenBucket = new TokenBucket(10, 3, nanos::get);
+
+    /**
+     * GIVEN: a full bucket
+     * WHEN: tryAcquire more than the burst at once
+     * THEN: the burst is taken, and then the wait until the next permit is returned
+     */
+    @Test
+    void givenFullBucketWhenBurstExceededThenWait() {
+        assertEquals(0, tokenBucket.tryAcquire());
+        assertEquals(0, tokenBucket.tryAcquire());
+        assertEquals(0, tokenBucket.tryAcquire());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), tokenBucket.tryAcquire());
+    }
+
+    /**
+     * GIVEN: an empty bucket
+     * WHEN: tryAcquire after the time of a permit
+     * THEN: only that permit is taken
+     */
+    @Test
+    void givenEmptyBucketWhenRefilledThenOnePermit() {
+        for (int i = 0; i < 3; i++) {
+            tokenBucket.tryAcquire();
+        }
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertEquals(0, tokenBucket.tryAcquire());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), tokenBucket.tryAcquire());
+    }
+
+    /**
+     * GIVEN: a bucket idle for longer than it takes to fill it
+     * WHEN: tryAcquire
+     * THEN: no more than the burst is taken
+     */
+    @Test
+    void givenIdleBucketWhenTryAcquireThenBurstOnly() {
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(1));
+
+        assertEquals(0, tokenBucket.tryAcquire());
+        assertEquals(0, tokenBucket.tryAcquire());
+        assertEquals(0, tokenBucket.tryAcquire());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), tokenBucket.tryAcquire());
+    }
+
+    /**
+     * GIVEN: a rate that is not positive
+     * WHEN: the bucket is built
+     * THEN: an IllegalArgumentException is thrown
+     */
+    @Test
+    void givenZeroRateWhenNewThenException() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1, nanos::get));
+    }
+}
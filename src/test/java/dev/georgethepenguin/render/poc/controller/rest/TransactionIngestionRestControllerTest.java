@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.controller.rest;
+
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.model.exception.TransactionException;
+import dev.georgethepenguin.render.poc.model.service.TransactionIngestionService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.http.HttpStatus.ACCEPTED;
+import static org.springframework.http.HttpStatus.CREATED;
+
+/**
+ * The unit tests for the transaction ingestion REST controller.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionIngestionRestControllerTest {
+
+    @Mock
+    private TransactionIngestionService transactionIngestionService;
+
+    @InjectMocks
+    private TransactionIngestionRestController transactionIngestionRestController;
+
+    private final CompletableFuture<Transaction> persisted = new CompletableFuture<>();
+
+    /**
+     * GIVEN: a queued transaction
+     * WHEN: ingest
+     * THEN: accepted status with the assigned id, before it is persisted
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    void givenQueuedTransactionWhenIngestThenAccepted() throws Exception {
+        final var transaction = queue();
+
+        final var result = transactionIngestionRestController.ingest(transaction, false).get();
+
+        assertEquals(ACCEPTED, result.getStatusCode());
+        assertEquals("/api/transaction/" + transaction.getId(), String.valueOf(result.getHeaders().getLocation()));
+        assertNotNull(result.getBody());
+        assertEquals(transaction.getId(), result.getBody().id());
+        assertFalse(result.getBody().durable());
+    }
+
+    /**
+     * GIVEN: a queued transaction
+     * WHEN: ingest durable
+     * THEN: created status once it has been persisted
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    void givenQueuedTransactionWhenIngestDurableThenCreatedOncePersisted() throws Exception {
+        final var transaction = queue();
+
+        final var future = transactionIngestionRestController.ingest(transaction, true);
+
+        assertFalse(future.isDone());
+        persisted.complete(transaction);
+
+        final var result = future.get();
+        assertEquals(CREATED, result.getStatusCode());
+        assertNotNull(result.getBody());
+        assertEquals(transaction.getId(), result.getBody().id());
+        assertTrue(result.getBody().durable());
+    }
+
+    private Transaction queue() throws TransactionException {
+        final var transaction = new Transaction(null, null, 2050, "description");
+
+        doAnswer(invocation -> {
+            transaction.setId(UUID.randomUUID());
+            transaction.setCreatedAt(LocalDateTime.now());
+            return persisted;
+        }).when(transactionIngestionService).submit(transaction);
+
+        return transaction;
+    }
+}
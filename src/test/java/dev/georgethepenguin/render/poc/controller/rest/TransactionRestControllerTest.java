@@ -25,20 +25,45 @@
 
 package dev.georgethepenguin.render.poc.controller.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.georgethepenguin.render.poc.model.dto.AggregationPeriod;
+import dev.georgethepenguin.render.poc.model.dto.BalanceAggregate;
+import dev.georgethepenguin.render.poc.model.dto.ExportFormat;
+import dev.georgethepenguin.render.poc.model.dto.TransactionBatchItemResult;
+import dev.georgethepenguin.render.poc.model.dto.TransactionBatchItemResult.Status;
+import dev.georgethepenguin.render.poc.model.dto.TransactionFilter;
+import dev.georgethepenguin.render.poc.model.dto.TransactionPage;
 import dev.georgethepenguin.render.poc.model.entity.Transaction;
 import dev.georgethepenguin.render.poc.model.exception.TransactionException;
+import dev.georgethepenguin.render.poc.model.exception.TransactionPreconditionFailedException;
+import dev.georgethepenguin.render.poc.model.service.DailyBalanceService;
+import dev.georgethepenguin.render.poc.model.service.IdempotencyService;
+import dev.georgethepenguin.render.poc.model.service.TransactionBatchService;
+import dev.georgethepenguin.render.poc.model.service.TransactionExportService;
 import dev.georgethepenguin.render.poc.model.service.TransactionService;
+import dev.georgethepenguin.render.poc.model.service.TransactionUpdateService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.OK;
@@ -56,6 +81,24 @@ class TransactionRestControllerTest {
     @Mock
     private TransactionService transactionService;
 
+    @Mock
+    private TransactionBatchService transactionBatchService;
+
+    @Mock
+    private DailyBalanceService dailyBalanceService;
+
+    @Mock
+    private TransactionExportService transactionExportService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private TransactionUpdateService transactionUpdateService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @InjectMocks
     private TransactionRestController transactionRestController;
 
@@ -67,20 +110,26 @@ class TransactionRestControllerTest {
     @Test
     void givenMethodCallWhenFindAllThenSuccessful() {
         final var transactions = new ArrayList<>(List.of(
-                new Transaction(UUID.randomUUID(), LocalDateTime.now(), 20.50, "description 1"),
-                new Transaction(UUID.randomUUID(), LocalDateTime.now(), 30.50, "description 2")
+                new Transaction(UUID.randomUUID(), LocalDateTime.now(), 2050, "description 1"),
+                new Transaction(UUID.randomUUID(), LocalDateTime.now(), 3050, "description 2")
         ));
 
         transactions.sort(Comparator.comparing(Transaction::getCreatedAt).reversed());
 
-        doReturn(transactions).when(transactionService).findAll();
+        doReturn(new TransactionPage(transactions, "next")).when(transactionService)
+                .findAll(TransactionFilter.NONE, null, null);
 
-        final var result = transactionRestController.findAll();
+        final var result = transactionRestController.findAll(null, null, null, null, null, null, null,
+                request(null));
 
         assertEquals(OK, result.getStatusCode());
-        assertIterableEquals(transactions, result.getBody());
 
-        verify(transactionService).findAll();
+        final var body = result.getBody();
+        assertNotNull(body);
+        assertIterableEquals(transactions, body.content());
+        assertEquals("next", body.next());
+
+        verify(transactionService).findAll(TransactionFilter.NONE, null, null);
     }
 
     /**
@@ -92,7 +141,7 @@ class TransactionRestControllerTest {
     void givenNoExistingIdWhenFindByIdThenNotFoundStatus() {
         doReturn(Optional.empty()).when(transactionService).findById(any(UUID.class));
 
-        final var result = transactionRestController.findById(UUID.randomUUID().toString());
+        final var result = transactionRestController.findById(UUID.randomUUID().toString(), request(null));
 
         assertEquals(NOT_FOUND, result.getStatusCode());
 
@@ -107,11 +156,11 @@ class TransactionRestControllerTest {
     @Test
     void givenExistingIdWhenFindByIdThenSuccessful() {
         doAnswer(invocation -> Optional.of(new Transaction(invocation.getArgument(0, UUID.class), LocalDateTime.now(),
-                20.50, "description")))
+                2050, "description")))
                 .when(transactionService).findById(any(UUID.class));
 
         final var uuid = UUID.randomUUID();
-        final var result = transactionRestController.findById(uuid.toString());
+        final var result = transactionRestController.findById(uuid.toString(), request(null));
 
         assertEquals(OK, result.getStatusCode());
 
@@ -119,12 +168,83 @@ class TransactionRestControllerTest {
         assertNotNull(body);
         assertEquals(uuid, body.getId());
         assertNotNull(body.getCreatedAt());
-        assertEquals(20.50, body.getAmount());
+        assertEquals(2050, body.getAmount());
         assertEquals("description", body.getDescription());
 
         verify(transactionService).findById(any(UUID.class));
     }
 
+    /**
+     * GIVEN: the ledger version in If-None-Match
+     * WHEN: findAll
+     * THEN: not modified status, without reading the transactions
+     */
+    @Test
+    void givenCurrentLedgerVersionWhenFindAllThenNotModified() {
+        doReturn(Optional.of(7L)).when(transactionService).getLedgerVersion();
+        final var request = request("\"v7\"");
+
+        assertNull(transactionRestController.findAll(null, null, null, null, null, null, null, request));
+
+        assertEquals(304, ((MockHttpServletResponse) request.getResponse()).getStatus());
+        verify(transactionService, never()).findAll(any(), any(), any());
+    }
+
+    /**
+     * GIVEN: a previous ledger version in If-None-Match
+     * WHEN: getCurrentBalance
+     * THEN: successful, with the current ledger version as weak ETag, because the body has the date time
+     */
+    @Test
+    void givenPreviousLedgerVersionWhenGetCurrentBalanceThenETag() {
+        doReturn(Optional.of(7L)).when(transactionService).getLedgerVersion();
+        doReturn(2050L).when(transactionService).getCurrentBalance();
+        final var request = request("\"v6\"");
+
+        final var result = transactionRestController.getCurrentBalance(request);
+
+        assertNotNull(result);
+        assertEquals(OK, result.getStatusCode());
+        assertEquals("W/\"v7\"", ((MockHttpServletResponse) request.getResponse()).getHeader(HttpHeaders.ETAG));
+    }
+
+    /**
+     * GIVEN: the weak ETag of the current balance in If-None-Match
+     * WHEN: getCurrentBalance
+     * THEN: not modified status, without reading the balance
+     */
+    @Test
+    void givenCurrentLedgerWeakETagWhenGetCurrentBalanceThenNotModified() {
+        doReturn(Optional.of(7L)).when(transactionService).getLedgerVersion();
+        final var request = request("W/\"v7\"");
+
+        assertNull(transactionRestController.getCurrentBalance(request));
+
+        assertEquals(304, ((MockHttpServletResponse) request.getResponse()).getStatus());
+        verify(transactionService, never()).getCurrentBalance();
+    }
+
+    /**
+     * GIVEN: the ETag of a transaction in If-None-Match
+     * WHEN: findById
+     * THEN: not modified status, and the ETag and Last-Modified headers on the first response
+     */
+    @Test
+    void givenTransactionETagWhenFindByIdThenNotModified() {
+        final var transaction = new Transaction(UUID.randomUUID(), LocalDateTime.now(), 2050, "description");
+        doReturn(Optional.of(transaction)).when(transactionService).findById(transaction.getId());
+
+        final var first = request(null);
+        assertNotNull(transactionRestController.findById(transaction.getId().toString(), first));
+
+        final var firstResponse = (MockHttpServletResponse) first.getResponse();
+        assertNotNull(firstResponse.getHeader(HttpHeaders.LAST_MODIFIED));
+
+        final var second = request(firstResponse.getHeader(HttpHeaders.ETAG));
+        assertNull(transactionRestController.findById(transaction.getId().toString(), second));
+        assertEquals(304, ((MockHttpServletResponse) second.getResponse()).getStatus());
+    }
+
     /**
      * GIVEN: new transaction
      * WHEN: create
@@ -142,10 +262,10 @@ class TransactionRestControllerTest {
         }).when(transactionService).create(any(Transaction.class));
 
         final var transaction = new Transaction();
-        transaction.setAmount(20.50);
+        transaction.setAmount(2050);
         transaction.setDescription("description");
 
-        final var result = transactionRestController.create(transaction);
+        final var result = transactionRestController.create(transaction, null);
 
         assertEquals(OK, result.getStatusCode());
 
@@ -160,6 +280,89 @@ class TransactionRestControllerTest {
         verify(transactionService).create(any(Transaction.class));
     }
 
+    /**
+     * GIVEN: a new transaction with an idempotency key
+     * WHEN: create
+     * THEN: the idempotency service creates it
+     *
+     * @throws TransactionException if an error occurs
+     */
+    @Test
+    void givenIdempotencyKeyWhenCreateThenIdempotentCreate() throws TransactionException {
+        final var transaction = new Transaction(null, null, 2050, "description");
+        final var created = new Transaction(UUID.randomUUID(), LocalDateTime.now(), 2050, "description");
+        doReturn(created).when(idempotencyService).create("key", transaction);
+
+        final var result = transactionRestController.create(transaction, "key");
+
+        assertEquals(OK, result.getStatusCode());
+        assertSame(created, result.getBody());
+        verify(transactionService, never()).create(any(Transaction.class));
+    }
+
+    /**
+     * GIVEN: a JSON array of transactions
+     * WHEN: createAll
+     * THEN: successful
+     */
+    @Test
+    void givenJsonArrayWhenCreateAllThenSuccessful() {
+        final var transaction = new Transaction(null, null, 2050, "description");
+        final var results = List.of(TransactionBatchItemResult.created(0, transaction));
+
+        doReturn(results).when(transactionBatchService).createAll(any());
+
+        final var result = transactionRestController.createAll(List.of(transaction));
+
+        assertEquals(OK, result.getStatusCode());
+        assertEquals(results, result.getBody());
+
+        verify(transactionBatchService).createAll(any());
+    }
+
+    /**
+     * GIVEN: a newline delimited JSON stream
+     * WHEN: createAll
+     * THEN: every line is read, and the malformed ones are signaled by the iterator
+     *
+     * @throws IOException if an error occurs
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenNdjsonStreamWhenCreateAllThenEveryLineRead() throws IOException {
+        final var captured = new ArrayList<Object>();
+        doAnswer(invocation -> {
+            final var iterator = (Iterator<Transaction>) invocation.getArgument(0, Iterator.class);
+
+            while (iterator.hasNext()) {
+                try {
+                    captured.add(iterator.next());
+                } catch (IllegalArgumentException ex) {
+                    captured.add(ex.getMessage());
+                }
+            }
+
+            return List.of(TransactionBatchItemResult.rejected(0, "done"));
+        }).when(transactionBatchService).createAll(any());
+
+        final var body = """
+                {"amount": 20.50, "description": "description 1"}
+
+                not json
+                {"amount": 30.50, "description": "description 2"}
+                """;
+
+        final var result = transactionRestController.createAll(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(OK, result.getStatusCode());
+        assertEquals(3, captured.size());
+        assertEquals("description 1", ((Transaction) captured.get(0)).getDescription());
+        assertTrue(((String) captured.get(1)).startsWith("The line 3 is not a valid transaction"));
+        assertEquals(3050, ((Transaction) captured.get(2)).getAmount());
+        assertEquals(Status.REJECTED, Objects.requireNonNull(result.getBody()).get(0).status());
+    }
+
     /**
      * GIVEN: existing transaction
      * WHEN: update
@@ -172,17 +375,19 @@ class TransactionRestControllerTest {
         doAnswer(invocation -> {
             final var transaction = invocation.getArgument(0, Transaction.class);
             transaction.setCreatedAt(LocalDateTime.now());
+            transaction.setVersion(1);
             return transaction;
-        }).when(transactionService).update(any(Transaction.class));
+        }).when(transactionUpdateService).update(any(Transaction.class), isNull());
 
         final var transaction = new Transaction();
         transaction.setId(UUID.randomUUID());
-        transaction.setAmount(20.50);
+        transaction.setAmount(2050);
         transaction.setDescription("description");
 
-        final var result = transactionRestController.update(transaction);
+        final var result = transactionRestController.update(transaction, null);
 
         assertEquals(OK, result.getStatusCode());
+        assertEquals("\"1\"", result.getHeaders().getETag());
 
         final var body = result.getBody();
         assertNotNull(body);
@@ -192,7 +397,77 @@ class TransactionRestControllerTest {
         assertEquals(transaction.getAmount(), body.getAmount());
         assertEquals(transaction.getDescription(), body.getDescription());
 
-        verify(transactionService).update(any(Transaction.class));
+        verify(transactionUpdateService).update(any(Transaction.class), isNull());
+    }
+
+    /**
+     * GIVEN: the ETag of a version in If-Match
+     * WHEN: update
+     * THEN: the update is based on that version, and a header that is not a list of ETags is rejected
+     *
+     * @throws TransactionException if an error occurs
+     */
+    @Test
+    void givenIfMatchWhenUpdateThenExpectedVersion() throws TransactionException {
+        final var transaction = new Transaction(UUID.randomUUID(), null, 2050, "description", 4);
+        doReturn(transaction).when(transactionUpdateService).update(transaction, 3L);
+
+        assertEquals("\"4\"", transactionRestController.update(transaction, "\"3\"").getHeaders().getETag());
+
+        assertThrows(IllegalArgumentException.class, () -> transactionRestController.update(transaction, "3"));
+        assertThrows(IllegalArgumentException.class, () -> transactionRestController.update(transaction, "\"3"));
+        verify(transactionUpdateService).update(transaction, 3L);
+    }
+
+    /**
+     * GIVEN: only weak ETags, or strong ETags that are not versions, in If-Match
+     * WHEN: update
+     * THEN: TransactionPreconditionFailedException, since no strong ETag can match, without updating
+     */
+    @Test
+    void givenWeakIfMatchWhenUpdateThenTransactionPreconditionFailedException() {
+        final var transaction = new Transaction(UUID.randomUUID(), null, 2050, "description", 4);
+
+        assertThrows(TransactionPreconditionFailedException.class,
+                () -> transactionRestController.update(transaction, "W/\"3\""));
+        assertThrows(TransactionPreconditionFailedException.class,
+                () -> transactionRestController.update(transaction, "W/\"3\", \"v3\""));
+        verifyNoInteractions(transactionUpdateService);
+    }
+
+    /**
+     * GIVEN: a list of ETags in If-Match
+     * WHEN: update
+     * THEN: the update is based on the newest strong version of the list, since only that one can still match
+     *
+     * @throws TransactionException if an error occurs
+     */
+    @Test
+    void givenIfMatchListWhenUpdateThenNewestStrongVersion() throws TransactionException {
+        final var transaction = new Transaction(UUID.randomUUID(), null, 2050, "description", 5);
+        doReturn(transaction).when(transactionUpdateService).update(transaction, 4L);
+
+        assertEquals("\"5\"", transactionRestController.update(transaction, "\"3\", \"4\"").getHeaders().getETag());
+        transactionRestController.update(transaction, "W/\"7\",\"4\" , \"2\"");
+
+        verify(transactionUpdateService, times(2)).update(transaction, 4L);
+    }
+
+    /**
+     * GIVEN: * in If-Match
+     * WHEN: update
+     * THEN: the update is applied on top of the current version, as long as the transaction exists
+     *
+     * @throws TransactionException if an error occurs
+     */
+    @Test
+    void givenAnyIfMatchWhenUpdateThenCurrentVersion() throws TransactionException {
+        final var transaction = new Transaction(UUID.randomUUID(), null, 2050, "description", 4);
+        doReturn(transaction).when(transactionUpdateService).update(transaction, null);
+
+        assertEquals("\"4\"", transactionRestController.update(transaction, "*").getHeaders().getETag());
+
+        verify(transactionUpdateService).update(transaction, null);
     }
 
     /**
@@ -221,17 +496,82 @@ class TransactionRestControllerTest {
      */
     @Test
     void givenMethodCallWhenGetCurrentBalanceThenSuccessful() {
-        doReturn(20.50).when(transactionService).getCurrentBalance();
+        doReturn(2050L).when(transactionService).getCurrentBalance();
 
-        final var result = transactionRestController.getCurrentBalance();
+        final var result = transactionRestController.getCurrentBalance(request(null));
 
         assertEquals(OK, result.getStatusCode());
 
         final var body = result.getBody();
         assertNotNull(body);
 
-        assertEquals(20.50, body.get("balance"));
+        assertEquals(new BigDecimal("20.50"), body.get("balance"));
 
         verify(transactionService).getCurrentBalance();
     }
-}
\ No newline at end of file
+
+    /**
+     * GIVEN: a point in time
+     * WHEN: getBalanceAt
+     * THEN: successful
+     */
+    @Test
+    void givenDateTimeWhenGetBalanceAtThenSuccessful() {
+        final var at = LocalDateTime.of(2023, 5, 10, 12, 0);
+        doReturn(2050L).when(dailyBalanceService).getBalanceAt(at);
+
+        final var result = transactionRestController.getBalanceAt(at);
+
+        assertEquals(OK, result.getStatusCode());
+
+        final var body = result.getBody();
+        assertNotNull(body);
+        assertEquals(at, body.get("dateTime"));
+        assertEquals(new BigDecimal("20.50"), body.get("balance"));
+    }
+
+    /**
+     * GIVEN: a period and a range of days
+     * WHEN: aggregate
+     * THEN: successful
+     */
+    @Test
+    void givenPeriodAndRangeWhenAggregateThenSuccessful() {
+        final var from = LocalDate.of(2023, 5, 1);
+        final var to = LocalDate.of(2023, 5, 31);
+        final var aggregates = List.of(new BalanceAggregate(from, 2050, 2));
+        doReturn(aggregates).when(dailyBalanceService).aggregate(AggregationPeriod.MONTH, from, to);
+
+        final var result = transactionRestController.aggregate(AggregationPeriod.MONTH, from, to);
+
+        assertEquals(OK, result.getStatusCode());
+        assertEquals(aggregates, result.getBody());
+    }
+
+    /**
+     * GIVEN: the csv format
+     * WHEN: export
+     * THEN: the transactions are streamed to the response as an attachment
+     */
+    @Test
+    void givenCsvFormatWhenExportThenStreamedAttachment() throws IOException {
+        final var response = new MockHttpServletResponse();
+
+        transactionRestController.export("CSV", response);
+
+        assertEquals("text/csv;charset=UTF-8", response.getContentType());
+        assertEquals("attachment; filename=\"transactions.csv\"", response.getHeader("Content-Disposition"));
+        verify(transactionExportService).export(ExportFormat.CSV, response.getOutputStream());
+        assertThrows(IllegalArgumentException.class, () -> transactionRestController.export("xml", response));
+    }
+
+    private static ServletWebRequest request(final String ifNoneMatch) {
+        final var request = new MockHttpServletRequest("GET", "/api/transaction");
+
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
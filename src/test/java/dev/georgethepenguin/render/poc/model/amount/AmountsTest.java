@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.model.amount;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The unit tests for the amount conversions and their JSON form.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+class AmountsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    /**
+     * GIVEN: minor units
+     * WHEN: format
+     * THEN: a plain decimal number with two decimals, keeping the sign below one unit
+     */
+    @Test
+    void givenMinorUnitsWhenFormatThenPlainDecimal() {
+        assertEquals("20.50", Amounts.format(2050));
+        assertEquals("0.05", Amounts.format(5));
+        assertEquals("-0.05", Amounts.format(-5));
+        assertEquals("-12.30", Amounts.format(-1230));
+        assertEquals("92233720368547758.07", Amounts.format(Long.MAX_VALUE));
+        assertEquals("-92233720368547758.08", Amounts.format(Long.MIN_VALUE));
+    }
+
+    /**
+     * GIVEN: decimal amounts
+     * WHEN: parse
+     * THEN: the exact minor units, or an error when a decimal would be lost
+     */
+    @Test
+    void givenDecimalWhenParseThenExactMinorUnits() {
+        assertEquals(2050, Amounts.parse("20.5"));
+        assertEquals(10, Amounts.parse(" 0.100 "));
+        assertEquals(-700, Amounts.parse("-7"));
+        assertEquals(new BigDecimal("20.50"), Amounts.toDecimal(2050));
+        assertThrows(IllegalArgumentException.class, () -> Amounts.parse("0.001"));
+        assertThrows(IllegalArgumentException.class, () -> Amounts.parse("1e30"));
+        assertThrows(IllegalArgumentException.class, () -> Amounts.parse("ten"));
+    }
+
+    /**
+     * GIVEN: a transaction in JSON with a decimal amount
+     * WHEN: read and written back
+     * THEN: the amount is kept exactly, as a number or as a string
+     */
+    @Test
+    void givenJsonAmountWhenReadAndWrittenThenExact() throws Exception {
+        final var transaction = objectMapper.readValue("{\"amount\": 0.29, \"description\": \"description\"}",
+                Transaction.class);
+
+        assertEquals(29, transaction.getAmount());
+        assertTrue(objectMapper.writeValueAsString(transaction).contains("\"amount\":0.29"));
+        assertEquals(1234567890123456789L, objectMapper.readValue("{\"amount\": \"12345678901234567.89\"}",
+                Transaction.class).getAmount());
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("{\"amount\": 0.125}",
+                Transaction.class));
+    }
+}
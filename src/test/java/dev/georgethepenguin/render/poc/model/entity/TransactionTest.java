@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.model.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The unit tests for the transaction entity.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+class TransactionTest {
+
+    /**
+     * GIVEN: two transactions with the same id and different fields
+     * WHEN: equals
+     * THEN: they are equal
+     */
+    @Test
+    void givenSameIdWhenEqualsThenEqual() {
+        final var id = UUID.randomUUID();
+        final var transaction = new Transaction(id, LocalDateTime.now(), 2050, "description");
+        final var other = new Transaction(id, LocalDateTime.now().minusDays(1), 3050, "other description");
+
+        assertEquals(transaction, other);
+        assertEquals(transaction.hashCode(), other.hashCode());
+        assertNotEquals(transaction, new Transaction(UUID.randomUUID(), transaction.getCreatedAt(),
+                transaction.getAmount(), transaction.getDescription()));
+    }
+
+    /**
+     * GIVEN: two transactions without id
+     * WHEN: equals
+     * THEN: they are only equal to themselves
+     */
+    @Test
+    void givenNoIdWhenEqualsThenOnlyEqualToItself() {
+        final var transaction = new Transaction(null, null, 2050, "description");
+
+        assertEquals(transaction, transaction);
+        assertNotEquals(transaction, new Transaction(null, null, 2050, "description"));
+        assertNotEquals(null, transaction);
+    }
+
+    /**
+     * GIVEN: a transaction in a hash set
+     * WHEN: the transaction is updated
+     * THEN: it is still found in the set
+     */
+    @Test
+    void givenTransactionInSetWhenUpdatedThenStillInSet() {
+        final var transaction = new Transaction(UUID.randomUUID(), LocalDateTime.now(), 2050, "description");
+        final var set = new HashSet<Transaction>();
+        set.add(transaction);
+
+        transaction.setCreatedAt(LocalDateTime.now().plusMinutes(1));
+        transaction.setAmount(3050);
+        transaction.setDescription("new description");
+
+        assertTrue(set.contains(transaction));
+        assertTrue(set.remove(transaction));
+    }
+
+    /**
+     * GIVEN: a new transaction in a hash set
+     * WHEN: the id is assigned
+     * THEN: it is still found in the set
+     */
+    @Test
+    void givenNewTransactionInSetWhenIdAssignedThenStillInSet() {
+        final var transaction = new Transaction(null, null, 2050, "description");
+        final var set = new HashSet<Transaction>();
+        set.add(transaction);
+
+        transaction.setId(UUID.randomUUID());
+
+        assertTrue(set.contains(transaction));
+        assertTrue(set.contains(new Transaction(transaction.getId(), null, 0, "copy")));
+    }
+}
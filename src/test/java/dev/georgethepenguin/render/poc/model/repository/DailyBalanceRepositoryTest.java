@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.model.repository;
+
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The tests for the daily balance queries, against an embedded H2 database.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class DailyBalanceRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2023, 5, 10);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private DailyBalanceRepository dailyBalanceRepository;
+
+    private List<Transaction> transactions;
+
+    /**
+     * Creates the transactions of three days and rebuilds their daily balances.
+     */
+    @BeforeEach
+    void setUp() {
+        transactions = transactionRepository.saveAllAndFlush(List.of(
+                new Transaction(null, DAY.minusDays(1).atTime(10, 0), 1000, "description 1"),
+                new Transaction(null, DAY.atTime(9, 0), 2000, "description 2"),
+                new Transaction(null, DAY.atTime(18, 0), 3000, "description 3"),
+                new Transaction(null, DAY.plusDays(1).atTime(0, 0), 4000, "description 4")));
+
+        dailyBalanceRepository.removeAllDays();
+        final var days = dailyBalanceRepository.sumAllDays();
+        assertEquals(3, days.size());
+        days.forEach(day -> dailyBalanceRepository.insertDay(day.getBalanceDate(), day.getTotalAmount(),
+                day.getTransactionCount()));
+    }
+
+    /**
+     * GIVEN: the daily balances rebuilt from the transactions
+     * WHEN: findRange
+     * THEN: the sum and the number of the transactions of every day
+     */
+    @Test
+    void givenRebuiltDaysWhenFindRangeThenTotalsPerDay() {
+        final var result = dailyBalanceRepository.findRange(DAY, DAY.plusDays(1));
+
+        assertEquals(2, result.size());
+        assertEquals(DAY, result.get(0).getBalanceDate());
+        assertEquals(5000, result.get(0).getTotalAmount());
+        assertEquals(2, result.get(0).getTransactionCount());
+        assertEquals(4000, result.get(1).getTotalAmount());
+    }
+
+    /**
+     * GIVEN: the daily balances rebuilt from the transactions
+     * WHEN: sumBefore and sumByAmountBetween
+     * THEN: together they are the balance at a point in time
+     */
+    @Test
+    void givenRebuiltDaysWhenSumBeforeThenBalanceAtPointInTime() {
+        final var at = DAY.atTime(12, 0);
+
+        assertEquals(1000, dailyBalanceRepository.sumBefore(DAY));
+        assertEquals(2000, transactionRepository.sumByAmountBetween(DAY.atStartOfDay(), at));
+        assertEquals(0, dailyBalanceRepository.sumBefore(DAY.minusDays(1)));
+    }
+
+    /**
+     * GIVEN: an existing transaction
+     * WHEN: removeFromDay and addToDay
+     * THEN: the transaction moves from the day it was created on to the new day
+     */
+    @Test
+    void givenExistingTransactionWhenMovedThenDailyBalancesUpdated() {
+        final var moved = transactions.get(1);
+
+        assertEquals(1, dailyBalanceRepository.removeFromDay(moved.getId()));
+        dailyBalanceRepository.addToDay(DAY.plusDays(2), moved.getAmount(), 1);
+
+        final var day = dailyBalanceRepository.findById(DAY).orElseThrow();
+        assertEquals(3000, day.getTotalAmount());
+        assertEquals(1, day.getTransactionCount());
+
+        final var newDay = dailyBalanceRepository.findById(DAY.plusDays(2)).orElseThrow();
+        assertEquals(2000, newDay.getTotalAmount());
+        assertEquals(1, newDay.getTransactionCount());
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.model.repository;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The tests for the schema migrations, against an embedded H2 database.
+ * <p>
+ * The application context only starts when the entities match the migrated schema, since Hibernate validates it.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class SchemaMigrationTest {
+
+    private static final String COUNT_INDEX = "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES "
+            + "WHERE INDEX_NAME = 'IDX_TRANSACTION_DATE_TIME_ID'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Flyway flyway;
+
+    /**
+     * GIVEN: an empty database
+     * WHEN: the application starts
+     * THEN: every migration is applied, including the index of the transaction list and the ledger balance row
+     */
+    @Test
+    void givenEmptyDatabaseWhenStartThenMigrated() {
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"success\" = FALSE", Integer.class));
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals(1, jdbcTemplate.queryForObject(COUNT_INDEX, Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT amount FROM balance WHERE id = 1", Long.class));
+    }
+
+    /**
+     * GIVEN: a database with the schema created by Hibernate and without migration history
+     * WHEN: migrate
+     * THEN: the database is baselined, the index is created, the rows are kept and the daily and ledger balances are
+     * filled
+     */
+    @Test
+    void givenHibernateSchemaWhenMigrateThenBaselinedAndIndexed() {
+        final var dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        final var template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE transaction (id UUID NOT NULL, amount FLOAT(53) NOT NULL, "
+                + "date_time TIMESTAMP(6) NOT NULL, description VARCHAR(255) NOT NULL, PRIMARY KEY (id))");
+        template.execute("CREATE TABLE balance (id INTEGER NOT NULL, amount FLOAT(53) NOT NULL, PRIMARY KEY (id))");
+        template.update("INSERT INTO transaction VALUES (RANDOM_UUID(), 20.5, LOCALTIMESTAMP, 'description')");
+
+        final var migration = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load();
+        migration.migrate();
+
+        assertEquals(0, migration.info().pending().length);
+        assertEquals(1, template.queryForObject(COUNT_INDEX, Integer.class));
+        assertEquals(1, template.queryForObject("SELECT COUNT(*) FROM transaction", Integer.class));
+        assertEquals(2050, template.queryForObject("SELECT amount FROM transaction", Long.class));
+        assertEquals(2050, template.queryForObject("SELECT total_amount FROM daily_balance", Long.class));
+        assertEquals(2050, template.queryForObject("SELECT amount FROM balance WHERE id = 1", Long.class));
+        template.execute("SHUTDOWN");
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.model.repository;
+
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The tests for the transaction insert, against an embedded H2 database.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class TransactionInsertRepositoryTest {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    /**
+     * GIVEN: transactions with assigned ids
+     * WHEN: insertAll
+     * THEN: they are persisted with the same ids
+     */
+    @Test
+    void givenAssignedIdsWhenInsertAllThenPersistedWithIds() {
+        final var createdAt = LocalDateTime.of(2023, 5, 10, 12, 0);
+        final var transactions = List.of(
+                new Transaction(UUID.randomUUID(), createdAt, 2050, "Rent"),
+                new Transaction(UUID.randomUUID(), createdAt.plusSeconds(1), -5, "Refund"));
+
+        transactionRepository.insertAll(transactions);
+
+        assertEquals(2, transactionRepository.count());
+
+        final var found = transactionRepository.findById(transactions.get(1).getId()).orElseThrow();
+        assertEquals(createdAt.plusSeconds(1), found.getCreatedAt());
+        assertEquals(-5, found.getAmount());
+        assertEquals("Refund", found.getDescription());
+    }
+}
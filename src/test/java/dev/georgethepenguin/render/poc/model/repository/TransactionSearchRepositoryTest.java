@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.model.repository;
+
+import dev.georgethepenguin.render.poc.model.dto.TransactionCursor;
+import dev.georgethepenguin.render.poc.model.dto.TransactionFilter;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The tests for the transaction search, against an embedded H2 database.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class TransactionSearchRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 5, 1, 12, 0);
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    /**
+     * Creates a transaction per hour, from the oldest to the newest.
+     */
+    @BeforeEach
+    void setUp() {
+        transactionRepository.saveAllAndFlush(List.of(
+                new Transaction(null, NOW.minusHours(4), 1000, "Rent May"),
+                new Transaction(null, NOW.minusHours(3), 2500, "rent_deposit"),
+                new Transaction(null, NOW.minusHours(2), 5000, "Groceries"),
+                new Transaction(null, NOW.minusHours(1), 7500, "RENTAL car"),
+                new Transaction(null, NOW, 10000, "Salary")));
+    }
+
+    /**
+     * GIVEN: a date time range
+     * WHEN: search
+     * THEN: the transactions from the start, inclusive, to the end, exclusive, newest first
+     */
+    @Test
+    void givenDateTimeRangeWhenSearchThenTransactionsInRange() {
+        final var result = transactionRepository.search(
+                new TransactionFilter(NOW.minusHours(3), NOW.minusHours(1), null, null, null), null, 10);
+
+        assertEquals(List.of("Groceries", "rent_deposit"), descriptions(result));
+    }
+
+    /**
+     * GIVEN: an amount range
+     * WHEN: search
+     * THEN: the transactions with an amount in the range, both inclusive
+     */
+    @Test
+    void givenAmountRangeWhenSearchThenTransactionsInRange() {
+        final var result = transactionRepository.search(
+                new TransactionFilter(null, null, 2500L, 7500L, null), null, 10);
+
+        assertEquals(List.of("RENTAL car", "Groceries", "rent_deposit"), descriptions(result));
+    }
+
+    /**
+     * GIVEN: a description prefix
+     * WHEN: search
+     * THEN: the transactions whose description starts with it, ignoring the case
+     */
+    @Test
+    void givenPrefixWhenSearchThenTransactionsStartingWithIt() {
+        final var result = transactionRepository.search(
+                new TransactionFilter(null, null, null, null, "rent"), null, 10);
+
+        assertEquals(List.of("RENTAL car", "rent_deposit", "Rent May"), descriptions(result));
+    }
+
+    /**
+     * GIVEN: a description prefix with a LIKE wildcard
+     * WHEN: search
+     * THEN: the wildcard only matches itself
+     */
+    @Test
+    void givenPrefixWithWildcardWhenSearchThenWildcardMatchesItself() {
+        final var result = transactionRepository.search(
+                new TransactionFilter(null, null, null, null, "rent_"), null, 10);
+
+        assertEquals(List.of("rent_deposit"), descriptions(result));
+    }
+
+    /**
+     * GIVEN: a filter and the cursor of the previous page
+     * WHEN: search
+     * THEN: the next page of the matching transactions
+     */
+    @Test
+    void givenFilterAndCursorWhenSearchThenNextPage() {
+        final var filter = new TransactionFilter(null, null, null, null, "rent");
+        final var first = transactionRepository.search(filter, null, 2);
+        final var last = first.get(first.size() - 1);
+
+        final var result = transactionRepository.search(filter,
+                new TransactionCursor(last.getCreatedAt(), last.getId()), 2);
+
+        assertEquals(List.of("RENTAL car", "rent_deposit"), descriptions(first));
+        assertEquals(List.of("Rent May"), descriptions(result));
+    }
+
+    private static List<String> descriptions(final List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getDescription).toList();
+    }
+}
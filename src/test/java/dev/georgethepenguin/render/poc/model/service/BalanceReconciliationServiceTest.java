@@ -0,0 +1,186 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.model.service;
+
+import dev.georgethepenguin.render.poc.model.entity.Balance;
+import dev.georgethepenguin.render.poc.model.repository.BalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * The unit tests for the balance reconciliation service.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@ExtendWith(MockitoExtension.class)
+class BalanceReconciliationServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private BalanceRepository balanceRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private BalanceReconciliationService balanceReconciliationService;
+
+    /**
+     * GIVEN: no ledger balance
+     * WHEN: reconcile
+     * THEN: the ledger balance is created with zero, and corrected with a sum taken after it exists
+     */
+    @Test
+    void givenNoLedgerBalanceWhenReconcileThenLedgerBalanceCreatedAndCorrected() {
+        final var balance = new Balance(Balance.LEDGER_ID, 0);
+        doReturn(Optional.empty(), Optional.of(0L)).when(balanceRepository).findLedgerVersion();
+        doReturn(Optional.empty(), Optional.of(balance)).when(balanceRepository).findLedgerForUpdate();
+        doReturn(4000L, 4530L).when(transactionRepository).sumByAmount();
+        givenTransactionTemplate();
+
+        final var result = balanceReconciliationService.reconcile();
+
+        assertEquals(OptionalLong.of(4530), result);
+        assertEquals(4530, balance.getAmount());
+        assertEquals(1, balance.getVersion());
+
+        final var captor = ArgumentCaptor.forClass(Balance.class);
+        verify(balanceRepository).saveAndFlush(captor.capture());
+        assertEquals(Balance.LEDGER_ID, captor.getValue().getId());
+        assertEquals(0, captor.getValue().getAmount());
+        verify(transactionRepository, times(2)).sumByAmount();
+    }
+
+    /**
+     * GIVEN: no ledger balance, created by another reconciliation at the same time
+     * WHEN: reconcile
+     * THEN: the transactions are summed again and the ledger balance created by the other one is corrected
+     */
+    @Test
+    void givenLedgerBalanceCreatedConcurrentlyWhenReconcileThenRetried() {
+        final var balance = new Balance(Balance.LEDGER_ID, 0);
+        doReturn(Optional.empty(), Optional.of(0L)).when(balanceRepository).findLedgerVersion();
+        doReturn(Optional.empty(), Optional.of(balance)).when(balanceRepository).findLedgerForUpdate();
+        doThrow(new DataIntegrityViolationException("duplicate key")).when(balanceRepository)
+                .saveAndFlush(any(Balance.class));
+        doReturn(4530L).when(transactionRepository).sumByAmount();
+        givenTransactionTemplate();
+
+        assertEquals(OptionalLong.of(4530), balanceReconciliationService.reconcile());
+        assertEquals(4530, balance.getAmount());
+        verify(transactionRepository, times(2)).sumByAmount();
+    }
+
+    /**
+     * GIVEN: a drifted ledger balance
+     * WHEN: reconcile
+     * THEN: the ledger balance is corrected
+     */
+    @Test
+    void givenDriftedLedgerBalanceWhenReconcileThenLedgerBalanceCorrected() {
+        final var balance = new Balance(Balance.LEDGER_ID, 1000);
+        doReturn(Optional.of(0L)).when(balanceRepository).findLedgerVersion();
+        doReturn(Optional.of(balance)).when(balanceRepository).findLedgerForUpdate();
+        doReturn(4530L).when(transactionRepository).sumByAmount();
+        givenTransactionTemplate();
+
+        final var result = balanceReconciliationService.reconcile();
+
+        assertEquals(OptionalLong.of(4530), result);
+        assertEquals(4530, balance.getAmount());
+        assertEquals(1, balance.getVersion());
+
+        verify(balanceRepository, never()).saveAndFlush(any(Balance.class));
+        final var inOrder = inOrder(balanceRepository, transactionRepository);
+        inOrder.verify(balanceRepository).findLedgerVersion();
+        inOrder.verify(transactionRepository).sumByAmount();
+        inOrder.verify(balanceRepository).findLedgerForUpdate();
+    }
+
+    /**
+     * GIVEN: no transactions
+     * WHEN: reconcile
+     * THEN: the ledger balance is zero
+     */
+    @Test
+    void givenNoTransactionsWhenReconcileThenZero() {
+        final var balance = new Balance(Balance.LEDGER_ID, 0);
+        doReturn(Optional.of(0L)).when(balanceRepository).findLedgerVersion();
+        doReturn(Optional.of(balance)).when(balanceRepository).findLedgerForUpdate();
+        doReturn(0L).when(transactionRepository).sumByAmount();
+        givenTransactionTemplate();
+
+        assertEquals(OptionalLong.of(0), balanceReconciliationService.reconcile());
+        assertEquals(0, balance.getAmount());
+        assertEquals(0, balance.getVersion());
+    }
+
+    /**
+     * GIVEN: a ledger balance that changes while the transactions are summed
+     * WHEN: reconcile
+     * THEN: the transactions are summed again, and the ledger balance is not corrected with the stale sum
+     */
+    @Test
+    void givenChangingLedgerBalanceWhenReconcileThenRetriedAndNotCorrected() {
+        final var balance = new Balance(Balance.LEDGER_ID, 1000);
+        balance.setVersion(8);
+        doReturn(Optional.of(7L)).when(balanceRepository).findLedgerVersion();
+        doReturn(Optional.of(balance)).when(balanceRepository).findLedgerForUpdate();
+        doReturn(4530L).when(transactionRepository).sumByAmount();
+        givenTransactionTemplate();
+
+        assertEquals(OptionalLong.empty(), balanceReconciliationService.reconcile());
+        assertEquals(1000, balance.getAmount());
+        assertEquals(8, balance.getVersion());
+
+        verify(transactionRepository, times(3)).sumByAmount();
+        verify(balanceRepository, never()).saveAndFlush(any(Balance.class));
+    }
+
+    private void givenTransactionTemplate() {
+        doAnswer(invocation -> invocation.getArgument(0, TransactionCallback.class).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.model.service;
+
+import dev.georgethepenguin.render.poc.model.dto.AggregationPeriod;
+import dev.georgethepenguin.render.poc.model.dto.BalanceAggregate;
+import dev.georgethepenguin.render.poc.model.entity.Balance;
+import dev.georgethepenguin.render.poc.model.entity.DailyBalance;
+import dev.georgethepenguin.render.poc.model.repository.BalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.DailyBalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * The unit tests for the daily balance service.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@ExtendWith(MockitoExtension.class)
+class DailyBalanceServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private BalanceRepository balanceRepository;
+
+    @Mock
+    private DailyBalanceRepository dailyBalanceRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private DailyBalanceService dailyBalanceService;
+
+    /**
+     * GIVEN: a point in time
+     * WHEN: getBalanceAt
+     * THEN: the sum of the previous days plus the transactions of its day up to it
+     */
+    @Test
+    void givenDateTimeWhenGetBalanceAtThenPreviousDaysPlusPartialDay() {
+        final var dateTime = LocalDateTime.of(2023, 5, 10, 15, 30);
+        doReturn(10000L).when(dailyBalanceRepository).sumBefore(dateTime.toLocalDate());
+        doReturn(2050L).when(transactionRepository)
+                .sumByAmountBetween(dateTime.toLocalDate().atStartOfDay(), dateTime);
+
+        assertEquals(12050, dailyBalanceService.getBalanceAt(dateTime));
+        verify(transactionRepository, never()).sumByAmount();
+    }
+
+    /**
+     * GIVEN: a point in time before any transaction
+     * WHEN: getBalanceAt
+     * THEN: zero
+     */
+    @Test
+    void givenNoTransactionsWhenGetBalanceAtThenZero() {
+        assertEquals(0, dailyBalanceService.getBalanceAt(LocalDateTime.of(2000, 1, 1, 0, 0)));
+        assertThrows(IllegalArgumentException.class, () -> dailyBalanceService.getBalanceAt(null));
+    }
+
+    /**
+     * GIVEN: the daily balances of a range
+     * WHEN: aggregate by week
+     * THEN: the days of the same ISO week are summed
+     */
+    @Test
+    void givenDailyBalancesWhenAggregateByWeekThenSummedByWeek() {
+        final var from = LocalDate.of(2023, 5, 1);
+        final var to = LocalDate.of(2023, 5, 31);
+        doReturn(List.of(
+                new DailyBalance(LocalDate.of(2023, 5, 1), 1000, 1),
+                new DailyBalance(LocalDate.of(2023, 5, 7), 2000, 2),
+                new DailyBalance(LocalDate.of(2023, 5, 8), 3000, 3),
+                new DailyBalance(LocalDate.of(2023, 5, 31), 4000, 4)
+        )).when(dailyBalanceRepository).findRange(from, to);
+
+        final var result = dailyBalanceService.aggregate(AggregationPeriod.WEEK, from, to);
+
+        assertEquals(List.of(
+                new BalanceAggregate(LocalDate.of(2023, 5, 1), 3000, 3),
+                new BalanceAggregate(LocalDate.of(2023, 5, 8), 3000, 3),
+                new BalanceAggregate(LocalDate.of(2023, 5, 29), 4000, 4)
+        ), result);
+    }
+
+    /**
+     * GIVEN: the daily balances of a range
+     * WHEN: aggregate by month
+     * THEN: the days of the same month are summed
+     */
+    @Test
+    void givenDailyBalancesWhenAggregateByMonthThenSummedByMonth() {
+        final var from = LocalDate.of(2023, 4, 1);
+        final var to = LocalDate.of(2023, 5, 31);
+        doReturn(List.of(
+                new DailyBalance(LocalDate.of(2023, 4, 30), 1000, 1),
+                new DailyBalance(LocalDate.of(2023, 5, 1), 2000, 2),
+                new DailyBalance(LocalDate.of(2023, 5, 31), 3000, 3)
+        )).when(dailyBalanceRepository).findRange(from, to);
+
+        final var result = dailyBalanceService.aggregate(AggregationPeriod.MONTH, from, to);
+
+        assertEquals(List.of(
+                new BalanceAggregate(LocalDate.of(2023, 4, 1), 1000, 1),
+                new BalanceAggregate(LocalDate.of(2023, 5, 1), 5000, 5)
+        ), result);
+    }
+
+    /**
+     * GIVEN: an empty range or a missing argument
+     * WHEN: aggregate
+     * THEN: IllegalArgumentException
+     */
+    @Test
+    void givenInvalidRangeWhenAggregateThenIllegalArgumentException() {
+        final var day = LocalDate.of(2023, 5, 1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> dailyBalanceService.aggregate(AggregationPeriod.DAY, day, day.minusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> dailyBalanceService.aggregate(null, day, day));
+
+        verifyNoInteractions(dailyBalanceRepository);
+    }
+
+    /**
+     * GIVEN: an unchanged ledger
+     * WHEN: rebuild
+     * THEN: the days are summed before the ledger balance is locked, and then the daily balances are replaced
+     */
+    @Test
+    void givenUnchangedLedgerWhenRebuildThenSummedBeforeLockedAndReplaced() {
+        final var day = new DailyBalance(LocalDate.of(2023, 5, 1), 1000, 1);
+        final var ledger = new Balance(Balance.LEDGER_ID, 1000);
+        ledger.setVersion(7);
+        doReturn(Optional.of(7L)).when(balanceRepository).findLedgerVersion();
+        doReturn(List.of(day, day, day)).when(dailyBalanceRepository).sumAllDays();
+        doReturn(Optional.of(ledger)).when(balanceRepository).findLedgerForUpdate();
+        doAnswer(invocation -> invocation.getArgument(0, TransactionCallback.class).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+
+        assertEquals(OptionalInt.of(3), dailyBalanceService.rebuild());
+
+        final var inOrder = inOrder(balanceRepository, dailyBalanceRepository);
+        inOrder.verify(balanceRepository).findLedgerVersion();
+        inOrder.verify(dailyBalanceRepository).sumAllDays();
+        inOrder.verify(balanceRepository).findLedgerForUpdate();
+        inOrder.verify(dailyBalanceRepository).removeAllDays();
+        inOrder.verify(dailyBalanceRepository, times(3)).insertDay(day.getBalanceDate(), 1000, 1);
+    }
+
+    /**
+     * GIVEN: a ledger that changes while the days are summed
+     * WHEN: rebuild
+     * THEN: the days are summed again, and the daily balances are not replaced with the stale sums
+     */
+    @Test
+    void givenChangingLedgerWhenRebuildThenRetriedAndNotReplaced() {
+        final var ledger = new Balance(Balance.LEDGER_ID, 1000);
+        ledger.setVersion(8);
+        doReturn(Optional.of(7L)).when(balanceRepository).findLedgerVersion();
+        doReturn(List.of()).when(dailyBalanceRepository).sumAllDays();
+        doReturn(Optional.of(ledger)).when(balanceRepository).findLedgerForUpdate();
+        doAnswer(invocation -> invocation.getArgument(0, TransactionCallback.class).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+
+        assertEquals(OptionalInt.empty(), dailyBalanceService.rebuild());
+
+        verify(dailyBalanceRepository, times(3)).sumAllDays();
+        verify(dailyBalanceRepository, never()).removeAllDays();
+        verify(dailyBalanceRepository, never()).insertDay(any(), anyLong(), anyLong());
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.model.service;
+
+import dev.georgethepenguin.render.poc.config.idempotency.IdempotencyProperties;
+import dev.georgethepenguin.render.poc.config.pagination.PaginationProperties;
+import dev.georgethepenguin.render.poc.model.entity.Balance;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.model.exception.TransactionException;
+import dev.georgethepenguin.render.poc.model.repository.BalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.DailyBalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.IdempotencyKeyRepository;
+import dev.georgethepenguin.render.poc.model.repository.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * The tests for the idempotency service when the key is stored by another instance, against the database.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyServiceRaceTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BalanceRepository balanceRepository;
+
+    @Autowired
+    private DailyBalanceRepository dailyBalanceRepository;
+
+    @SpyBean
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    /**
+     * Initializes the ledger balance.
+     */
+    @BeforeEach
+    void setUp() {
+        balanceRepository.save(new Balance(Balance.LEDGER_ID, 0));
+    }
+
+    /**
+     * Removes the data of the test, resetting the ledger balance that the migrations seed.
+     */
+    @AfterEach
+    void tearDown() {
+        idempotencyKeyRepository.deleteAllInBatch();
+        transactionRepository.deleteAllInBatch();
+        balanceRepository.save(new Balance(Balance.LEDGER_ID, 0));
+        dailyBalanceRepository.deleteAllInBatch();
+    }
+
+    /**
+     * GIVEN: an idempotency key stored by another instance after this one has checked it
+     * WHEN: create
+     * THEN: the insert of the key fails, nothing is created, and the stored transaction is replayed
+     *
+     * @throws TransactionException if an error occurs
+     */
+    @Test
+    void givenKeyStoredConcurrentlyWhenCreateThenStoredTransactionReplayed() throws TransactionException {
+        final var stored = transactionService.create(new Transaction(null, null, 2050, "description"));
+        idempotencyKeyRepository.insertKey("key", stored.getId(), stored.getCreatedAt());
+        // The key was not stored yet when this instance checked it, and is found afterwards
+        final var checks = new AtomicInteger();
+        doAnswer(invocation -> checks.getAndIncrement() == 0 ? Optional.empty()
+                : idempotencyKeyRepository.findAllById(List.of("key")).stream().findFirst())
+                .when(idempotencyKeyRepository).findById("key");
+
+        final var replayed = idempotencyService.create("key", new Transaction(null, null, 2050, "description"));
+
+        assertEquals(stored.getId(), replayed.getId());
+        assertEquals(1, transactionRepository.count());
+        assertEquals(2050, transactionService.getCurrentBalance());
+    }
+
+    /**
+     * The configuration of the services under test.
+     */
+    @TestConfiguration
+    @EnableConfigurationProperties({PaginationProperties.class, IdempotencyProperties.class})
+    @Import({TransactionService.class, IdempotencyService.class})
+    static class Config {
+    }
+}
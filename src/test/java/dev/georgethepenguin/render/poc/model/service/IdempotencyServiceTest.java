@@ -0,0 +1,166 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.model.service;
+
+import dev.georgethepenguin.render.poc.config.idempotency.IdempotencyProperties;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.model.exception.TransactionException;
+import dev.georgethepenguin.render.poc.model.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * The unit tests for the idempotency service.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private IdempotencyService idempotencyService;
+
+    /**
+     * Builds the service under test.
+     */
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(transactionService, idempotencyKeyRepository,
+                new IdempotencyProperties(100, Duration.ofHours(1), 4));
+    }
+
+    /**
+     * GIVEN: a transaction created with an idempotency key
+     * WHEN: create again with the same key
+     * THEN: the first transaction is replayed from memory
+     *
+     * @throws TransactionException if an error occurs
+     */
+    @Test
+    void givenUsedKeyWhenCreateThenReplayedFromMemory() throws TransactionException {
+        final var created = new Transaction(UUID.randomUUID(), LocalDateTime.now(), 2050, "description");
+        doReturn(created).when(transactionService).createIdempotent(eq("key"), any(Transaction.class));
+
+        final var first = idempotencyService.create("key", new Transaction(null, null, 2050, "description"));
+        final var retry = idempotencyService.create("key", new Transaction(null, null, 2050, "description"));
+
+        assertEquals(created.getId(), retry.getId());
+        assertEquals(first.getCreatedAt(), retry.getCreatedAt());
+        verify(transactionService, times(1)).createIdempotent(eq("key"), any(Transaction.class));
+    }
+
+    /**
+     * GIVEN: concurrent requests with the same idempotency key
+     * WHEN: create
+     * THEN: a single transaction is created and every request gets it
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    void givenConcurrentRequestsWhenCreateThenCoalesced() throws Exception {
+        final var start = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            // Gives the other requests the time to reach the lock
+            Thread.sleep(50);
+            return new Transaction(UUID.randomUUID(), LocalDateTime.now(), 2050, "description");
+        }).when(transactionService).createIdempotent(eq("key"), any(Transaction.class));
+
+        final var executor = Executors.newFixedThreadPool(8);
+
+        try {
+            final var futures = new ArrayList<Future<Transaction>>();
+
+            for (var i = 0; i < 8; i++) {
+                futures.add(executor.submit((Callable<Transaction>) () -> {
+                    start.await();
+                    return idempotencyService.create("key", new Transaction(null, null, 2050, "description"));
+                }));
+            }
+
+            start.countDown();
+            final var id = futures.get(0).get().getId();
+
+            for (final var future : futures) {
+                assertEquals(id, future.get().getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(transactionService, times(1)).createIdempotent(eq("key"), any(Transaction.class));
+    }
+
+    /**
+     * GIVEN: a blank or too long idempotency key
+     * WHEN: create
+     * THEN: TransactionException
+     */
+    @Test
+    void givenInvalidKeyWhenCreateThenTransactionException() {
+        final var transaction = new Transaction(null, null, 2050, "description");
+
+        assertThrows(TransactionException.class, () -> idempotencyService.create(" ", transaction));
+        assertThrows(TransactionException.class, () -> idempotencyService.create("k".repeat(256), transaction));
+        verifyNoInteractions(transactionService);
+    }
+
+    /**
+     * GIVEN: the time to live of the keys
+     * WHEN: purgeExpired
+     * THEN: the keys created before it are deleted
+     */
+    @Test
+    void givenTtlWhenPurgeExpiredThenOldKeysDeleted() {
+        doReturn(3).when(idempotencyKeyRepository).removeCreatedBefore(any(LocalDateTime.class));
+
+        assertEquals(3, idempotencyService.purgeExpired());
+        verify(idempotencyKeyRepository).removeCreatedBefore(
+                argThat(dateTime -> dateTime.isBefore(LocalDateTime.now().minusMinutes(59))));
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.model.service;
+
+import dev.georgethepenguin.render.poc.config.batch.BatchProperties;
+import dev.georgethepenguin.render.poc.model.dto.TransactionBatchItemResult;
+import dev.georgethepenguin.render.poc.model.dto.TransactionBatchItemResult.Status;
+import dev.georgethepenguin.render.poc.model.dto.TransactionChange;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.model.repository.BalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.DailyBalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * The unit tests for the transaction batch service.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionBatchServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private BalanceRepository balanceRepository;
+
+    @Mock
+    private DailyBalanceRepository dailyBalanceRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private TransactionBatchService transactionBatchService;
+
+    /**
+     * Builds the service under test.
+     */
+    @BeforeEach
+    void setUp() {
+        transactionBatchService = new TransactionBatchService(transactionRepository, balanceRepository,
+                dailyBalanceRepository, transactionTemplate, new BatchProperties(2),
+                applicationEventPublisher);
+    }
+
+    /**
+     * GIVEN: valid and invalid transactions
+     * WHEN: createAll
+     * THEN: the valid ones are persisted in chunks and the invalid ones are rejected
+     */
+    @Test
+    void givenValidAndInvalidTransactionsWhenCreateAllThenResultPerItem() {
+        doAnswer(invocation -> invocation.getArgument(0, TransactionCallback.class).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+
+        final var invalid = new Transaction();
+        invalid.setDescription(" ");
+
+        final var result = transactionBatchService.createAll(Arrays.asList(
+                newTransaction(1000), invalid, newTransaction(2000), null, newTransaction(3000)).iterator());
+
+        assertEquals(5, result.size());
+        assertEquals(List.of(Status.CREATED, Status.REJECTED, Status.CREATED, Status.REJECTED, Status.CREATED),
+                result.stream().map(TransactionBatchItemResult::status).toList());
+
+        for (var i = 0; i < result.size(); i++) {
+            assertEquals(i, result.get(i).index());
+        }
+
+        assertNotNull(result.get(0).transaction().getCreatedAt());
+        assertEquals("The transaction description is blank", result.get(1).message());
+        assertEquals("The transaction is null", result.get(3).message());
+
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(transactionRepository, times(2)).saveAll(anyList());
+        verify(balanceRepository, times(2)).addToLedger(3000);
+        verify(dailyBalanceRepository).addToDay(any(LocalDate.class), eq(3000L), eq(2L));
+        verify(dailyBalanceRepository).addToDay(any(LocalDate.class), eq(3000L), eq(1L));
+        verify(applicationEventPublisher, times(3)).publishEvent(any(TransactionChange.class));
+    }
+
+    /**
+     * GIVEN: a source that cannot read an item
+     * WHEN: createAll
+     * THEN: the item is rejected and the following ones are created
+     */
+    @Test
+    void givenUnreadableItemWhenCreateAllThenItemRejected() {
+        doAnswer(invocation -> invocation.getArgument(0, TransactionCallback.class).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+
+        final var source = new Iterator<Transaction>() {
+
+            private int remaining = 2;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public Transaction next() {
+                if (remaining-- == 2) {
+                    throw new IllegalArgumentException("The line 1 is not a valid transaction");
+                }
+
+                return newTransaction(1000);
+            }
+        };
+
+        final var result = transactionBatchService.createAll(source);
+
+        assertEquals(Status.REJECTED, result.get(0).status());
+        assertEquals("The line 1 is not a valid transaction", result.get(0).message());
+        assertEquals(Status.CREATED, result.get(1).status());
+    }
+
+    /**
+     * GIVEN: a chunk that cannot be persisted
+     * WHEN: createAll
+     * THEN: the items of the chunk are failed
+     */
+    @Test
+    void givenPersistenceErrorWhenCreateAllThenChunkFailed() {
+        doThrow(new DataIntegrityViolationException("error")).when(transactionTemplate).execute(any());
+
+        final var transactions = new ArrayList<Transaction>();
+        transactions.add(newTransaction(1000));
+
+        final var result = transactionBatchService.createAll(transactions.iterator());
+
+        assertEquals(1, result.size());
+        assertEquals(Status.FAILED, result.get(0).status());
+        assertNull(result.get(0).transaction());
+    }
+
+    /**
+     * GIVEN: a group of transactions with assigned ids
+     * WHEN: insertAll
+     * THEN: the group is inserted and the balances are updated once, in a single database transaction
+     */
+    @Test
+    void givenGroupWhenInsertAllThenInsertedTogether() {
+        doAnswer(invocation -> invocation.getArgument(0, TransactionCallback.class).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+
+        final var group = List.of(newTransaction(1000), newTransaction(2000));
+        group.forEach(transaction -> transaction.setCreatedAt(LocalDate.of(2023, 5, 10).atStartOfDay()));
+
+        transactionBatchService.insertAll(group);
+
+        verify(transactionTemplate).execute(any());
+        verify(transactionRepository).insertAll(group);
+        verify(balanceRepository).addToLedger(3000);
+        verify(dailyBalanceRepository).addToDay(LocalDate.of(2023, 5, 10), 3000L, 2L);
+        group.forEach(transaction -> verify(applicationEventPublisher)
+                .publishEvent(TransactionChange.created(transaction)));
+    }
+
+    private static Transaction newTransaction(final long amount) {
+        final var transaction = new Transaction();
+        transaction.setAmount(amount);
+        transaction.setDescription("description " + UUID.randomUUID());
+        return transaction;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.model.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.georgethepenguin.render.poc.config.export.ExportProperties;
+import dev.georgethepenguin.render.poc.model.dto.ExportFormat;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.model.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The tests for the ledger export, against an embedded H2 database.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@DataJpaTest(properties = "render.poc.export.fetch-size=2")
+@ActiveProfiles("test")
+class TransactionExportServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 5, 10, 12, 0);
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private List<Transaction> transactions;
+
+    /**
+     * Creates three transactions, more than the fetch size.
+     */
+    @BeforeEach
+    void setUp() {
+        transactions = transactionRepository.saveAllAndFlush(List.of(
+                new Transaction(null, NOW.minusHours(1), 2050, "Rent, May"),
+                new Transaction(null, NOW, -5, "The \"big\" refund"),
+                new Transaction(null, NOW.minusHours(2), 100000, "Salary")));
+    }
+
+    /**
+     * GIVEN: transactions over several fetches
+     * WHEN: export as NDJSON
+     * THEN: a JSON transaction per line, ordered by date time
+     */
+    @Test
+    void givenTransactionsWhenExportNdjsonThenJsonPerLine() throws Exception {
+        final var output = new ByteArrayOutputStream();
+
+        transactionExportService.export(ExportFormat.NDJSON, output);
+
+        final var lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":\"" + transactions.get(2).getId() + "\""));
+        assertTrue(lines[0].contains("\"amount\":1000.00"));
+        assertTrue(lines[2].contains("\"amount\":-0.05"));
+    }
+
+    /**
+     * GIVEN: transactions with separators and quotes in their descriptions
+     * WHEN: export as CSV
+     * THEN: a header and a quoted line per transaction, ordered by date time
+     */
+    @Test
+    void givenTransactionsWhenExportCsvThenQuotedLines() throws Exception {
+        final var output = new ByteArrayOutputStream();
+
+        transactionExportService.export(ExportFormat.CSV, output);
+
+        assertEquals(TransactionExportService.CSV_HEADER + "\n"
+                        + transactions.get(2).getId() + ",2023-05-10T10:00:00,1000.00,Salary\n"
+                        + transactions.get(0).getId() + ",2023-05-10T11:00:00,20.50,\"Rent, May\"\n"
+                        + transactions.get(1).getId() + ",2023-05-10T12:00:00,-0.05,\"The \"\"big\"\" refund\"\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The configuration with the export service.
+     */
+    @TestConfiguration
+    @EnableConfigurationProperties(ExportProperties.class)
+    @Import(TransactionExportService.class)
+    static class Config {
+
+        /**
+         * Builds the object mapper.
+         *
+         * @return the object mapper
+         */
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().findAndRegisterModules();
+        }
+    }
+}
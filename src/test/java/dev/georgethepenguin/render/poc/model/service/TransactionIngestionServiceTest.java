@@ -0,0 +1,266 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.model.service;
+
+import dev.georgethepenguin.render.poc.config.ingestion.IngestionProperties;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.model.exception.IngestionQueueFullException;
+import dev.georgethepenguin.render.poc.model.exception.TransactionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * The unit tests for the transaction ingestion service.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionIngestionServiceTest {
+
+    @Mock
+    private TransactionBatchService transactionBatchService;
+
+    private TransactionIngestionService transactionIngestionService;
+
+    /**
+     * Stops the writer of the service under test.
+     */
+    @AfterEach
+    void tearDown() {
+        if (transactionIngestionService != null && transactionIngestionService.isRunning()) {
+            transactionIngestionService.stop();
+        }
+    }
+
+    /**
+     * GIVEN: as many transactions as the group size and a long max delay
+     * WHEN: submit
+     * THEN: they are persisted together without waiting for the max delay
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    void givenFullGroupWhenSubmitThenPersistedTogether() throws Exception {
+        start(100, 3, Duration.ofMinutes(1));
+
+        final var futures = List.of(submit(1000), submit(2000), submit(3000));
+
+        for (final var future : futures) {
+            final var persisted = future.get(5, TimeUnit.SECONDS);
+            assertNotNull(persisted.getId());
+            assertNotNull(persisted.getCreatedAt());
+        }
+
+        verify(transactionBatchService).insertAll(anyList());
+    }
+
+    /**
+     * GIVEN: fewer transactions than the group size
+     * WHEN: submit
+     * THEN: they are persisted after the max delay
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    void givenPartialGroupWhenSubmitThenPersistedAfterMaxDelay() throws Exception {
+        start(100, 100, Duration.ofMillis(10));
+
+        final var persisted = submit(1000).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1000, persisted.getAmount());
+        assertEquals(0, transactionIngestionService.getQueueSize());
+    }
+
+    /**
+     * GIVEN: a full queue
+     * WHEN: submit
+     * THEN: IngestionQueueFullException, and the queued transactions are persisted on stop
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    void givenFullQueueWhenSubmitThenIngestionQueueFullException() throws Exception {
+        start(2, 100, Duration.ofMinutes(1));
+
+        final var futures = List.of(submit(1000), submit(2000));
+
+        assertThrows(IngestionQueueFullException.class, () -> submit(3000));
+        assertEquals(2, transactionIngestionService.getQueueSize());
+
+        transactionIngestionService.stop();
+
+        for (final var future : futures) {
+            assertTrue(future.isDone());
+            assertNotNull(future.get().getId());
+        }
+
+        assertThrows(IngestionQueueFullException.class, () -> submit(4000));
+    }
+
+    /**
+     * GIVEN: submissions that keep coming while the ingestion stops
+     * WHEN: stop
+     * THEN: every accepted transaction is persisted before it returns
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    void givenConcurrentSubmissionsWhenStopThenAcceptedPersisted() throws Exception {
+        start(100_000, 100, Duration.ofMinutes(1));
+
+        final var accepted = new ConcurrentLinkedQueue<CompletableFuture<Transaction>>();
+        final var submitted = new CountDownLatch(1);
+        final var submitters = new ArrayList<Thread>();
+
+        for (var i = 0; i < 4; i++) {
+            final var submitter = new Thread(() -> {
+                try {
+                    while (true) {
+                        accepted.add(submit(1000));
+
+                        if (accepted.size() >= 100) {
+                            submitted.countDown();
+                        }
+                    }
+                } catch (IngestionQueueFullException | TransactionException ex) {
+                    // The ingestion has stopped
+                }
+            });
+            submitter.start();
+            submitters.add(submitter);
+        }
+
+        assertTrue(submitted.await(5, TimeUnit.SECONDS));
+        transactionIngestionService.stop();
+
+        for (final var submitter : submitters) {
+            submitter.join();
+        }
+
+        assertFalse(accepted.isEmpty());
+
+        for (final var future : accepted) {
+            assertTrue(future.isDone());
+            assertFalse(future.isCompletedExceptionally());
+        }
+
+        assertEquals(0, transactionIngestionService.getQueueSize());
+    }
+
+    /**
+     * GIVEN: a group with a transaction that cannot be persisted
+     * WHEN: submit
+     * THEN: the other transactions of the group are persisted one by one, and only its future completes exceptionally
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    void givenFailingRowWhenSubmitThenOthersPersistedOneByOne() throws Exception {
+        doAnswer(invocation -> {
+            final List<Transaction> transactions = invocation.getArgument(0);
+
+            if (transactions.stream().anyMatch(transaction -> transaction.getAmount() == 2000)) {
+                throw new DataIntegrityViolationException("error");
+            }
+
+            return null;
+        }).when(transactionBatchService).insertAll(anyList());
+        start(100, 3, Duration.ofMinutes(1));
+
+        final var first = submit(1000);
+        final var failing = submit(2000);
+        final var third = submit(3000);
+
+        assertEquals(1000, first.get(5, TimeUnit.SECONDS).getAmount());
+        assertEquals(3000, third.get(5, TimeUnit.SECONDS).getAmount());
+        final var ex = assertThrows(ExecutionException.class, () -> failing.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DataIntegrityViolationException.class, ex.getCause());
+        verify(transactionBatchService, times(4)).insertAll(anyList());
+    }
+
+    /**
+     * GIVEN: a group that cannot be persisted
+     * WHEN: submit
+     * THEN: the future completes exceptionally
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    void givenPersistenceErrorWhenSubmitThenFailedFuture() throws Exception {
+        doThrow(new DataIntegrityViolationException("error")).when(transactionBatchService).insertAll(anyList());
+        start(100, 1, Duration.ofMinutes(1));
+
+        final var future = submit(1000);
+
+        final var ex = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DataIntegrityViolationException.class, ex.getCause());
+    }
+
+    /**
+     * GIVEN: an invalid transaction
+     * WHEN: submit
+     * THEN: TransactionException
+     */
+    @Test
+    void givenInvalidTransactionWhenSubmitThenTransactionException() {
+        start(100, 100, Duration.ofMinutes(1));
+
+        assertThrows(TransactionException.class, () -> transactionIngestionService.submit(null));
+        assertThrows(TransactionException.class, () -> transactionIngestionService.submit(
+                new Transaction(null, null, 1000, " ")));
+        assertThrows(TransactionException.class, () -> transactionIngestionService.submit(
+                new Transaction(null, null, 1000, "x".repeat(TransactionService.DESCRIPTION_MAX_LENGTH + 1))));
+        assertEquals(0, transactionIngestionService.getQueueSize());
+    }
+
+    private void start(final int queueCapacity, final int groupSize, final Duration maxDelay) {
+        transactionIngestionService = new TransactionIngestionService(transactionBatchService,
+                new IngestionProperties(queueCapacity, groupSize, maxDelay));
+        transactionIngestionService.start();
+    }
+
+    private CompletableFuture<Transaction> submit(final long amount) throws TransactionException {
+        return transactionIngestionService.submit(new Transaction(null, null, amount, "description"));
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.model.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import dev.georgethepenguin.render.poc.config.cache.CacheConfig;
+import dev.georgethepenguin.render.poc.config.pagination.PaginationProperties;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.model.exception.TransactionException;
+import dev.georgethepenguin.render.poc.model.repository.BalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.DailyBalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.IdempotencyKeyRepository;
+import dev.georgethepenguin.render.poc.model.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The tests for the cache of the transaction service.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@SpringBootTest(classes = TransactionServiceCacheTest.Config.class, properties = {
+        "spring.cache.type=caffeine",
+        "spring.cache.cache-names=" + CacheConfig.TRANSACTIONS_CACHE,
+        "spring.cache.caffeine.spec=maximumSize=10,recordStats"})
+class TransactionServiceCacheTest {
+
+    @MockBean
+    private TransactionRepository transactionRepository;
+
+    @MockBean
+    private BalanceRepository balanceRepository;
+
+    @MockBean
+    private DailyBalanceRepository dailyBalanceRepository;
+
+    @MockBean
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final UUID uuid = UUID.randomUUID();
+
+    /**
+     * Stubs the repository.
+     */
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> Optional.of(new Transaction(invocation.getArgument(0, UUID.class), LocalDateTime.now(),
+                2050, "description")))
+                .when(transactionRepository).findById(any(UUID.class));
+    }
+
+    /**
+     * GIVEN: a cached transaction
+     * WHEN: findById
+     * THEN: the repository is not called again
+     */
+    @Test
+    void givenCachedTransactionWhenFindByIdThenRepositoryNotCalled() {
+        final var before = nativeCache().stats();
+
+        final var first = transactionService.findById(uuid);
+        final var second = transactionService.findById(uuid);
+
+        assertTrue(first.isPresent());
+        assertSame(first.get(), second.orElseThrow());
+        final var stats = nativeCache().stats().minus(before);
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+
+        verify(transactionRepository, times(1)).findById(uuid);
+    }
+
+    /**
+     * GIVEN: a no existing transaction
+     * WHEN: findById
+     * THEN: the miss is not cached
+     */
+    @Test
+    void givenNoExistingTransactionWhenFindByIdThenNotCached() {
+        doReturn(Optional.empty()).when(transactionRepository).findById(uuid);
+
+        assertTrue(transactionService.findById(uuid).isEmpty());
+        assertTrue(transactionService.findById(uuid).isEmpty());
+
+        verify(transactionRepository, times(2)).findById(uuid);
+    }
+
+    /**
+     * GIVEN: a cached transaction
+     * WHEN: update, then deleteById
+     * THEN: the entry is refreshed with the new version, then evicted
+     *
+     * @throws TransactionException if an error occurs
+     */
+    @Test
+    void givenCachedTransactionWhenUpdateOrDeleteThenRefreshedOrEvicted() throws TransactionException {
+        doReturn(1).when(transactionRepository).updateByIdAndVersion(any(UUID.class), anyLong(),
+                any(LocalDateTime.class), anyLong(), anyString());
+        doReturn(1).when(transactionRepository).removeById(any(UUID.class));
+
+        transactionService.findById(uuid);
+        transactionService.update(new Transaction(uuid, null, 525, "new description"), 0L);
+        final var updated = transactionService.findById(uuid).orElseThrow();
+        transactionService.deleteById(uuid);
+        transactionService.findById(uuid);
+
+        assertEquals(1, updated.getVersion());
+        assertEquals("new description", updated.getDescription());
+        verify(transactionRepository, times(2)).findById(uuid);
+    }
+
+    /**
+     * GIVEN: a read that started before an update or a delete committed
+     * WHEN: it caches the previous state afterwards
+     * THEN: the newer version or the deletion is kept
+     *
+     * @throws TransactionException if an error occurs
+     */
+    @Test
+    void givenStaleReadWhenPutAfterWriteThenIgnored() throws TransactionException {
+        doReturn(1).when(transactionRepository).updateByIdAndVersion(any(UUID.class), anyLong(),
+                any(LocalDateTime.class), anyLong(), anyString());
+        doReturn(1).when(transactionRepository).removeById(any(UUID.class));
+        final var cache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.TRANSACTIONS_CACHE));
+        final var stale = new Transaction(uuid, LocalDateTime.now(), 2050, "description", 0);
+
+        transactionService.update(new Transaction(uuid, null, 525, "new description"), 0L);
+        cache.put(uuid, stale);
+
+        assertEquals(1, transactionService.findById(uuid).orElseThrow().getVersion());
+
+        transactionService.deleteById(uuid);
+        cache.put(uuid, stale);
+        transactionService.findById(uuid);
+
+        verify(transactionRepository).findById(uuid);
+    }
+
+    /**
+     * GIVEN: a new transaction
+     * WHEN: create
+     * THEN: the created transaction is cached
+     *
+     * @throws TransactionException if an error occurs
+     */
+    @Test
+    void givenNewTransactionWhenCreateThenCached() throws TransactionException {
+        doAnswer(invocation -> {
+            final var transaction = invocation.getArgument(0, Transaction.class);
+            transaction.setId(uuid);
+            return transaction;
+        }).when(transactionRepository).save(any(Transaction.class));
+
+        final var created = transactionService.create(new Transaction(null, null, 2050, "description"));
+
+        assertSame(created, transactionService.findById(uuid).orElseThrow());
+
+        verify(transactionRepository, never()).findById(uuid);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> nativeCache() {
+        return (Cache<Object, Object>) Objects.requireNonNull(cacheManager.getCache(CacheConfig.TRANSACTIONS_CACHE))
+                .getNativeCache();
+    }
+
+    /**
+     * The configuration of the service under test.
+     */
+    @Configuration
+    @EnableConfigurationProperties(PaginationProperties.class)
+    @ImportAutoConfiguration(CacheAutoConfiguration.class)
+    @Import({CacheConfig.class, TransactionService.class})
+    static class Config {
+    }
+}
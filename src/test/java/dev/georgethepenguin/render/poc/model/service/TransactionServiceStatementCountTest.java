@@ -0,0 +1,219 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.georgethepenguin.render.poc.model.service;
+
+import dev.georgethepenguin.render.poc.config.pagination.PaginationProperties;
+import dev.georgethepenguin.render.poc.model.entity.Balance;
+import dev.georgethepenguin.render.poc.model.entity.DailyBalance;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.model.exception.TransactionException;
+import dev.georgethepenguin.render.poc.model.repository.BalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.DailyBalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.TransactionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The tests for the number of SQL statements that each transaction service operation executes.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionServiceStatementCountTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BalanceRepository balanceRepository;
+
+    @Autowired
+    private DailyBalanceRepository dailyBalanceRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    /**
+     * Initializes the ledger balance, the daily balance of today and the statistics.
+     */
+    @BeforeEach
+    void setUp() {
+        balanceRepository.save(new Balance(Balance.LEDGER_ID, 0));
+        dailyBalanceRepository.save(new DailyBalance(LocalDate.now(), 0, 0));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    /**
+     * Removes the data of the test, resetting the ledger balance that the migrations seed.
+     */
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAllInBatch();
+        balanceRepository.save(new Balance(Balance.LEDGER_ID, 0));
+        dailyBalanceRepository.deleteAllInBatch();
+    }
+
+    /**
+     * GIVEN: a new transaction
+     * WHEN: create
+     * THEN: one insert, one balance update and one daily balance update
+     *
+     * @throws TransactionException if an error occurs
+     */
+    @Test
+    void givenNewTransactionWhenCreateThenThreeStatements() throws TransactionException {
+        transactionService.create(new Transaction(null, null, 2050, "description"));
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(2050, transactionService.getCurrentBalance());
+        assertEquals(Optional.of(1L), transactionService.getLedgerVersion());
+        assertDailyBalance(2050, 1);
+    }
+
+    /**
+     * GIVEN: a new transaction and no daily balance for today
+     * WHEN: create
+     * THEN: the daily balance of today is inserted
+     *
+     * @throws TransactionException if an error occurs
+     */
+    @Test
+    void givenNoDailyBalanceWhenCreateThenDailyBalanceInserted() throws TransactionException {
+        dailyBalanceRepository.deleteAllInBatch();
+        statistics.clear();
+
+        transactionService.create(new Transaction(null, null, 2050, "description"));
+
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertDailyBalance(2050, 1);
+    }
+
+    /**
+     * GIVEN: an existing transaction
+     * WHEN: update with the expected version
+     * THEN: one balance update, two daily balance updates and one transaction update, without loading the transaction
+     *
+     * @throws TransactionException if an error occurs
+     */
+    @Test
+    void givenExistingTransactionWhenUpdateThenFourStatements() throws TransactionException {
+        final var created = transactionService.create(new Transaction(null, null, 2050, "description"));
+        statistics.clear();
+
+        transactionService.update(new Transaction(created.getId(), null, 525, "new description"),
+                created.getVersion());
+
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        final var updated = transactionService.findById(created.getId()).orElseThrow();
+        assertEquals(525, updated.getAmount());
+        assertEquals(created.getVersion() + 1, updated.getVersion());
+        assertEquals("new description", updated.getDescription());
+        assertEquals(525, transactionService.getCurrentBalance());
+        assertDailyBalance(525, 1);
+    }
+
+    /**
+     * GIVEN: a no existing transaction
+     * WHEN: blind update
+     * THEN: TransactionException after looking up its version, and the balances do not change
+     */
+    @Test
+    void givenNoExistingTransactionWhenUpdateThenTransactionException() {
+        assertThrows(TransactionException.class, () ->
+                transactionService.update(new Transaction(UUID.randomUUID(), null, 525, "description"), null));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, transactionService.getCurrentBalance());
+        assertDailyBalance(0, 0);
+    }
+
+    /**
+     * GIVEN: an existing transaction
+     * WHEN: deleteById
+     * THEN: one balance update, one daily balance update and one delete, without loading the transaction
+     *
+     * @throws TransactionException if an error occurs
+     */
+    @Test
+    void givenExistingTransactionWhenDeleteByIdThenThreeStatements() throws TransactionException {
+        final var created = transactionService.create(new Transaction(null, null, 2050, "description"));
+        transactionService.create(new Transaction(null, null, 1000, "description"));
+        statistics.clear();
+
+        transactionService.deleteById(created.getId());
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertTrue(transactionService.findById(created.getId()).isEmpty());
+        assertEquals(1000, transactionService.getCurrentBalance());
+        assertDailyBalance(1000, 1);
+    }
+
+    private void assertDailyBalance(final long totalAmount, final long transactionCount) {
+        final var dailyBalance = dailyBalanceRepository.findById(LocalDate.now()).orElseThrow();
+        assertEquals(totalAmount, dailyBalance.getTotalAmount());
+        assertEquals(transactionCount, dailyBalance.getTransactionCount());
+    }
+
+    /**
+     * The configuration of the service under test.
+     */
+    @TestConfiguration
+    @EnableConfigurationProperties(PaginationProperties.class)
+    @Import(TransactionService.class)
+    static class Config {
+    }
+}
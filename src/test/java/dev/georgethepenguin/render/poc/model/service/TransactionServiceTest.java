@@ -25,19 +25,30 @@
 
 package dev.georgethepenguin.render.poc.model.service;
 
+import dev.georgethepenguin.render.poc.config.pagination.PaginationProperties;
+import dev.georgethepenguin.render.poc.model.dto.TransactionChange;
+import dev.georgethepenguin.render.poc.model.dto.TransactionCursor;
+import dev.georgethepenguin.render.poc.model.dto.TransactionFilter;
+import dev.georgethepenguin.render.poc.model.entity.IdempotencyKey;
 import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.model.exception.TransactionConflictException;
 import dev.georgethepenguin.render.poc.model.exception.TransactionException;
+import dev.georgethepenguin.render.poc.model.exception.TransactionPreconditionFailedException;
+import dev.georgethepenguin.render.poc.model.repository.BalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.DailyBalanceRepository;
+import dev.georgethepenguin.render.poc.model.repository.IdempotencyKeyRepository;
 import dev.georgethepenguin.render.poc.model.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -58,9 +69,29 @@ class TransactionServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
-    @InjectMocks
+    @Mock
+    private BalanceRepository balanceRepository;
+
+    @Mock
+    private DailyBalanceRepository dailyBalanceRepository;
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
     private TransactionService transactionService;
 
+    /**
+     * Builds the service under test.
+     */
+    @BeforeEach
+    void setUp() {
+        transactionService = new TransactionService(transactionRepository, balanceRepository, dailyBalanceRepository,
+                idempotencyKeyRepository, new PaginationProperties(2, 3), applicationEventPublisher);
+    }
+
     /**
      * GIVEN: a null transaction
      * WHEN: create
@@ -97,6 +128,19 @@ class TransactionServiceTest {
         assertThrows(TransactionException.class, () -> transactionService.create(transaction));
     }
 
+    /**
+     * GIVEN: a transaction with a description longer than its column
+     * WHEN: create
+     * THEN: TransactionException
+     */
+    @Test
+    void givenTooLongDescriptionWhenCreateThenTransactionException() {
+        final var transaction = new Transaction();
+        transaction.setDescription("x".repeat(TransactionService.DESCRIPTION_MAX_LENGTH + 1));
+
+        assertThrows(TransactionException.class, () -> transactionService.create(transaction));
+    }
+
     /**
      * GIVEN: a valid transaction
      * WHEN: create
@@ -113,7 +157,7 @@ class TransactionServiceTest {
         }).when(transactionRepository).save(Mockito.any(Transaction.class));
 
         final var transaction = new Transaction();
-        transaction.setAmount(20.50);
+        transaction.setAmount(2050);
         transaction.setDescription("description");
 
         final var result = transactionService.create(transaction);
@@ -124,6 +168,52 @@ class TransactionServiceTest {
         assertEquals(transaction.getDescription(), result.getDescription());
 
         verify(transactionRepository).save(Mockito.any(Transaction.class));
+        verify(balanceRepository).addToLedger(2050);
+        verify(applicationEventPublisher).publishEvent(TransactionChange.created(result));
+    }
+
+    /**
+     * GIVEN: a valid transaction with a new idempotency key
+     * WHEN: createIdempotent
+     * THEN: the transaction is created and the key is recorded with it
+     *
+     * @throws TransactionException if an error occurs
+     */
+    @Test
+    void givenNewKeyWhenCreateIdempotentThenCreatedAndKeyRecorded() throws TransactionException {
+        doAnswer(invocation -> {
+            final var transaction = invocation.getArgument(0, Transaction.class);
+            transaction.setId(UUID.randomUUID());
+            return transaction;
+        }).when(transactionRepository).save(Mockito.any(Transaction.class));
+
+        final var result = transactionService.createIdempotent("key", new Transaction(null, null, 2050, "description"));
+
+        verify(idempotencyKeyRepository).insertKey("key", result.getId(), result.getCreatedAt());
+        verify(balanceRepository).addToLedger(2050);
+    }
+
+    /**
+     * GIVEN: an idempotency key that has already been used
+     * WHEN: createIdempotent
+     * THEN: the transaction created with the key is returned and nothing is created
+     *
+     * @throws TransactionException if an error occurs
+     */
+    @Test
+    void givenUsedKeyWhenCreateIdempotentThenFirstTransaction() throws TransactionException {
+        final var first = new Transaction(UUID.randomUUID(), LocalDateTime.now(), 2050, "description");
+        doReturn(Optional.of(new IdempotencyKey("key", first.getId(), first.getCreatedAt())))
+                .when(idempotencyKeyRepository).findById("key");
+        doReturn(Optional.of(first)).when(transactionRepository).findById(first.getId());
+
+        assertSame(first, transactionService.createIdempotent("key", new Transaction(null, null, 100, "retry")));
+
+        verify(transactionRepository, never()).save(Mockito.any(Transaction.class));
+        verify(idempotencyKeyRepository, never()).insertKey(anyString(), any(UUID.class), any(LocalDateTime.class));
+
+        doReturn(Optional.empty()).when(transactionRepository).findById(first.getId());
+        assertThrows(TransactionException.class, () -> transactionService.createIdempotent("key", first));
     }
 
     /**
@@ -133,7 +223,7 @@ class TransactionServiceTest {
      */
     @Test
     void givenNullTransactionWhenUpdateThenTransactionException() {
-        assertThrows(TransactionException.class, () -> transactionService.update(null));
+        assertThrows(TransactionException.class, () -> transactionService.update(null, null));
     }
 
     /**
@@ -143,7 +233,7 @@ class TransactionServiceTest {
      */
     @Test
     void givenNullIdWhenUpdateThenTransactionException() {
-        assertThrows(TransactionException.class, () -> transactionService.update(new Transaction()));
+        assertThrows(TransactionException.class, () -> transactionService.update(new Transaction(), null));
     }
 
     /**
@@ -157,7 +247,7 @@ class TransactionServiceTest {
         transaction.setId(UUID.randomUUID());
         transaction.setDescription("");
 
-        assertThrows(TransactionException.class, () -> transactionService.update(transaction));
+        assertThrows(TransactionException.class, () -> transactionService.update(transaction, null));
     }
 
     /**
@@ -167,44 +257,103 @@ class TransactionServiceTest {
      */
     @Test
     void givenNoExistingIdWhenUpdateThenTransactionException() {
-        doReturn(false).when(transactionRepository).existsById(Mockito.any(UUID.class));
+        doReturn(0).when(transactionRepository).updateByIdAndVersion(Mockito.any(UUID.class), Mockito.anyLong(),
+                Mockito.any(LocalDateTime.class), Mockito.anyLong(), Mockito.anyString());
 
         final var transaction = new Transaction();
         transaction.setId(UUID.randomUUID());
         transaction.setDescription("description");
 
-        assertThrows(TransactionException.class, () -> transactionService.update(transaction));
+        final var ex = assertThrows(TransactionException.class, () -> transactionService.update(transaction, 3L));
+        assertFalse(ex instanceof TransactionConflictException);
 
-        verify(transactionRepository).existsById(Mockito.any(UUID.class));
+        verify(balanceRepository).replaceInLedger(transaction.getId(), 0);
+        verify(transactionRepository).updateByIdAndVersion(Mockito.eq(transaction.getId()), Mockito.eq(3L),
+                Mockito.any(LocalDateTime.class), Mockito.anyLong(), Mockito.anyString());
     }
 
     /**
-     * GIVEN: a valid transaction
+     * GIVEN: a blind update of a transaction with no existing id
      * WHEN: update
-     * THEN: successful
+     * THEN: TransactionException, without updating the balances
+     */
+    @Test
+    void givenNoExistingIdWhenBlindUpdateThenTransactionException() {
+        final var transaction = new Transaction(UUID.randomUUID(), null, 2050, "description");
+
+        assertThrows(TransactionException.class, () -> transactionService.update(transaction, null));
+
+        verify(transactionRepository).findVersionById(transaction.getId());
+        verifyNoInteractions(balanceRepository);
+    }
+
+    /**
+     * GIVEN: a transaction updated since the expected version
+     * WHEN: update
+     * THEN: TransactionPreconditionFailedException
+     */
+    @Test
+    void givenOtherVersionWhenUpdateThenTransactionPreconditionFailedException() {
+        doReturn(0).when(transactionRepository).updateByIdAndVersion(Mockito.any(UUID.class), Mockito.anyLong(),
+                Mockito.any(LocalDateTime.class), Mockito.anyLong(), Mockito.anyString());
+        final var transaction = new Transaction(UUID.randomUUID(), null, 2050, "description");
+        doReturn(true).when(transactionRepository).existsById(transaction.getId());
+
+        final var ex = assertThrows(TransactionPreconditionFailedException.class,
+                () -> transactionService.update(transaction, 3L));
+        // The metric tag is the message before the colon, so it must not contain the version
+        assertTrue(ex.getMessage().startsWith("The transaction has been updated since the expected version: "));
+    }
+
+    /**
+     * GIVEN: a transaction updated while a blind update is running
+     * WHEN: blind update
+     * THEN: TransactionConflictException, not a failed precondition
+     */
+    @Test
+    void givenConcurrentUpdateWhenBlindUpdateThenTransactionConflictException() {
+        doReturn(0).when(transactionRepository).updateByIdAndVersion(Mockito.any(UUID.class), Mockito.anyLong(),
+                Mockito.any(LocalDateTime.class), Mockito.anyLong(), Mockito.anyString());
+        final var transaction = new Transaction(UUID.randomUUID(), null, 2050, "description");
+        doReturn(Optional.of(3L)).when(transactionRepository).findVersionById(transaction.getId());
+        doReturn(true).when(transactionRepository).existsById(transaction.getId());
+
+        final var ex = assertThrows(TransactionConflictException.class,
+                () -> transactionService.update(transaction, null));
+        assertFalse(ex instanceof TransactionPreconditionFailedException);
+    }
+
+    /**
+     * GIVEN: a valid transaction
+     * WHEN: blind update
+     * THEN: successful, based on the current version
      *
      * @throws TransactionException if an error occurs
      */
     @Test
     void givenValidTransactionWhenUpdateThenSuccessful() throws TransactionException {
-        doReturn(true).when(transactionRepository).existsById(Mockito.any(UUID.class));
-        doAnswer(invocation -> invocation.getArgument(0, Transaction.class))
-                .when(transactionRepository).save(Mockito.any(Transaction.class));
+        doReturn(1).when(transactionRepository).updateByIdAndVersion(Mockito.any(UUID.class), Mockito.anyLong(),
+                Mockito.any(LocalDateTime.class), Mockito.anyLong(), Mockito.anyString());
 
         final var transaction = new Transaction();
         transaction.setId(UUID.randomUUID());
-        transaction.setAmount(20.50);
+        transaction.setAmount(2050);
         transaction.setDescription("description");
+        doReturn(Optional.of(4L)).when(transactionRepository).findVersionById(transaction.getId());
 
-        final var result = transactionService.update(transaction);
+        final var result = transactionService.update(transaction, null);
 
         assertEquals(transaction.getId(), result.getId());
         assertNotNull(result.getCreatedAt());
         assertEquals(transaction.getAmount(), result.getAmount());
         assertEquals(transaction.getDescription(), result.getDescription());
+        assertEquals(5, result.getVersion());
 
-        verify(transactionRepository).existsById(Mockito.any(UUID.class));
-        verify(transactionRepository).save(Mockito.any(Transaction.class));
+        final var inOrder = inOrder(balanceRepository, transactionRepository);
+        inOrder.verify(balanceRepository).replaceInLedger(transaction.getId(), 2050);
+        inOrder.verify(transactionRepository).updateByIdAndVersion(transaction.getId(), 4L, result.getCreatedAt(),
+                2050, "description");
+        verify(applicationEventPublisher).publishEvent(TransactionChange.updated(result));
     }
 
     /**
@@ -215,7 +364,7 @@ class TransactionServiceTest {
     @Test
     void givenIdWhenFindByIdThenSuccessful() {
         doAnswer(invocation -> Optional.of(new Transaction(invocation.getArgument(0, UUID.class),
-                LocalDateTime.now(), 20.50, "description")))
+                LocalDateTime.now(), 2050, "description")))
                 .when(transactionRepository).findById(Mockito.any(UUID.class));
 
         final var uuid = UUID.randomUUID();
@@ -224,33 +373,111 @@ class TransactionServiceTest {
         assertTrue(result.isPresent());
         assertEquals(uuid, result.get().getId());
         assertNotNull(result.get().getCreatedAt());
-        assertEquals(20.50, result.get().getAmount());
+        assertEquals(2050, result.get().getAmount());
         assertEquals("description", result.get().getDescription());
 
         verify(transactionRepository).findById(Mockito.any(UUID.class));
     }
 
     /**
-     * GIVEN: only the method call
+     * GIVEN: more transactions than the page size
      * WHEN: findAll
-     * THEN: successful
+     * THEN: the first page with the cursor of the next page
      */
     @Test
-    void givenMethodCallWhenFindAllThenSuccessful() {
+    void givenMoreTransactionsThanPageSizeWhenFindAllThenPageWithNextCursor() {
         final var transactions = new ArrayList<>(List.of(
-                new Transaction(UUID.randomUUID(), LocalDateTime.now(), 20.50, "description 1"),
-                new Transaction(UUID.randomUUID(), LocalDateTime.now(), 30.50, "description 2")
+                new Transaction(UUID.randomUUID(), LocalDateTime.now(), 2050, "description 1"),
+                new Transaction(UUID.randomUUID(), LocalDateTime.now().minusMinutes(1), 3050, "description 2"),
+                new Transaction(UUID.randomUUID(), LocalDateTime.now().minusMinutes(2), 4050, "description 3")
         ));
 
-        transactions.sort(Comparator.comparing(Transaction::getCreatedAt).reversed());
+        doReturn(transactions).when(transactionRepository).findFirstPage(Mockito.any(Pageable.class));
 
-        doReturn(transactions).when(transactionRepository).findAllOrderByCreatedAtDesc();
+        final var result = transactionService.findAll(TransactionFilter.NONE, null, null);
 
-        final var result = transactionService.findAll();
+        assertIterableEquals(transactions.subList(0, 2), result.content());
+        assertNotNull(result.next());
 
-        assertIterableEquals(transactions, result);
+        final var next = TransactionCursor.decode(result.next());
+        assertEquals(transactions.get(1).getCreatedAt(), next.createdAt());
+        assertEquals(transactions.get(1).getId(), next.id());
 
-        verify(transactionRepository).findAllOrderByCreatedAtDesc();
+        verify(transactionRepository).findFirstPage(Pageable.ofSize(3));
+    }
+
+    /**
+     * GIVEN: a cursor
+     * WHEN: findAll
+     * THEN: the page after the cursor without next cursor
+     */
+    @Test
+    void givenCursorWhenFindAllThenLastPage() {
+        final var cursor = new TransactionCursor(LocalDateTime.now(), UUID.randomUUID());
+        final var transactions = List.of(
+                new Transaction(UUID.randomUUID(), cursor.createdAt().minusMinutes(1), 2050, "description 1"));
+
+        doReturn(transactions).when(transactionRepository)
+                .findPageAfter(cursor.createdAt(), cursor.id(), Pageable.ofSize(4));
+
+        final var result = transactionService.findAll(TransactionFilter.NONE, cursor.encode(), 10);
+
+        assertIterableEquals(transactions, result.content());
+        assertNull(result.next());
+
+        verify(transactionRepository).findPageAfter(cursor.createdAt(), cursor.id(), Pageable.ofSize(4));
+    }
+
+    /**
+     * GIVEN: a filter and a cursor
+     * WHEN: findAll
+     * THEN: the page is searched with the filter after the cursor
+     */
+    @Test
+    void givenFilterAndCursorWhenFindAllThenSearched() {
+        final var cursor = new TransactionCursor(LocalDateTime.now(), UUID.randomUUID());
+        final var filter = new TransactionFilter(null, null, 1000L, null, "desc");
+        final var transactions = List.of(
+                new Transaction(UUID.randomUUID(), cursor.createdAt().minusMinutes(1), 2050, "description 1"));
+
+        doReturn(transactions).when(transactionRepository).search(filter, cursor, 3);
+
+        final var result = transactionService.findAll(filter, cursor.encode(), null);
+
+        assertIterableEquals(transactions, result.content());
+        assertNull(result.next());
+
+        verify(transactionRepository).search(filter, cursor, 3);
+        verify(transactionRepository, never()).findPageAfter(any(), any(), any());
+    }
+
+    /**
+     * GIVEN: an empty date time or amount range
+     * WHEN: the filter is built
+     * THEN: IllegalArgumentException
+     */
+    @Test
+    void givenEmptyRangeWhenFilterThenIllegalArgumentException() {
+        final var now = LocalDateTime.now();
+
+        assertThrows(IllegalArgumentException.class, () -> new TransactionFilter(now, now, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> new TransactionFilter(null, null, 200L, 100L, null));
+        assertTrue(new TransactionFilter(null, null, null, null, "  ").isEmpty());
+    }
+
+    /**
+     * GIVEN: an invalid cursor or size
+     * WHEN: findAll
+     * THEN: IllegalArgumentException
+     */
+    @Test
+    void givenInvalidCursorOrSizeWhenFindAllThenIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.findAll(TransactionFilter.NONE, "not a cursor", null));
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.findAll(TransactionFilter.NONE, null, 0));
+
+        verifyNoInteractions(transactionRepository);
     }
 
     /**
@@ -270,11 +497,13 @@ class TransactionServiceTest {
      */
     @Test
     void givenNoExistingIdWhenDeleteByIdThenTransactionException() {
-        doReturn(false).when(transactionRepository).existsById(Mockito.any(UUID.class));
+        doReturn(0).when(transactionRepository).removeById(Mockito.any(UUID.class));
 
         assertThrows(TransactionException.class, () -> transactionService.deleteById(UUID.randomUUID()));
 
-        verify(transactionRepository).existsById(Mockito.any(UUID.class));
+        verify(balanceRepository).removeFromLedger(Mockito.any(UUID.class));
+        verify(transactionRepository).removeById(Mockito.any(UUID.class));
+        verifyNoInteractions(applicationEventPublisher);
     }
 
     /**
@@ -286,28 +515,49 @@ class TransactionServiceTest {
      */
     @Test
     void givenIdWhenDeleteByIdThenSuccessful() throws TransactionException {
-        doReturn(true).when(transactionRepository).existsById(Mockito.any(UUID.class));
-        doNothing().when(transactionRepository).deleteById(Mockito.any(UUID.class));
+        final var uuid = UUID.randomUUID();
+        doReturn(1).when(transactionRepository).removeById(uuid);
 
-        transactionService.deleteById(UUID.randomUUID());
+        transactionService.deleteById(uuid);
 
-        verify(transactionRepository).existsById(Mockito.any(UUID.class));
-        verify(transactionRepository).deleteById(Mockito.any(UUID.class));
+        final var inOrder = inOrder(balanceRepository, transactionRepository);
+        inOrder.verify(balanceRepository).removeFromLedger(uuid);
+        inOrder.verify(transactionRepository).removeById(uuid);
+        verify(applicationEventPublisher).publishEvent(TransactionChange.deleted(uuid));
     }
 
     /**
-     * GIVEN: only the method call
+     * GIVEN: an initialized ledger balance
      * WHEN: getCurrentBalance
-     * THEN: successful
+     * THEN: the ledger balance without summing the transactions
+     */
+    @Test
+    void givenLedgerBalanceWhenGetCurrentBalanceThenSuccessful() {
+        doReturn(Optional.of(4530L)).when(balanceRepository).findLedgerAmount();
+
+        final var result = transactionService.getCurrentBalance();
+
+        assertEquals(4530, result);
+
+        verify(balanceRepository).findLedgerAmount();
+        verifyNoInteractions(transactionRepository);
+    }
+
+    /**
+     * GIVEN: no ledger balance
+     * WHEN: getCurrentBalance
+     * THEN: the sum of the transactions
      */
     @Test
-    void givenMethodCallWhenGetCurrentBalanceThenSuccessful() {
-        doReturn(45.3).when(transactionRepository).sumByAmount();
+    void givenNoLedgerBalanceWhenGetCurrentBalanceThenSumOfTransactions() {
+        doReturn(Optional.empty()).when(balanceRepository).findLedgerAmount();
+        doReturn(4530L).when(transactionRepository).sumByAmount();
 
         final var result = transactionService.getCurrentBalance();
 
-        assertEquals(45.3, result);
+        assertEquals(4530, result);
 
+        verify(balanceRepository).findLedgerAmount();
         verify(transactionRepository).sumByAmount();
     }
 }
\ No newline at end of file
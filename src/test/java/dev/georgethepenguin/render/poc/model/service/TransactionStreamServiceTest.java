@@ -0,0 +1,346 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.model.service;
+
+import dev.georgethepenguin.render.poc.config.stream.StreamProperties;
+import dev.georgethepenguin.render.poc.controller.rest.TransactionStreamRestController;
+import dev.georgethepenguin.render.poc.model.dto.TransactionChange;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * The unit tests for the transaction stream service, through the servlet response of its REST controller.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionStreamServiceTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("^id:(.+)$", Pattern.MULTILINE);
+
+    @Mock
+    private TransactionService transactionService;
+
+    private TransactionStreamService transactionStreamService;
+
+    private MockMvc mockMvc;
+
+    /**
+     * GIVEN: a subscriber
+     * WHEN: a transaction change is committed
+     * THEN: the subscriber receives it with the balance right after it
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    void givenSubscriberWhenTransactionChangeThenEventWithBalance() throws Exception {
+        setUp(10, 10, Runnable::run);
+        final var response = subscribe(null);
+        final var transaction = new Transaction(UUID.randomUUID(), LocalDateTime.now(), 2050, "description");
+        doReturn(12050L).when(transactionService).getCurrentBalance();
+
+        commit(() -> transactionStreamService.onTransactionChange(TransactionChange.created(transaction)));
+
+        final var content = response.getContentAsString();
+        assertTrue(content.contains("event:created"));
+        assertTrue(content.contains("\"transactionId\":\"" + transaction.getId() + "\""));
+        assertTrue(content.contains("\"balance\":120.50"));
+        assertEquals(1, eventIds(content).size());
+    }
+
+    /**
+     * GIVEN: a subscriber
+     * WHEN: a database transaction with several changes is committed
+     * THEN: the balance is read once, and every change is sent with the balance after the commit
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    void givenSeveralChangesWhenCommitThenBalanceReadOnce() throws Exception {
+        setUp(10, 10, Runnable::run);
+        final var response = subscribe(null);
+        doReturn(3000L).when(transactionService).getCurrentBalance();
+
+        commit(() -> {
+            for (var i = 0; i < 3; i++) {
+                transactionStreamService.onTransactionChange(TransactionChange.created(
+                        new Transaction(UUID.randomUUID(), LocalDateTime.now(), 1000, "description")));
+            }
+        });
+
+        final var content = response.getContentAsString();
+        assertEquals(3, eventIds(content).size());
+        assertEquals(3, content.split("\"balance\":30.00", -1).length - 1);
+        verify(transactionService).getCurrentBalance();
+    }
+
+    /**
+     * GIVEN: no subscribers
+     * WHEN: a transaction change is committed, and a client resumes from an event before it
+     * THEN: the balance is not read, and the client gets a reset event
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    void givenNoSubscribersWhenTransactionChangeThenBalanceNotReadAndReset() throws Exception {
+        setUp(10, 10, Runnable::run);
+        final var first = subscribe(null);
+        publish(1);
+        final var lastEventId = eventIds(first.getContentAsString()).get(0);
+        transactionStreamService.completeAll();
+
+        commit(() -> transactionStreamService.onTransactionChange(TransactionChange.deleted(UUID.randomUUID())));
+
+        verify(transactionService, never()).getCurrentBalance();
+        assertTrue(isReset(subscribe(lastEventId)));
+    }
+
+    /**
+     * GIVEN: a transaction change outside a database transaction
+     * WHEN: it is received
+     * THEN: it is not published
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    void givenNoDatabaseTransactionWhenTransactionChangeThenNotPublished() throws Exception {
+        setUp(10, 10, Runnable::run);
+        final var response = subscribe(null);
+
+        transactionStreamService.onTransactionChange(TransactionChange.deleted(UUID.randomUUID()));
+
+        assertTrue(eventIds(response.getContentAsString()).isEmpty());
+        verify(transactionService, never()).getCurrentBalance();
+    }
+
+    /**
+     * GIVEN: a replay size greater than the buffer size
+     * WHEN: the stream properties are built
+     * THEN: an IllegalArgumentException
+     */
+    @Test
+    void givenReplaySizeGreaterThanBufferSizeWhenStreamPropertiesThenException() {
+        assertThrows(IllegalArgumentException.class, () -> new StreamProperties(11, 10, Duration.ofMinutes(1), 1));
+    }
+
+    /**
+     * GIVEN: a subscriber that reconnects with the id of the last event it received
+     * WHEN: subscribe
+     * THEN: the missed events are sent before the new ones, in order
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    void givenLastEventIdWhenSubscribeThenMissedEventsReplayed() throws Exception {
+        setUp(10, 10, Runnable::run);
+        final var first = subscribe(null);
+        publish(3);
+        final var ids = eventIds(first.getContentAsString());
+
+        final var resumed = subscribe(ids.get(0));
+        publish(1);
+
+        final var resumedIds = eventIds(resumed.getContentAsString());
+        assertEquals(3, resumedIds.size());
+        assertEquals(ids.subList(1, 3), resumedIds.subList(0, 2));
+        assertEquals(eventIds(first.getContentAsString()).get(3), resumedIds.get(2));
+    }
+
+    /**
+     * GIVEN: a last event id that is not in the replay buffer anymore, or from another run
+     * WHEN: subscribe
+     * THEN: a reset event
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    void givenUnknownLastEventIdWhenSubscribeThenReset() throws Exception {
+        setUp(2, 10, Runnable::run);
+        final var first = subscribe(null);
+        publish(4);
+        final var ids = eventIds(first.getContentAsString());
+
+        assertTrue(isReset(subscribe(ids.get(0))));
+        assertTrue(isReset(subscribe("other-1")));
+        assertFalse(isReset(subscribe(ids.get(1))));
+    }
+
+    /**
+     * GIVEN: a subscriber that does not keep up
+     * WHEN: more events than its buffer are published
+     * THEN: it is disconnected without blocking the publisher
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    void givenSlowSubscriberWhenBufferFullThenDisconnected() throws Exception {
+        final var pending = new ArrayList<Runnable>();
+        setUp(2, 2, pending::add);
+        subscribe(null);
+        assertEquals(1, transactionStreamService.getSubscriberCount());
+
+        publish(2);
+        assertEquals(1, transactionStreamService.getSubscriberCount());
+
+        publish(1);
+        assertEquals(0, transactionStreamService.getSubscriberCount());
+        assertEquals(1, pending.size());
+    }
+
+    /**
+     * GIVEN: a subscriber whose send is blocked on a stalled socket, holding the monitor of its emitter
+     * WHEN: it falls further behind than its buffer
+     * THEN: the publisher disconnects it without waiting for the send, and the other subscribers keep receiving
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    void givenBlockedSendWhenBufferFullThenPublisherNotBlocked() throws Exception {
+        final var executor = Executors.newCachedThreadPool();
+
+        try {
+            setUp(2, 2, executor);
+            final var stalled = transactionStreamService.subscribe(null);
+            final var healthy = subscribe(null);
+            final var sending = new CountDownLatch(1);
+            final var release = new CountDownLatch(1);
+            // ResponseBodyEmitter.send and complete are synchronized on the emitter
+            final var blockedSend = new Thread(() -> {
+                synchronized (stalled) {
+                    sending.countDown();
+
+                    try {
+                        release.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            blockedSend.start();
+            assertTrue(sending.await(5, TimeUnit.SECONDS));
+
+            for (var i = 1; i <= 4; i++) {
+                CompletableFuture.runAsync(() -> publish(1)).get(5, TimeUnit.SECONDS);
+                awaitEvents(healthy, i);
+            }
+
+            assertEquals(1, transactionStreamService.getSubscriberCount());
+
+            release.countDown();
+            blockedSend.join();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void setUp(final int replaySize, final int bufferSize, final Executor executor) {
+        transactionStreamService = new TransactionStreamService(transactionService,
+                new StreamProperties(replaySize, bufferSize, Duration.ofMinutes(1), 1), executor, false);
+        mockMvc = MockMvcBuilders.standaloneSetup(new TransactionStreamRestController(transactionStreamService))
+                .build();
+    }
+
+    private MockHttpServletResponse subscribe(final String lastEventId) throws Exception {
+        final var request = get("/api/transaction/stream");
+
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+
+        return mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    private void publish(final int count) {
+        for (var i = 0; i < count; i++) {
+            final var transaction = new Transaction(UUID.randomUUID(), LocalDateTime.now(), 1000, "description");
+            transactionStreamService.publish(List.of(TransactionChange.created(transaction)), 1000L);
+        }
+    }
+
+    private static void commit(final Runnable changes) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        try {
+            changes.run();
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void awaitEvents(final MockHttpServletResponse response, final int count) throws Exception {
+        final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (eventIds(response.getContentAsString()).size() < count) {
+            assertTrue(System.nanoTime() < deadline, "The subscriber did not receive " + count + " events");
+            Thread.sleep(10);
+        }
+    }
+
+    private static boolean isReset(final MockHttpServletResponse response) throws Exception {
+        return response.getContentAsString().contains("event:" + TransactionStreamService.RESET_EVENT);
+    }
+
+    private static List<String> eventIds(final String content) {
+        return EVENT_ID.matcher(content).results().map(result -> result.group(1)).toList();
+    }
+}
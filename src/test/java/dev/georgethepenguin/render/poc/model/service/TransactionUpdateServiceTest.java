@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 Jorge Garcia - George the Penguin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.georgethepenguin.render.poc.model.service;
+
+import dev.georgethepenguin.render.poc.config.update.UpdateProperties;
+import dev.georgethepenguin.render.poc.model.entity.Transaction;
+import dev.georgethepenguin.render.poc.model.exception.TransactionConflictException;
+import dev.georgethepenguin.render.poc.model.exception.TransactionException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * The unit tests for the transaction update service.
+ *
+ * @author Jorge Garcia - George the Penguin
+ * @version 1.0.0
+ * @since 17
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionUpdateServiceTest {
+
+    @Mock
+    private TransactionService transactionService;
+
+    private final Transaction transaction = new Transaction(UUID.randomUUID(), null, 2050, "description");
+
+    /**
+     * GIVEN: a blind update that conflicts twice, and two retries
+     * WHEN: update
+     * THEN: the third attempt updates the transaction
+     *
+     * @throws TransactionException if an error occurs
+     */
+    @Test
+    void givenConflictingBlindUpdateWhenUpdateThenRetried() throws TransactionException {
+        doThrow(new TransactionConflictException("conflict"))
+                .doThrow(new CannotAcquireLockException("deadlock"))
+                .doReturn(transaction)
+                .when(transactionService).update(same(transaction), isNull());
+
+        assertSame(transaction, transactionUpdateService(2).update(transaction, null));
+
+        verify(transactionService, times(3)).update(same(transaction), isNull());
+    }
+
+    /**
+     * GIVEN: a blind update that keeps conflicting
+     * WHEN: update
+     * THEN: TransactionConflictException once the retries run out
+     *
+     * @throws TransactionException if an error occurs
+     */
+    @Test
+    void givenAlwaysConflictingBlindUpdateWhenUpdateThenTransactionConflictException() throws TransactionException {
+        doThrow(new TransactionConflictException("conflict")).when(transactionService).update(same(transaction),
+                isNull());
+
+        assertThrows(TransactionConflictException.class, () -> transactionUpdateService(1).update(transaction, null));
+
+        verify(transactionService, times(2)).update(same(transaction), isNull());
+    }
+
+    /**
+     * GIVEN: a conflicting update with an expected version
+     * WHEN: update
+     * THEN: TransactionConflictException without retrying
+     *
+     * @throws TransactionException if an error occurs
+     */
+    @Test
+    void givenConflictingExpectedVersionWhenUpdateThenNotRetried() throws TransactionException {
+        doThrow(new TransactionConflictException("conflict")).when(transactionService).update(transaction, 3L);
+
+        assertThrows(TransactionConflictException.class, () -> transactionUpdateService(2).update(transaction, 3L));
+
+        verify(transactionService, times(1)).update(transaction, 3L);
+    }
+
+    private TransactionUpdateService transactionUpdateService(final int blindRetries) {
+        return new TransactionUpdateService(transactionService, new UpdateProperties(blindRetries, Duration.ZERO));
+    }
+}
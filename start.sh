@@ -25,5 +25,22 @@
 #
 #
 
-java -jar /usr/local/lib/app.jar --spring.datasource.url=$DB_URL --spring.datasource.username=$DB_USER \
+APP=/usr/local/lib/app
+
+# The training run uses the same JVM flags as the application, so the archive records the same classes. There is no
+# database during the build, so it is given a URL it never connects to, and it neither validates the schema nor reads
+# the database metadata, which the vendor location of the migrations would need.
+JAVA_OPTS="-Dspring.aot.enabled=true"
+CLASS_PATH="$APP/application.jar:$APP/lib/*"
+
+if [ "$CDS_TRAINING" = "true" ]; then
+  exec java -XX:ArchiveClassesAtExit=$APP/application.jsa $JAVA_OPTS -cp "$CLASS_PATH" \
+  dev.georgethepenguin.render.poc.Application --render.poc.cds.training=true \
+  --spring.datasource.url=jdbc:postgresql://localhost/training --spring.jpa.hibernate.ddl-auto=none \
+  --spring.jpa.properties.hibernate.temp.use_jdbc_metadata_defaults=false \
+  --spring.flyway.locations=classpath:db/migration/common,classpath:db/migration/postgresql
+fi
+
+exec java -XX:SharedArchiveFile=$APP/application.jsa $JAVA_OPTS -cp "$CLASS_PATH" \
+dev.georgethepenguin.render.poc.Application --spring.datasource.url=$DB_URL --spring.datasource.username=$DB_USER \
 --spring.datasource.password=$DB_PASSWD